@@ -1,17 +1,29 @@
 package com.vantage.api.config;
 
 import com.vantage.api.dto.LinkValidationTask;
-import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.BoundedExecutor;
+import com.vantage.api.worker.LinkStreamConsumer;
+import com.vantage.api.worker.LinkTaskCodec;
+import com.vantage.api.worker.LinkValidationQueue;
+import com.vantage.api.worker.OverflowPolicy;
+import com.vantage.api.worker.WorkerThreadMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.data.redis.stream.Subscription;
 
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 
 @Configuration // Tells Spring this is a configuration class, calls it when the app starts
 public class RedisConfig {
@@ -24,35 +36,72 @@ public class RedisConfig {
         // 1. String serialization for the key
         template.setKeySerializer(RedisSerializer.string());
 
-        // 2. JSON serialization for the Value (DTO)
-        template.setValueSerializer(RedisSerializer.json());
+        // 2. Compact binary encoding for the Value (tasks in the retry zset)
+        LinkTaskCodec codec = new LinkTaskCodec();
+        template.setValueSerializer(codec);
+
+        // 3. Stream entries and dead letters are hashes: string field names, binary payload.
+        //    Must match the value serializer, the retry promotion copies zset members into the stream.
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setHashValueSerializer(codec);
 
         return template;
     }
 
-    // Listens to "link-validation" always, looking for when something comes into the channel
+    // Runs the validation work handed over by the stream consumer.
+    // Platform mode: fixed pool of hardware-backed threads. Virtual mode: one virtual thread per task.
+    // Bounded either way: at most queue-capacity tasks wait (platform) or live (virtual) beyond the pool.
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService linkWorkerExecutor(@Value("${vantage.worker.threads:platform}") WorkerThreadMode threadMode,
+                                       @Value("${vantage.worker.pool-size:100}") int poolSize,
+                                       @Value("${vantage.worker.queue-capacity:1000}") int queueCapacity,
+                                       @Value("${vantage.worker.overflow.policy:caller-runs}") OverflowPolicy overflowPolicy,
+                                       MeterRegistry meterRegistry) {
+        int capacity = (threadMode == WorkerThreadMode.PLATFORM ? poolSize : 0) + queueCapacity;
+        return new BoundedExecutor(threadMode.newExecutor("link-worker", poolSize), capacity, overflowPolicy,
+                meterRegistry);
+    }
+
+    // Polls the "link-validation" stream through the consumer group
     @Bean
-    RedisMessageListenerContainer container(RedisConnectionFactory connectionFactory,
-                                            MessageListenerAdapter listenerAdapter) {
-        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
-        container.setConnectionFactory(connectionFactory);
-        // We listen to the exact same channel used in LeadService
-        container.addMessageListener(listenerAdapter, new ChannelTopic("link-validation"));
-
-        // Virtual threads, not hardware threads
-        container.setTaskExecutor(Executors.newFixedThreadPool(100));
-        return container;
+    @ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+    StreamMessageListenerContainer<String, MapRecord<String, String, Object>> container(
+            RedisConnectionFactory connectionFactory,
+            @Value("${vantage.worker.threads:platform}") WorkerThreadMode threadMode,
+            @Value("${vantage.queue.batch-size:50}") int batchSize,
+            @Value("${vantage.queue.poll-timeout:PT2S}") Duration pollTimeout) {
+        SimpleAsyncTaskExecutor pollExecutor = new SimpleAsyncTaskExecutor("link-stream-");
+        pollExecutor.setVirtualThreads(threadMode == WorkerThreadMode.VIRTUAL);
+
+        StreamMessageListenerContainerOptions<String, MapRecord<String, String, Object>> options =
+                StreamMessageListenerContainerOptions.builder()
+                        .executor(pollExecutor)
+                        .batchSize(batchSize)
+                        .pollTimeout(pollTimeout)
+                        .keySerializer(RedisSerializer.string())
+                        .hashKeySerializer(RedisSerializer.string())
+                        .<String, Object>hashValueSerializer(new LinkTaskCodec())
+                        .autoStartup(true)
+                        .build();
+        return StreamMessageListenerContainer.create(connectionFactory, options);
     }
 
-    // Container passes JSON to here
+    // Container passes each entry to the consumer; acks are sent manually after processing
     @Bean
-    MessageListenerAdapter linkListenerAdapter(LinkWorkerService workerService) {
-        // We tell Spring to call the "handleMessage" method in our worker service
-        MessageListenerAdapter adapter = new MessageListenerAdapter(workerService, "handleMessage");
+    @ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+    Subscription linkStreamSubscription(
+            StreamMessageListenerContainer<String, MapRecord<String, String, Object>> container,
+            LinkValidationQueue queue,
+            LinkStreamConsumer consumer) {
+        queue.ensureGroup();
 
-        // Use the standard JSON serializer
-        adapter.setSerializer(RedisSerializer.json());
-        return adapter;
+        StreamReadRequest<String> request = StreamReadRequest.builder(queue.readOffset())
+                .consumer(queue.consumer())
+                .autoAcknowledge(false)
+                // Keep polling through transient Redis errors instead of dropping the subscription
+                .cancelOnError(e -> false)
+                .build();
+        return container.register(request, consumer);
     }
 
 }
@@ -0,0 +1,19 @@
+package com.vantage.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (queue maintenance, relays).
+ * Kept out of the main application class for the same reason as
+ * {@link JpaAuditingConfig}: test slices should not start these jobs.
+ * <p>
+ * The jobs share {@code spring.task.scheduling.pool.size} threads, not Spring's
+ * default of one: under the caller-runs overflow policy a queue poller runs
+ * probes on its scheduler thread, blocked on the upstream or a permit, while
+ * the result and validator flushes and the retry poll must keep running.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
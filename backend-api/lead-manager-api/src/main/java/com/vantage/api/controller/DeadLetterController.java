@@ -0,0 +1,43 @@
+package com.vantage.api.controller;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.worker.LinkRetryQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/dead-letters")
+@Tag(name = "Dead letters", description = "Validation tasks that exhausted their retries")
+public class DeadLetterController {
+
+    private final LinkRetryQueue retryQueue;
+
+    public DeadLetterController(LinkRetryQueue retryQueue) {
+        this.retryQueue = retryQueue;
+    }
+
+    @Operation(summary = "List dead-lettered validation tasks, most recent first")
+    @GetMapping
+    public ResponseEntity<List<DeadLetter>> getDeadLetters() {
+        return ResponseEntity.ok(retryQueue.deadLetters());
+    }
+
+    @Operation(summary = "Re-queue one dead-lettered task with a fresh attempt count")
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<Void> replay(@PathVariable UUID id) {
+        retryQueue.replay(id);
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Re-queue every dead-lettered task")
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Integer>> replayAll() {
+        return ResponseEntity.accepted().body(Map.of("replayed", retryQueue.replayAll()));
+    }
+}
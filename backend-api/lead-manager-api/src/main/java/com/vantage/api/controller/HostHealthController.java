@@ -0,0 +1,38 @@
+package com.vantage.api.controller;
+
+import com.vantage.api.dto.HostHealth;
+import com.vantage.api.exception.ResourceNotFoundException;
+import com.vantage.api.worker.HostCircuitBreaker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admin/hosts")
+@Tag(name = "Host health", description = "Per-host circuit-breaker state of the link worker")
+public class HostHealthController {
+
+    private final HostCircuitBreaker circuitBreaker;
+
+    public HostHealthController(HostCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Operation(summary = "List probed hosts, highest failure rate first")
+    @GetMapping
+    public ResponseEntity<List<HostHealth>> getHosts() {
+        return ResponseEntity.ok(circuitBreaker.snapshot());
+    }
+
+    @Operation(summary = "Get the health of a single host")
+    @GetMapping("/{host}")
+    public ResponseEntity<HostHealth> getHost(@PathVariable String host) {
+        return circuitBreaker.health(host.toLowerCase(Locale.ROOT))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Host", host));
+    }
+}
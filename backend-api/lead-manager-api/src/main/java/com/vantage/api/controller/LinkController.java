@@ -1,15 +1,25 @@
 package com.vantage.api.controller;
 
+import com.vantage.api.dto.BulkLinkResponse;
 import com.vantage.api.dto.LinkRequest;
 import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.exception.PayloadTooLargeException;
+import com.vantage.api.service.LinkBulkService;
 import com.vantage.api.service.LinkService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,9 +29,13 @@ import java.util.UUID;
 public class LinkController {
 
     private final LinkService linkService;
+    private final LinkBulkService linkBulkService;
+    private final ObjectMapper objectMapper;
 
-    public LinkController(LinkService linkService) {
+    public LinkController(LinkService linkService, LinkBulkService linkBulkService, ObjectMapper objectMapper) {
         this.linkService = linkService;
+        this.linkBulkService = linkBulkService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Queue a new link for async validation")
@@ -32,6 +46,48 @@ public class LinkController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(created);
     }
 
+    @Operation(summary = "Queue many links at once from a JSON array")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkLinkResponse> addLinks(@RequestBody List<LinkRequest> requests) {
+        return bulkResponse(linkBulkService.createAll(requests));
+    }
+
+    @Operation(summary = "Queue many links at once from NDJSON, one link per line")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkLinkResponse> addLinksNdjson(Reader body) throws IOException {
+        List<LinkRequest> requests = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(body)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (requests.size() == linkBulkService.maxItems()) {
+                    throw new PayloadTooLargeException(linkBulkService.maxItems());
+                }
+                requests.add(readLine(line));
+            }
+        }
+        return bulkResponse(linkBulkService.createAll(requests));
+    }
+
+    // An unreadable line becomes a null item, reported as failed at its position
+    private LinkRequest readLine(String line) {
+        try {
+            return objectMapper.readValue(line, LinkRequest.class);
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    // 202 if everything was queued, 207 if only some items were, 400 if none were
+    private static ResponseEntity<BulkLinkResponse> bulkResponse(BulkLinkResponse response) {
+        HttpStatus status = response.failed() == 0 ? HttpStatus.ACCEPTED
+                : response.created() > 0 ? HttpStatus.MULTI_STATUS
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
     @Operation(summary = "List all external links")
     @GetMapping
     public ResponseEntity<List<ExternalLink>> getAllLinks() {
@@ -0,0 +1,18 @@
+package com.vantage.api.dto;
+
+import java.util.List;
+
+/**
+ * Response body of a bulk link request: totals plus one result per item,
+ * in request order.
+ */
+public record BulkLinkResponse(
+        int created,
+        int failed,
+        List<BulkLinkResult> results) {
+
+    public static BulkLinkResponse of(List<BulkLinkResult> results) {
+        int failed = (int) results.stream().filter(result -> result.error() != null).count();
+        return new BulkLinkResponse(results.size() - failed, failed, results);
+    }
+}
@@ -0,0 +1,26 @@
+package com.vantage.api.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk link request.
+ *
+ * @param index position of the item in the request (array index or NDJSON line, from 0)
+ * @param url   the URL as submitted, if the item could be read
+ * @param id    the created link's ID; null if the item failed
+ * @param error why the item was rejected; null if it was created
+ */
+public record BulkLinkResult(
+        int index,
+        String url,
+        UUID id,
+        String error) {
+
+    public static BulkLinkResult created(int index, String url, UUID id) {
+        return new BulkLinkResult(index, url, id, null);
+    }
+
+    public static BulkLinkResult failed(int index, String url, String error) {
+        return new BulkLinkResult(index, url, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.vantage.api.dto;
+
+/**
+ *  A validation task that failed transiently on every allowed attempt.
+ *  Kept in the dead-letter hash until an operator replays it.
+ *  @param task     the task as it was last attempted
+ *  @param reason   message of the final failure
+ *  @param failedAt epoch millis of the final failure
+ */
+
+public record DeadLetter(
+        LinkValidationTask task,
+        String reason,
+        long failedAt
+) {}
@@ -0,0 +1,20 @@
+package com.vantage.api.dto;
+
+/**
+ *  Circuit-breaker view of one probed host over the current sliding window.
+ *  @param host              lower-cased host name
+ *  @param circuit           CLOSED, HALF_OPEN or OPEN
+ *  @param calls             probes recorded in the window
+ *  @param failureRate       share of those probes that got no usable answer
+ *  @param slowCallRate      share slower than the slow-call threshold
+ *  @param meanLatencyMillis mean probe latency in the window
+ */
+
+public record HostHealth(
+        String host,
+        String circuit,
+        long calls,
+        double failureRate,
+        double slowCallRate,
+        double meanLatencyMillis
+) {}
@@ -7,11 +7,62 @@ import java.util.UUID;
  *  Represents the message payload sent to Redis for the worker to process.
  *  Using a Record automatically provides a constructor, getters, equals,
  *  and hashCode without boilerplate.
- *  @param id
- *  @param url
+ *  @param id           the url_checks row the probe result is written to
+ *  @param url          the canonical URL to probe
+ *  @param attempt      number of earlier attempts that ended in a transient failure
+ *  @param budgetMillis end-to-end time budget for one attempt, from pickup to response;
+ *                      0 means the worker's default budget
+ *  @param enqueuedAt   epoch millis at which the task became due for a worker (queued, or its
+ *                      retry delay ran out), stamped by the queue; 0 if unknown
+ *  @param etag         ETag from the last response for this URL, sent as If-None-Match; null if none
+ *  @param lastModified Last-Modified from the last response, sent as If-Modified-Since; null if none
  */
 
 public record LinkValidationTask(
         UUID id,
-        String url
-) implements Serializable  {}
+        String url,
+        int attempt,
+        long budgetMillis,
+        long enqueuedAt,
+        String etag,
+        String lastModified
+) implements Serializable  {
+
+    public LinkValidationTask(UUID id, String url, int attempt, long budgetMillis, long enqueuedAt) {
+        this(id, url, attempt, budgetMillis, enqueuedAt, null, null);
+    }
+
+    public LinkValidationTask(UUID id, String url, int attempt, long budgetMillis) {
+        this(id, url, attempt, budgetMillis, 0);
+    }
+
+    /** A first attempt with the worker's default budget. */
+    public LinkValidationTask(UUID id, String url) {
+        this(id, url, 0, 0);
+    }
+
+    /** A given attempt with the worker's default budget. */
+    public LinkValidationTask(UUID id, String url, int attempt) {
+        this(id, url, attempt, 0);
+    }
+
+    /** The same task, to be delivered as the next retry. */
+    public LinkValidationTask nextAttempt() {
+        return new LinkValidationTask(id, url, attempt + 1, budgetMillis, enqueuedAt, etag, lastModified);
+    }
+
+    /** The same task, due for a worker from {@code enqueuedAt} (epoch millis). */
+    public LinkValidationTask withEnqueuedAt(long enqueuedAt) {
+        return new LinkValidationTask(id, url, attempt, budgetMillis, enqueuedAt, etag, lastModified);
+    }
+
+    /** The same task, probed conditionally against the validators of the last response. */
+    public LinkValidationTask withValidators(String etag, String lastModified) {
+        return new LinkValidationTask(id, url, attempt, budgetMillis, enqueuedAt, etag, lastModified);
+    }
+
+    /** This task stamped with the current time, unless it already carries an enqueue time. */
+    public LinkValidationTask stamped() {
+        return enqueuedAt > 0 ? this : withEnqueuedAt(System.currentTimeMillis());
+    }
+}
@@ -1,5 +1,6 @@
 package com.vantage.api.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -17,7 +18,9 @@ public class ExternalLink {
     public enum LinkStatus {
         PENDING,
         VALIDATED,
-        BROKEN
+        BROKEN,
+        /** Every attempt ran out of its time budget without a response. */
+        TIMEOUT
     }
 
     @Id
@@ -35,15 +38,13 @@ public class ExternalLink {
     /** Human-readable label for the link, e.g. "Final Cut v3". Optional. */
     private String name;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private LinkStatus status = LinkStatus.PENDING;
-
     /**
-     * Timestamp of last HEAD-request validation. Null until first check completes.
+     * Shared probe result for this link's canonical URL. Status and last_checked
+     * live there, so links to the same resource are validated once.
      */
-    @Column(name = "last_checked")
-    private LocalDateTime lastChecked;
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "url_check_id", nullable = false)
+    private UrlCheck urlCheck;
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -92,20 +93,28 @@ public class ExternalLink {
         this.name = name;
     }
 
-    public LinkStatus getStatus() {
-        return status;
+    @JsonIgnore
+    public UrlCheck getUrlCheck() {
+        return urlCheck;
     }
 
-    public void setStatus(LinkStatus status) {
-        this.status = status;
+    public void setUrlCheck(UrlCheck urlCheck) {
+        this.urlCheck = urlCheck;
+    }
+
+    /** Status of the shared URL check; PENDING until the link is attached to one. */
+    public LinkStatus getStatus() {
+        return urlCheck == null ? LinkStatus.PENDING : urlCheck.getStatus();
     }
 
+    /** Timestamp of the shared URL check's last validation. Null until first check completes. */
     public LocalDateTime getLastChecked() {
-        return lastChecked;
+        return urlCheck == null ? null : urlCheck.getLastChecked();
     }
 
-    public void setLastChecked(LocalDateTime lastChecked) {
-        this.lastChecked = lastChecked;
+    /** When the upstream resource was last seen to change (new ETag or Last-Modified). Null if never. */
+    public LocalDateTime getContentChangedAt() {
+        return urlCheck == null ? null : urlCheck.getContentChangedAt();
     }
 
     public LocalDateTime getCreatedAt() {
@@ -0,0 +1,93 @@
+package com.vantage.api.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A validation task waiting to be published to the Redis stream.
+ * Written in the same transaction as the link that needs it, so it exists
+ * if and only if that transaction commits; {@code LinkOutboxRelay} publishes
+ * and deletes it afterwards.
+ */
+@Entity
+@Table(name = "outbox")
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "url_check_id", nullable = false, updatable = false)
+    private UUID urlCheckId;
+
+    @Column(nullable = false, length = 2048, updatable = false)
+    private String url;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+
+    public OutboxEntry() {
+    }
+
+    public OutboxEntry(UUID urlCheckId, String url) {
+        this.urlCheckId = urlCheckId;
+        this.url = url;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getUrlCheckId() {
+        return urlCheckId;
+    }
+
+    public void setUrlCheckId(UUID urlCheckId) {
+        this.urlCheckId = urlCheckId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        OutboxEntry that = (OutboxEntry) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,169 @@
+package com.vantage.api.entity;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Latest probe result for one canonical URL (see {@code UrlNormalizer}).
+ * Every {@link ExternalLink} pointing at the same resource references the same
+ * check, so the URL is probed and its result written once for all of them.
+ */
+@Entity
+@Table(name = "url_checks")
+@EntityListeners(AuditingEntityListener.class)
+public class UrlCheck {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "canonical_url", nullable = false, unique = true, length = 2048, updatable = false)
+    private String canonicalUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LinkStatus status = LinkStatus.PENDING;
+
+    /**
+     * Timestamp of last HEAD-request validation. Null until first check completes.
+     */
+    @Column(name = "last_checked")
+    private LocalDateTime lastChecked;
+
+    /**
+     * HTTP status of the last probe response. Null until a response arrives.
+     */
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    /**
+     * Cache validators of the last response, sent back on the next probe.
+     */
+    @Column(length = 1024)
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified;
+
+    /**
+     * When a probe last saw different validators than the one before it.
+     */
+    @Column(name = "content_changed_at")
+    private LocalDateTime contentChangedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+
+    public UrlCheck() {
+    }
+
+    // Getters and Setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    public void setCanonicalUrl(String canonicalUrl) {
+        this.canonicalUrl = canonicalUrl;
+    }
+
+    public LinkStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LinkStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getLastChecked() {
+        return lastChecked;
+    }
+
+    public void setLastChecked(LocalDateTime lastChecked) {
+        this.lastChecked = lastChecked;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public LocalDateTime getContentChangedAt() {
+        return contentChangedAt;
+    }
+
+    public void setContentChangedAt(LocalDateTime contentChangedAt) {
+        this.contentChangedAt = contentChangedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        UrlCheck that = (UrlCheck) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -28,6 +28,13 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of(409, ex.getMessage()));
     }
 
+    /** Too many items in one request → 413. */
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleTooLarge(PayloadTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+                .body(ErrorResponse.of(413, ex.getMessage()));
+    }
+
     /** Bean-validation failures (@Valid) → 400. */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
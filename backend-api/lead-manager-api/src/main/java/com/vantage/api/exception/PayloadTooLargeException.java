@@ -0,0 +1,12 @@
+package com.vantage.api.exception;
+
+/**
+ * Thrown when a request carries more items than the endpoint accepts at once.
+ * Mapped to 413 Content Too Large by the global exception handler.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(int limit) {
+        super("Request exceeds the limit of " + limit + " items");
+    }
+}
@@ -1,9 +1,12 @@
 package com.vantage.api.repository;
 
 import com.vantage.api.entity.ExternalLink;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -13,5 +16,14 @@ import java.util.UUID;
 
 @Repository
 public interface ExternalLinkRepository extends JpaRepository<ExternalLink, UUID> {
-    long countByStatus(ExternalLink.LinkStatus status);
+    long countByUrlCheckStatus(ExternalLink.LinkStatus status);
+
+    // Reads join the shared URL check in the same query instead of one select per link
+    @Override
+    @EntityGraph(attributePaths = "urlCheck")
+    List<ExternalLink> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "urlCheck")
+    Optional<ExternalLink> findById(UUID id);
 }
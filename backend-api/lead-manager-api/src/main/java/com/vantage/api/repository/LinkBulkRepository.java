@@ -0,0 +1,106 @@
+package com.vantage.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ *  Set-based JDBC writes for bulk link ingestion.
+ *  Every method costs one round trip however many rows it touches: arrays are
+ *  bound as a single parameter, inserts go out as one JDBC batch (rewritten
+ *  into multi-row INSERTs by the driver's reWriteBatchedInserts).
+ */
+
+@Repository
+public class LinkBulkRepository {
+
+    /** A url_checks row as the bulk path needs it; {@code created} if this call inserted it. */
+    public record CheckRef(UUID id, String canonicalUrl, LocalDateTime lastChecked, boolean created) {
+    }
+
+    /** An external_links row to insert. */
+    public record NewLink(UUID id, UUID projectId, String url, String name, UUID urlCheckId) {
+    }
+
+    static final String INSERT_CHECKS_SQL = """
+            INSERT INTO url_checks (canonical_url, status, created_at, updated_at)
+            SELECT u, 'PENDING', now(), now() FROM unnest(?) AS u
+            ON CONFLICT (canonical_url) DO NOTHING
+            RETURNING id
+            """;
+    static final String SELECT_CHECKS_SQL =
+            "SELECT id, canonical_url, last_checked FROM url_checks WHERE canonical_url = ANY(?)";
+    static final String SELECT_PROJECTS_SQL = "SELECT id FROM projects WHERE id = ANY(?)";
+    static final String INSERT_LINK_SQL = """
+            INSERT INTO external_links (id, project_id, url, name, url_check_id, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LinkBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the checks that do not exist yet (same ON CONFLICT DO NOTHING
+     * convergence as {@link UrlCheckRepository#insertIfAbsent}) and returns
+     * every one of them keyed by canonical URL.
+     */
+    public Map<String, CheckRef> upsertChecks(Collection<String> canonicalUrls) {
+        // Sorted so concurrent bulk requests lock overlapping keys in the same order
+        String[] urls = canonicalUrls.stream().sorted().distinct().toArray(String[]::new);
+
+        Set<UUID> created = new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_CHECKS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", urls));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject("id", UUID.class)));
+
+        Map<String, CheckRef> checks = new HashMap<>(urls.length * 2);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_CHECKS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", urls));
+            return ps;
+        }, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            Timestamp lastChecked = rs.getTimestamp("last_checked");
+            checks.put(rs.getString("canonical_url"), new CheckRef(id, rs.getString("canonical_url"),
+                    lastChecked == null ? null : lastChecked.toLocalDateTime(), created.contains(id)));
+        });
+        return checks;
+    }
+
+    /** The subset of {@code projectIds} that exist. */
+    public Set<UUID> existingProjects(Collection<UUID> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Set.of();
+        }
+        UUID[] ids = projectIds.toArray(UUID[]::new);
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_PROJECTS_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject("id", UUID.class)));
+    }
+
+    public void insertLinks(List<NewLink> links) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(links.size());
+        for (NewLink link : links) {
+            args.add(new Object[]{link.id(), link.projectId(), link.url(), link.name(), link.urlCheckId(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINK_SQL, args);
+    }
+}
@@ -0,0 +1,14 @@
+package com.vantage.api.repository;
+
+import com.vantage.api.entity.OutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ *  Handles all database operations for the OutboxEntry entity.
+ *  Entries are only ever inserted here; the relay drains them with plain JDBC.
+ */
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+}
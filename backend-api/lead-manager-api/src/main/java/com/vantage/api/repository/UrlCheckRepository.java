@@ -0,0 +1,74 @@
+package com.vantage.api.repository;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import com.vantage.api.entity.UrlCheck;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ *  Handles all database operations for the UrlCheck entity.
+ *  Checks are created through insertIfAbsent so concurrent requests for the
+ *  same canonical URL converge on a single row instead of racing on the unique key.
+ */
+
+@Repository
+public interface UrlCheckRepository extends JpaRepository<UrlCheck, UUID> {
+
+    Optional<UrlCheck> findByCanonicalUrl(String canonicalUrl);
+
+    /**
+     * Next page of checks last validated before {@code cutoff}, oldest first,
+     * strictly after the keyset cursor ({@code afterChecked}, {@code afterId}).
+     * Served by idx_url_checks_last_checked without scanning past the page.
+     * Checks no link refers to any more (their last link was deleted) are
+     * skipped; the EXISTS probe uses idx_external_links_url_check_id.
+     */
+    @Query(value = """
+            SELECT * FROM url_checks c
+            WHERE c.last_checked < :cutoff
+              AND (c.last_checked, c.id) > (:afterChecked, :afterId)
+              AND EXISTS (SELECT 1 FROM external_links l WHERE l.url_check_id = c.id)
+            ORDER BY c.last_checked, c.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UrlCheck> findDueForRevalidation(@Param("cutoff") LocalDateTime cutoff,
+                                          @Param("afterChecked") LocalDateTime afterChecked,
+                                          @Param("afterId") UUID afterId,
+                                          @Param("limit") int limit);
+
+    /**
+     * Next page of checks still waiting for their first result, in id order
+     * after {@code afterId}. Served by idx_url_checks_pending.
+     */
+    @Query(value = """
+            SELECT * FROM url_checks
+            WHERE status = 'PENDING' AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UrlCheck> findPendingAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    /**
+     * Creation time of the oldest check in {@code status}, or null if there is none.
+     * For {@code PENDING}, served by idx_url_checks_pending_created_at.
+     */
+    @Query("SELECT min(c.createdAt) FROM UrlCheck c WHERE c.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") LinkStatus status);
+
+    /** @return 1 if this call created the check, 0 if it already existed */
+    @Modifying
+    @Query(value = """
+            INSERT INTO url_checks (canonical_url, status, created_at, updated_at)
+            VALUES (:canonicalUrl, 'PENDING', now(), now())
+            ON CONFLICT (canonical_url) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("canonicalUrl") String canonicalUrl);
+}
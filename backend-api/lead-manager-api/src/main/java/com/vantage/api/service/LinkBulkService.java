@@ -0,0 +1,152 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.BulkLinkResponse;
+import com.vantage.api.dto.BulkLinkResult;
+import com.vantage.api.dto.LinkRequest;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.PayloadTooLargeException;
+import com.vantage.api.repository.LinkBulkRepository;
+import com.vantage.api.repository.LinkBulkRepository.CheckRef;
+import com.vantage.api.repository.LinkBulkRepository.NewLink;
+import com.vantage.api.worker.LinkTaskOutbox;
+import com.vantage.api.worker.UrlNormalizer;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class LinkBulkService {
+
+    private final LinkBulkRepository bulkRepository;
+    private final Validator validator;
+    private final LinkTaskOutbox taskOutbox;
+    private final Duration checkTtl;
+    private final int maxItems;
+
+    /**
+     * @param checkTtl same reuse window as {@link LinkService}
+     * @param maxItems most items accepted in one request
+     */
+    public LinkBulkService(LinkBulkRepository bulkRepository,
+            Validator validator,
+            LinkTaskOutbox taskOutbox,
+            @Value("${vantage.links.check-ttl:PT24H}") Duration checkTtl,
+            @Value("${vantage.links.bulk.max-items:10000}") int maxItems) {
+        this.bulkRepository = bulkRepository;
+        this.validator = validator;
+        this.taskOutbox = taskOutbox;
+        this.checkTtl = checkTtl;
+        this.maxItems = maxItems;
+    }
+
+    /** Most items {@link #createAll} accepts; readers of streamed input stop here. */
+    public int maxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Creates many links at once with a fixed number of statements: one
+     * upsert and one select for their URL checks, one project lookup, one
+     * batched insert each for the links and their outbox entries. Probes are
+     * queued under the same rules as {@link LinkService#createValidationTask},
+     * once per canonical URL however many items share it.
+     * <p>
+     * Items that fail validation (or are null, e.g. an unreadable NDJSON line)
+     * or reference an unknown project are reported and skipped; the rest are
+     * created in one transaction, and the tasks are released to the queue in
+     * one batch as it commits.
+     *
+     * @throws PayloadTooLargeException if there are more than {@code maxItems} items
+     */
+    @Transactional
+    public BulkLinkResponse createAll(List<LinkRequest> requests) {
+        if (requests.size() > maxItems) {
+            throw new PayloadTooLargeException(maxItems);
+        }
+
+        BulkLinkResult[] results = new BulkLinkResult[requests.size()];
+        Map<Integer, String> canonicalUrls = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            LinkRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = BulkLinkResult.failed(i, request == null ? null : request.url(), error);
+            } else {
+                canonicalUrls.put(i, UrlNormalizer.normalize(request.url()));
+            }
+        }
+
+        Set<UUID> projectIds = canonicalUrls.keySet().stream()
+                .map(i -> requests.get(i).projectId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<UUID> knownProjects = bulkRepository.existingProjects(projectIds);
+        canonicalUrls.keySet().removeIf(i -> {
+            LinkRequest request = requests.get(i);
+            if (request.projectId() == null || knownProjects.contains(request.projectId())) {
+                return false;
+            }
+            results[i] = BulkLinkResult.failed(i, request.url(), "Project not found with id " + request.projectId());
+            return true;
+        });
+
+        if (!canonicalUrls.isEmpty()) {
+            Map<String, CheckRef> checks = bulkRepository.upsertChecks(canonicalUrls.values());
+            List<NewLink> links = new ArrayList<>(canonicalUrls.size());
+            List<LinkValidationTask> tasks = new ArrayList<>();
+            Set<UUID> queued = new HashSet<>();
+
+            canonicalUrls.forEach((i, canonicalUrl) -> {
+                LinkRequest request = requests.get(i);
+                CheckRef check = checks.get(canonicalUrl);
+                UUID id = UUID.randomUUID();
+                links.add(new NewLink(id, request.projectId(), request.url(), request.name(), check.id()));
+                if ((check.created() || isStale(check)) && queued.add(check.id())) {
+                    tasks.add(new LinkValidationTask(check.id(), check.canonicalUrl()));
+                }
+                results[i] = BulkLinkResult.created(i, request.url(), id);
+            });
+
+            bulkRepository.insertLinks(links);
+            if (!tasks.isEmpty()) {
+                taskOutbox.addAll(tasks);
+            }
+        }
+
+        return BulkLinkResponse.of(Arrays.asList(results));
+    }
+
+    private String validate(LinkRequest request) {
+        if (request == null) {
+            return "Item is empty or not valid JSON";
+        }
+        Set<ConstraintViolation<LinkRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private boolean isStale(CheckRef check) {
+        return check.lastChecked() != null
+                && check.lastChecked().isBefore(LocalDateTime.now().minus(checkTtl));
+    }
+}
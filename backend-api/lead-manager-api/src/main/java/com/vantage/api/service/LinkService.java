@@ -2,12 +2,18 @@ package com.vantage.api.service;
 
 import com.vantage.api.dto.LinkValidationTask;
 import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.entity.UrlCheck;
 import com.vantage.api.exception.ResourceNotFoundException;
 import com.vantage.api.repository.ExternalLinkRepository;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.LinkTaskOutbox;
+import com.vantage.api.worker.UrlNormalizer;
 import jakarta.transaction.Transactional;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,15 +21,27 @@ import java.util.UUID;
 public class LinkService {
 
     private final ExternalLinkRepository repository;
-    private final RedisTemplate<String, LinkValidationTask> redisTemplate;
+    private final UrlCheckRepository urlCheckRepository;
+    private final LinkTaskOutbox taskOutbox;
+    private final Duration checkTtl;
 
-    public LinkService(ExternalLinkRepository repository, RedisTemplate<String, LinkValidationTask> redisTemplate) {
+    /**
+     * @param checkTtl how long a URL check result is reused before a new link
+     *                 (or URL change) pointing at it triggers another probe
+     */
+    public LinkService(ExternalLinkRepository repository,
+            UrlCheckRepository urlCheckRepository,
+            LinkTaskOutbox taskOutbox,
+            @Value("${vantage.links.check-ttl:PT24H}") Duration checkTtl) {
         this.repository = repository;
-        this.redisTemplate = redisTemplate;
+        this.urlCheckRepository = urlCheckRepository;
+        this.taskOutbox = taskOutbox;
+        this.checkTtl = checkTtl;
     }
 
     /**
-     * Saves a new external link and queues it for async validation.
+     * Saves a new external link and queues its URL for async validation,
+     * unless another link already has a fresh result for the same URL.
      *
      * @param url       the external URL (required)
      * @param projectId optional FK to the owning project
@@ -35,13 +53,8 @@ public class LinkService {
         link.setUrl(url);
         link.setProjectId(projectId);
         link.setName(name);
-        link.setStatus(ExternalLink.LinkStatus.PENDING);
-        ExternalLink savedLink = repository.save(link);
-
-        LinkValidationTask task = new LinkValidationTask(savedLink.getId(), url);
-        redisTemplate.convertAndSend("link-validation", task);
-
-        return savedLink;
+        attachUrlCheck(link, url);
+        return repository.save(link);
     }
 
     /** Returns all external links. */
@@ -60,7 +73,8 @@ public class LinkService {
     }
 
     /**
-     * Updates an existing link. Re-queues for validation if the URL changed.
+     * Updates an existing link. Re-points it at the check for the new URL
+     * (queueing validation if that check is stale) if the URL changed.
      *
      * @throws ResourceNotFoundException if not found
      */
@@ -75,12 +89,7 @@ public class LinkService {
 
         if (!link.getUrl().equals(newUrl)) {
             link.setUrl(newUrl);
-            link.setStatus(ExternalLink.LinkStatus.PENDING);
-            ExternalLink updatedLink = repository.save(link);
-
-            LinkValidationTask task = new LinkValidationTask(updatedLink.getId(), newUrl);
-            redisTemplate.convertAndSend("link-validation", task);
-            return updatedLink;
+            attachUrlCheck(link, newUrl);
         }
 
         return repository.save(link);
@@ -98,4 +107,29 @@ public class LinkService {
     public void deleteAllLinks() {
         repository.deleteAll();
     }
+
+    /**
+     * Points the link at the shared check for its canonical URL and queues a
+     * probe only if that check was just created or its result has expired.
+     * A check that exists but has never completed is already queued.
+     * <p>
+     * The task goes to the outbox in the caller's transaction, not straight to
+     * the queue: it is released only once the link and check rows are committed.
+     */
+    private void attachUrlCheck(ExternalLink link, String url) {
+        String canonicalUrl = UrlNormalizer.normalize(url);
+        boolean created = urlCheckRepository.insertIfAbsent(canonicalUrl) == 1;
+        UrlCheck check = urlCheckRepository.findByCanonicalUrl(canonicalUrl)
+                .orElseThrow(() -> new IllegalStateException("URL check vanished for " + canonicalUrl));
+        link.setUrlCheck(check);
+
+        if (created || isStale(check)) {
+            taskOutbox.add(new LinkValidationTask(check.getId(), check.getCanonicalUrl()));
+        }
+    }
+
+    private boolean isStale(UrlCheck check) {
+        return check.getLastChecked() != null
+                && check.getLastChecked().isBefore(LocalDateTime.now().minus(checkTtl));
+    }
 }
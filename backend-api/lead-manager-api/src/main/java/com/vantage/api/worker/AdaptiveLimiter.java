@@ -0,0 +1,240 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps outstanding probes with a limit that adapts to how upstreams respond
+ * (additive increase, multiplicative decrease).
+ * <p>
+ * Every finished probe is a sample. A success whose latency stays within
+ * {@code latencyTolerance} times the smoothed baseline, while at least half
+ * of the limit is in use, raises the limit by {@code 1 / limit}, so a limit
+ * that is kept busy grows by about one per round of probes: the node keeps
+ * probing faster until upstreams slow down. A timeout, or a transient error rate
+ * above {@code errorRateThreshold}, multiplies it by {@code backoffRatio},
+ * at most once per baseline latency so one bad wave does not collapse it.
+ * Slow successes hold the limit where it is. The limit stays within
+ * [{@code minLimit}, {@code maxLimit}]; with adaptation off it is fixed.
+ * <p>
+ * Callers over the limit block in {@link #acquire()}, which is the
+ * consumers' backpressure, or wait without a thread in {@link #acquireAsync()};
+ * freed permits go to the latter first. Exports {@code link.validation.limit},
+ * {@code link.validation.in_flight} and {@code link.validation.queueing_delay}
+ * (smoothed time spent waiting for a permit).
+ */
+@Component
+public class AdaptiveLimiter {
+
+    public enum Outcome {
+        SUCCESS, FAILURE, TIMEOUT
+    }
+
+    private static final double BASELINE_ALPHA = 0.01;
+    private static final double ERROR_ALPHA = 0.05;
+    private static final double DELAY_ALPHA = 0.05;
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double errorRateThreshold;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<CompletableFuture<Void>> asyncWaiters = new ArrayDeque<>();
+
+    // Guarded by lock; the volatile ones are also read lock-free by the gauges
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile double queueingDelayNanos;
+    private double baselineNanos = Double.NaN;
+    private double errorRate;
+    private long lastDecrease;
+
+    /**
+     * @param backoffRatio       factor applied to the limit on a timeout, in (0, 1)
+     * @param latencyTolerance   how far above the baseline latency a success may be
+     *                           and still count as stable
+     * @param errorRateThreshold smoothed share of transient failures above which the limit backs off
+     */
+    public AdaptiveLimiter(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.limit.adaptive:true}") boolean adaptive,
+            @Value("${vantage.worker.limit.initial:100}") int initialLimit,
+            @Value("${vantage.worker.limit.min:10}") int minLimit,
+            @Value("${vantage.worker.max-in-flight:2000}") int maxLimit,
+            @Value("${vantage.worker.limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${vantage.worker.limit.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${vantage.worker.limit.error-rate-threshold:0.5}") double errorRateThreshold) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= maxLimit, got " + minLimit + ".." + maxLimit);
+        }
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.errorRateThreshold = errorRateThreshold;
+        this.limit = adaptive ? Math.clamp(initialLimit, minLimit, maxLimit) : maxLimit;
+        this.lastDecrease = System.nanoTime();
+
+        Gauge.builder("link.validation.limit", this, AdaptiveLimiter::limit)
+                .description("Current cap on outstanding probes")
+                .register(meterRegistry);
+        Gauge.builder("link.validation.in_flight", this, AdaptiveLimiter::inFlight)
+                .description("Probes currently awaiting a response")
+                .register(meterRegistry);
+        TimeGauge.builder("link.validation.queueing_delay", this, TimeUnit.NANOSECONDS, l -> l.queueingDelayNanos)
+                .description("Smoothed time a probe waits for a permit before it is sent")
+                .register(meterRegistry);
+    }
+
+    /** A non-adaptive limiter: at most {@code limit} outstanding probes, always. */
+    public static AdaptiveLimiter fixed(int limit, MeterRegistry meterRegistry) {
+        return new AdaptiveLimiter(meterRegistry, false, limit, limit, limit, 1, 1, 1);
+    }
+
+    /** Waits until fewer than {@link #limit()} probes are outstanding, then takes a slot. */
+    public void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                available.await();
+            }
+            inFlight++;
+            queueingDelayNanos += DELAY_ALPHA * ((System.nanoTime() - start) - queueingDelayNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot without blocking: the future completes once it is taken,
+     * on the thread that freed it. For callers that already hold another
+     * resource, such as a host slot, and must not park a thread on top.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> acquired = new CompletableFuture<>();
+            long start = System.nanoTime();
+            asyncWaiters.add(acquired);
+            return acquired.whenComplete((ignored, failure) -> recordDelay(System.nanoTime() - start));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Frees a slot without a sample, e.g. the probe was cancelled or never sent. */
+    public void release() {
+        List<CompletableFuture<Void>> handedOff;
+        lock.lock();
+        try {
+            inFlight--;
+            handedOff = handOff();
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        handedOff.forEach(waiter -> waiter.complete(null));
+    }
+
+    /** Frees a slot and adjusts the limit from the probe's latency and outcome. */
+    public void release(long latencyNanos, Outcome outcome) {
+        List<CompletableFuture<Void>> handedOff;
+        lock.lock();
+        try {
+            int previous = (int) limit;
+            if (adaptive) {
+                adjust(latencyNanos, outcome);
+            }
+            inFlight--;
+            handedOff = handOff();
+            if ((int) limit > previous) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Completed outside the lock: their continuations send probes
+        handedOff.forEach(waiter -> waiter.complete(null));
+    }
+
+    // Called with the lock held: free slots go to async waiters before blocked callers
+    private List<CompletableFuture<Void>> handOff() {
+        if (asyncWaiters.isEmpty()) {
+            return List.of();
+        }
+        List<CompletableFuture<Void>> handedOff = new ArrayList<>();
+        while (!asyncWaiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            handedOff.add(asyncWaiters.poll());
+        }
+        return handedOff;
+    }
+
+    private void recordDelay(long nanos) {
+        lock.lock();
+        try {
+            queueingDelayNanos += DELAY_ALPHA * (nanos - queueingDelayNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held, before inFlight is decremented
+    private void adjust(long latencyNanos, Outcome outcome) {
+        errorRate += ERROR_ALPHA * ((outcome == Outcome.SUCCESS ? 0 : 1) - errorRate);
+        if (outcome == Outcome.TIMEOUT || errorRate > errorRateThreshold) {
+            long now = System.nanoTime();
+            // One decrease per baseline latency: the probes of one slow wave all fail together
+            if (Double.isNaN(baselineNanos) || now - lastDecrease >= baselineNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecrease = now;
+            }
+            return;
+        }
+        if (outcome != Outcome.SUCCESS) {
+            return;
+        }
+        if (Double.isNaN(baselineNanos)) {
+            baselineNanos = latencyNanos;
+        }
+        boolean stable = latencyNanos <= baselineNanos * latencyTolerance;
+        baselineNanos += BASELINE_ALPHA * (latencyNanos - baselineNanos);
+        // Only grow a limit that is actually being used
+        if (stable && inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight;
+    }
+
+    public long queueingDelayNanos() {
+        return (long) queueingDelayNanos;
+    }
+}
@@ -0,0 +1,114 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the tasks an executor holds, queued or running, at {@code capacity}.
+ * <p>
+ * {@code Executors.newFixedThreadPool} queues without limit, so a burst read
+ * off the stream piles up on the heap. Here every task takes a permit until
+ * it finishes; once none are left the {@link OverflowPolicy} decides, and the
+ * burst stays in the queue engine instead. Works the same over a platform
+ * pool (capacity = threads + waiting tasks) and over virtual threads
+ * (capacity = tasks alive at once).
+ * <p>
+ * Exports {@code link.executor.occupancy} and {@code link.executor.capacity}
+ * gauges and a {@code link.executor.overflow} counter tagged with the policy.
+ */
+public class BoundedExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Semaphore permits;
+    private final Counter overflow;
+
+    public BoundedExecutor(ExecutorService delegate, int capacity, OverflowPolicy policy, MeterRegistry meterRegistry) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.permits = new Semaphore(capacity);
+        this.overflow = Counter.builder("link.executor.overflow")
+                .description("Tasks submitted to a full worker executor, by overflow policy")
+                .tag("policy", policy.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        Gauge.builder("link.executor.occupancy", this, BoundedExecutor::occupancy)
+                .description("Tasks queued or running in the worker executor")
+                .register(meterRegistry);
+        Gauge.builder("link.executor.capacity", () -> capacity)
+                .description("Most tasks the worker executor holds before its overflow policy applies")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            overflow.increment();
+            switch (policy) {
+                case CALLER_RUNS -> task.run();
+                case SPILL -> throw new RejectedExecutionException("Worker executor full (" + capacity + " tasks)");
+                case SHED -> throw new TaskShedException("Worker executor full (" + capacity + " tasks), task shed");
+            }
+            return;
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Tasks currently queued or running. */
+    public int occupancy() {
+        return capacity - permits.availablePermits();
+    }
+
+    public OverflowPolicy policy() {
+        return policy;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
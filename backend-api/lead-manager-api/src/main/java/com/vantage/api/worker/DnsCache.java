@@ -0,0 +1,229 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Host name resolution cache for the probes.
+ * <p>
+ * Addresses are kept for {@code ttl}, failed lookups ({@link UnknownHostException})
+ * for {@code negativeTtl}, so a dead domain shared by many links costs one
+ * lookup per window rather than one per probe. Concurrent lookups of the
+ * same name share a single resolution. At most {@code maxEntries} names are
+ * kept: a miss that overfills the cache sweeps it down to nine tenths, expired
+ * entries first, then those expiring soonest, so the sweep runs once per tenth
+ * of the cache in misses rather than on every one.
+ * <p>
+ * The JDK {@link java.net.http.HttpClient} has no resolver hook, so the cache
+ * is reached through {@link DnsResolverProvider}, the JVM-wide resolver
+ * provider, which it installs on startup. Only names {@linkplain #markProbeHost
+ * marked} as probe hosts by {@link ProbeHttpClients} are served from here, at
+ * most {@code maxEntries} of them remembered; every other lookup (JDBC, Redis)
+ * goes to the built-in resolver untouched, so infrastructure names keep the
+ * JVM's own caching and its short TTLs. The system resolver does not report
+ * record TTLs, so one fixed TTL applies to every probe host.
+ * <p>
+ * Exports {@code link.dns.lookups} tagged {@code result} = {@code hit},
+ * {@code negative_hit}, {@code coalesced} or {@code miss},
+ * {@code link.dns.resolution} (time spent on misses) and {@code link.dns.cache.size}.
+ */
+@Component
+public class DnsCache {
+
+    /** One resolution through the underlying resolver. */
+    @FunctionalInterface
+    public interface Lookup {
+        List<InetAddress> resolve() throws UnknownHostException;
+    }
+
+    private record Entry(CompletableFuture<List<InetAddress>> addresses, long expiresAt) {
+    }
+
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final int maxEntries;
+    private final int evictTo;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> probeHosts;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter coalesced;
+    private final Counter misses;
+    private final Timer resolution;
+
+    /**
+     * @param ttl         how long resolved addresses are reused
+     * @param negativeTtl how long an unknown host keeps failing without a new lookup
+     * @param maxEntries  names kept before the cache starts evicting
+     */
+    public DnsCache(MeterRegistry meterRegistry, Duration ttl, Duration negativeTtl, int maxEntries,
+            LongSupplier nanoClock) {
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+        this.evictTo = maxEntries - Math.max(1, maxEntries / 10);
+        this.nanoClock = nanoClock;
+        // Access order: a probe refreshes its host, the least recently probed is forgotten first
+        this.probeHosts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = lookups(meterRegistry, "hit");
+        this.negativeHits = lookups(meterRegistry, "negative_hit");
+        this.coalesced = lookups(meterRegistry, "coalesced");
+        this.misses = lookups(meterRegistry, "miss");
+        this.resolution = Timer.builder("link.dns.resolution")
+                .description("Time spent resolving host names the cache could not answer")
+                .register(meterRegistry);
+        Gauge.builder("link.dns.cache.size", entries, Map::size)
+                .description("Host names held by the DNS cache, failures included")
+                .register(meterRegistry);
+    }
+
+    @Autowired
+    public DnsCache(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.dns.ttl:PT5M}") Duration ttl,
+            @Value("${vantage.worker.dns.negative-ttl:PT30S}") Duration negativeTtl,
+            @Value("${vantage.worker.dns.max-entries:50000}") int maxEntries) {
+        this(meterRegistry, ttl, negativeTtl, maxEntries, System::nanoTime);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("link.dns.lookups")
+                .description("Host name lookups, by how the cache answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /** Routes the JVM's lookups of probe hosts through this cache. */
+    @PostConstruct
+    public void install() {
+        DnsResolverProvider.install(this);
+    }
+
+    @PreDestroy
+    public void uninstall() {
+        DnsResolverProvider.uninstall(this);
+    }
+
+    /** Serves later lookups of {@code host} from this cache; called before a probe is sent to it. */
+    public void markProbeHost(String host) {
+        synchronized (probeHosts) {
+            probeHosts.put(host.toLowerCase(Locale.ROOT), Boolean.TRUE);
+        }
+    }
+
+    /** Whether lookups of {@code host} are served from this cache rather than passed through. */
+    public boolean isProbeHost(String host) {
+        synchronized (probeHosts) {
+            return probeHosts.containsKey(host.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Addresses cached under {@code key}, resolving them with {@code lookup}
+     * on the calling thread if they are missing or expired.
+     *
+     * @throws UnknownHostException when the name does not resolve, fresh or cached
+     */
+    public List<InetAddress> resolve(String key, Lookup lookup) throws UnknownHostException {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            CompletableFuture<List<InetAddress>> addresses = entry.addresses();
+            if (!addresses.isDone()) {
+                coalesced.increment();
+            } else if (addresses.isCompletedExceptionally()) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+            }
+            return await(addresses);
+        }
+
+        // Provisional expiry: lookups arriving while this one runs wait for it
+        CompletableFuture<List<InetAddress>> pending = new CompletableFuture<>();
+        Entry claimed = new Entry(pending, now + negativeTtl.toNanos());
+        boolean won = entry == null ? entries.putIfAbsent(key, claimed) == null : entries.replace(key, entry, claimed);
+        if (!won) {
+            // Another thread claimed it first
+            return resolve(key, lookup);
+        }
+        misses.increment();
+        evictIfFull();
+        long start = nanoClock.getAsLong();
+        try {
+            List<InetAddress> addresses = List.copyOf(lookup.resolve());
+            entries.replace(key, claimed, new Entry(pending, nanoClock.getAsLong() + ttl.toNanos()));
+            pending.complete(addresses);
+            return addresses;
+        } catch (UnknownHostException e) {
+            // Negative entry: stays for negativeTtl from when the lookup started
+            pending.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            // Not an answer about the name; do not cache it
+            entries.remove(key, claimed);
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            resolution.record(Duration.ofNanos(nanoClock.getAsLong() - start));
+        }
+    }
+
+    private static List<InetAddress> await(CompletableFuture<List<InetAddress>> addresses) throws UnknownHostException {
+        try {
+            return addresses.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UnknownHostException unknown) {
+                // A fresh instance per caller: the stack trace should be the caller's own
+                throw new UnknownHostException(unknown.getMessage());
+            }
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        entries.values().removeIf(entry -> entry.addresses().isDone() && entry.expiresAt() - now <= 0);
+        // Still full of live names: drop the ones expiring soonest, leaving room for the next misses
+        int excess = entries.size() - evictTo;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .filter(e -> e.getValue().addresses().isDone())
+                    .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.expiresAt() - now, b.expiresAt() - now)))
+                    .limit(excess)
+                    .toList()
+                    .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.vantage.api.worker;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.net.spi.InetAddressResolver;
+import java.net.spi.InetAddressResolverProvider;
+import java.util.stream.Stream;
+
+/**
+ * Resolver provider that puts {@link DnsCache} in front of the JVM's built-in
+ * resolver. Registered in {@code META-INF/services}, so the JVM loads it on
+ * the first host name lookup. Only names the installed cache has marked as
+ * probe hosts go through it; everything else, and every lookup while no cache
+ * is {@linkplain #install installed}, is passed straight to the built-in
+ * resolver. The JVM's own address cache stays in front of both.
+ */
+public class DnsResolverProvider extends InetAddressResolverProvider {
+
+    private static volatile DnsCache cache;
+
+    static void install(DnsCache dnsCache) {
+        cache = dnsCache;
+    }
+
+    static void uninstall(DnsCache dnsCache) {
+        if (cache == dnsCache) {
+            cache = null;
+        }
+    }
+
+    @Override
+    public InetAddressResolver get(Configuration configuration) {
+        InetAddressResolver builtin = configuration.builtinResolver();
+        return new InetAddressResolver() {
+            @Override
+            public Stream<InetAddress> lookupByName(String host, LookupPolicy lookupPolicy) throws UnknownHostException {
+                DnsCache current = cache;
+                if (current == null || !current.isProbeHost(host)) {
+                    return builtin.lookupByName(host, lookupPolicy);
+                }
+                // The policy decides address families and their order, so it is part of the key
+                String key = host + '/' + lookupPolicy.characteristics();
+                return current.resolve(key, () -> builtin.lookupByName(host, lookupPolicy).toList()).stream();
+            }
+
+            @Override
+            public String lookupByAddress(byte[] addr) throws UnknownHostException {
+                return builtin.lookupByAddress(addr);
+            }
+        };
+    }
+
+    @Override
+    public String name() {
+        return "vantage-dns-cache";
+    }
+}
@@ -0,0 +1,151 @@
+package com.vantage.api.worker;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates Frame.io share links in batches.
+ * <p>
+ * Frame.io's public API looks up one review link or asset per request and has
+ * no batch endpoint, so this validator posts the batch to {@code batch-url}: a
+ * lookup service run next to the deployment that holds the Frame.io token and
+ * answers for many links at once. The contract is
+ * <pre>
+ * POST {batch-url}   {"links": ["reviews/{id}", "f/{code}", ...]}
+ * 200                {"links": {"reviews/{id}": {"status": 200}, ...}}
+ * </pre>
+ * where {@code status} is what opening the link would return. The token, if
+ * set, is sent as a bearer token.
+ * <p>
+ * Recognised links: {@code f.io/{code}}, {@code app.frame.io/reviews|presentations|player/{id}}
+ * and {@code next.frame.io/share/{id}}; the resource id is the kind and id,
+ * e.g. {@code reviews/{id}}.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.validators.frame-io.enabled", havingValue = "true")
+public class FrameIoLinkValidator implements LinkValidator {
+
+    private static final Pattern APP_LINK = Pattern.compile("^/(reviews|presentations|player)/([A-Za-z0-9-]+)");
+    private static final Pattern SHARE_LINK = Pattern.compile("^/share/([A-Za-z0-9-]+)");
+    private static final Pattern SHORT_LINK = Pattern.compile("^/([A-Za-z0-9]+)/?$");
+
+    private final ProbeHttpClients httpClients;
+    private final ObjectMapper objectMapper;
+    private final URI batchUrl;
+    private final String token;
+    private final int batchSize;
+    private final Duration timeout;
+
+    /**
+     * @param batchUrl  the batch lookup endpoint described above
+     * @param token     bearer token for it, or blank for none
+     * @param batchSize most links per call
+     * @param timeout   time allowed for one call
+     */
+    @Autowired
+    public FrameIoLinkValidator(ProbeHttpClients httpClients,
+            ObjectMapper objectMapper,
+            @Value("${vantage.validators.frame-io.batch-url}") URI batchUrl,
+            @Value("${vantage.validators.frame-io.token:}") String token,
+            @Value("${vantage.validators.frame-io.batch-size:100}") int batchSize,
+            @Value("${vantage.validators.timeout:PT10S}") Duration timeout) {
+        this.httpClients = httpClients;
+        this.objectMapper = objectMapper;
+        this.batchUrl = batchUrl;
+        this.token = token;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String name() {
+        return "frame_io";
+    }
+
+    @Override
+    public String resourceId(String url) {
+        URI uri = URI.create(url.trim());
+        String host = uri.getHost();
+        String path = uri.getRawPath();
+        if (host == null || path == null) {
+            return null;
+        }
+        return switch (host.toLowerCase(Locale.ROOT)) {
+            case "f.io" -> idOf(SHORT_LINK, path, "f/");
+            case "app.frame.io" -> idOf(APP_LINK, path, "");
+            case "next.frame.io" -> idOf(SHARE_LINK, path, "share/");
+            default -> null;
+        };
+    }
+
+    /** {@code prefix} and the pattern's groups joined with slashes, or null if {@code path} does not match. */
+    private static String idOf(Pattern link, String path, String prefix) {
+        Matcher matcher = link.matcher(path);
+        if (!matcher.find()) {
+            return null;
+        }
+        StringBuilder id = new StringBuilder(prefix);
+        for (int group = 1; group <= matcher.groupCount(); group++) {
+            id.append(group > 1 ? "/" : "").append(matcher.group(group));
+        }
+        return id.toString();
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Map<String, ProbeResponse> validate(List<String> resourceIds) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(batchUrl)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("links", resourceIds))));
+        if (!token.isBlank()) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = httpClients.clientFor(batchUrl.getHost())
+                .send(request.build(), HttpResponse.BodyHandlers.ofString());
+        httpClients.onResponse(batchUrl.getHost(), "https".equalsIgnoreCase(batchUrl.getScheme()), response);
+        if (ProbeResponse.isTransient(response.statusCode())) {
+            throw new TransientProbeException("HTTP " + response.statusCode() + " from " + batchUrl);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + batchUrl);
+        }
+
+        JsonNode links;
+        try {
+            links = objectMapper.readTree(response.body()).path("links");
+        } catch (JacksonException e) {
+            throw new IOException("Malformed response from " + batchUrl, e);
+        }
+        Map<String, ProbeResponse> results = new HashMap<>();
+        for (String resourceId : resourceIds) {
+            JsonNode link = links.path(resourceId);
+            if (link.path("status").isInt()) {
+                results.put(resourceId, new ProbeResponse(link.path("status").asInt(), null, null));
+            }
+        }
+        return results;
+    }
+}
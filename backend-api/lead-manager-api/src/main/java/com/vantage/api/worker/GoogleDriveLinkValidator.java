@@ -0,0 +1,237 @@
+package com.vantage.api.worker;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates Google Drive and Docs links with the Drive v3 API, up to 100
+ * files per HTTP call through the batch endpoint ({@code multipart/mixed},
+ * one {@code files.get} per part).
+ * <p>
+ * A file that exists is valid, a trashed one is reported as 410 Gone, and
+ * anything the API key cannot see reads as not found. An API key only sees
+ * files shared with anyone who has the link, which is what a client opening
+ * the link needs as well. Rate limiting by the API, per file or for the whole
+ * call, retries the links instead of failing them; so does a rejected API key,
+ * which must not turn every Drive link BROKEN.
+ * <p>
+ * Published documents ({@code /d/e/...}) carry no file id and are left to the
+ * generic probe.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.validators.google-drive.enabled", havingValue = "true")
+public class GoogleDriveLinkValidator implements LinkValidator {
+
+    static final int MAX_BATCH_SIZE = 100;
+
+    // /file/d/{id}, /document/d/{id}, /spreadsheets/d/{id}, ..., /drive/folders/{id}, /drive/u/0/folders/{id}
+    private static final Pattern PATH_ID = Pattern.compile("/(?:d|folders)/([A-Za-z0-9_-]{10,})(?:[/?#]|$)");
+    private static final Pattern QUERY_ID = Pattern.compile("(?:^|&)id=([A-Za-z0-9_-]{10,})(?:&|$)");
+    private static final Pattern CONTENT_ID = Pattern.compile("(?im)^Content-ID:\\s*<response-item(\\d+)>");
+    private static final Pattern STATUS_LINE = Pattern.compile("^HTTP/[\\d.]+ (\\d{3})");
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?");
+
+    private final ProbeHttpClients httpClients;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final URI baseUrl;
+    private final Duration timeout;
+
+    /**
+     * @param baseUrl root of the Google APIs, the batch endpoint being {@code /batch/drive/v3} under it
+     * @param timeout time allowed for one batch call
+     */
+    @Autowired
+    public GoogleDriveLinkValidator(ProbeHttpClients httpClients,
+            ObjectMapper objectMapper,
+            @Value("${vantage.validators.google-drive.api-key}") String apiKey,
+            @Value("${vantage.validators.google-drive.base-url:https://www.googleapis.com}") URI baseUrl,
+            @Value("${vantage.validators.timeout:PT10S}") Duration timeout) {
+        this.httpClients = httpClients;
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String name() {
+        return "google_drive";
+    }
+
+    @Override
+    public String resourceId(String url) {
+        URI uri = URI.create(url.trim());
+        String host = uri.getHost();
+        if (host == null) {
+            return null;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        if (!host.equals("drive.google.com") && !host.equals("docs.google.com")) {
+            return null;
+        }
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        if (path.contains("/d/e/")) {
+            // Published to the web: the id is not a file id
+            return null;
+        }
+        Matcher inPath = PATH_ID.matcher(path);
+        if (inPath.find()) {
+            return inPath.group(1);
+        }
+        // drive.google.com/open?id={id}, /uc?id={id}
+        String query = uri.getRawQuery();
+        if (query != null) {
+            Matcher inQuery = QUERY_ID.matcher(query);
+            if (inQuery.find()) {
+                return inQuery.group(1);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public Map<String, ProbeResponse> validate(List<String> fileIds) throws IOException, InterruptedException {
+        String boundary = "batch_" + UUID.randomUUID();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < fileIds.size(); i++) {
+            body.append("--").append(boundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <item").append(i).append(">\r\n\r\n")
+                    .append("GET /drive/v3/files/").append(fileIds.get(i))
+                    .append("?fields=id,trashed,modifiedTime&supportsAllDrives=true&key=")
+                    .append(URLEncoder.encode(apiKey, StandardCharsets.UTF_8))
+                    .append("\r\n\r\n");
+        }
+        body.append("--").append(boundary).append("--\r\n");
+
+        URI endpoint = baseUrl.resolve("/batch/drive/v3");
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "multipart/mixed; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = httpClients.clientFor(endpoint.getHost())
+                .send(request, HttpResponse.BodyHandlers.ofString());
+        httpClients.onResponse(endpoint.getHost(), "https".equalsIgnoreCase(endpoint.getScheme()), response);
+        if (ProbeResponse.isTransient(response.statusCode())) {
+            throw new TransientProbeException("HTTP " + response.statusCode() + " from " + endpoint);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + endpoint);
+        }
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        Matcher responseBoundary = BOUNDARY.matcher(contentType);
+        if (!responseBoundary.find()) {
+            throw new IOException("Batch response from " + endpoint + " is not multipart: " + contentType);
+        }
+
+        Map<String, ProbeResponse> results = new HashMap<>();
+        for (String part : response.body().split("--" + Pattern.quote(responseBoundary.group(1)))) {
+            Matcher contentId = CONTENT_ID.matcher(part);
+            if (!contentId.find()) {
+                // Preamble or the closing delimiter
+                continue;
+            }
+            int index = Integer.parseInt(contentId.group(1));
+            if (index >= fileIds.size()) {
+                continue;
+            }
+            results.put(fileIds.get(index), responseOf(endpoint, innerResponse(part.substring(contentId.end()))));
+        }
+        return results;
+    }
+
+    /** The HTTP response wrapped in a batch part: everything after the part's own headers. */
+    private static String innerResponse(String part) {
+        int headersEnd = part.indexOf("\r\n\r\n");
+        int separator = 4;
+        if (headersEnd < 0) {
+            headersEnd = part.indexOf("\n\n");
+            separator = 2;
+        }
+        return headersEnd < 0 ? "" : part.substring(headersEnd + separator).strip();
+    }
+
+    private ProbeResponse responseOf(URI endpoint, String inner) throws IOException {
+        Matcher status = STATUS_LINE.matcher(inner);
+        if (!status.find()) {
+            throw new IOException("Malformed part in batch response from " + endpoint);
+        }
+        int code = Integer.parseInt(status.group(1));
+        int bodyStart = inner.indexOf("\n{");
+        JsonNode json = null;
+        if (bodyStart >= 0) {
+            try {
+                json = objectMapper.readTree(inner.substring(bodyStart + 1));
+            } catch (JacksonException e) {
+                // Status line alone decides
+            }
+        }
+        if (code == 400 || code == 401) {
+            // Bad key or request: nothing learned about the file
+            throw new IOException("HTTP " + code + " from " + endpoint + " for a file lookup");
+        }
+        if (code == 403 && json != null && isRateLimit(json)) {
+            return new ProbeResponse(429, null, null);
+        }
+        if (code != 200 || json == null) {
+            return new ProbeResponse(code, null, null);
+        }
+        if (json.path("trashed").asBoolean(false)) {
+            return new ProbeResponse(410, null, null);
+        }
+        return new ProbeResponse(200, null, httpDate(json.path("modifiedTime").asString(null)));
+    }
+
+    private static boolean isRateLimit(JsonNode json) {
+        for (JsonNode error : json.path("error").path("errors")) {
+            if (error.path("reason").asString("").toLowerCase(Locale.ROOT).contains("ratelimit")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Drive's RFC 3339 timestamp as an HTTP date, the format stored for {@code Last-Modified}. */
+    private static String httpDate(String modifiedTime) {
+        if (modifiedTime == null) {
+            return null;
+        }
+        try {
+            return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    OffsetDateTime.parse(modifiedTime).withOffsetSameInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.HostHealth;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-host circuit breaker for outbound probes.
+ * <p>
+ * Each host keeps a sliding window of {@code buckets} time buckets of calls,
+ * failures, slow calls and latency, updated with atomic increments only (no
+ * locks on the probe path). Once the window holds at least {@code minCalls}
+ * and the failure or slow-call rate crosses its threshold, the circuit opens:
+ * {@link #tryAcquire(String)} refuses without any I/O for {@code openDuration}.
+ * After that a single trial probe is let through (half-open); its outcome
+ * closes the circuit or opens it again.
+ * <p>
+ * Circuits are per host; a closed one that saw no probe for a whole window
+ * holds nothing worth keeping and is {@linkplain #evictIdle() evicted}. State
+ * and rates are exported per {@code host_group} of {@link ProbeLatencyMetrics}
+ * as {@code link.host.circuit.state} (the worst state in the group),
+ * {@code link.host.failure.rate}, {@code link.host.slow.rate} and
+ * {@code link.host.circuit.rejected}; per host through {@link #snapshot()}
+ * for the admin endpoint.
+ */
+@Component
+public class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /** Thrown (via the returned future) when a host's circuit is open. */
+    public static class CircuitOpenException extends RuntimeException {
+        private final Duration retryAfter;
+
+        public CircuitOpenException(String host, Duration retryAfter) {
+            super("Circuit open for host " + host);
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(HostCircuitBreaker.class);
+
+    /**
+     * Ring of time buckets. A writer landing in a bucket whose epoch is stale
+     * claims it with a CAS and zeroes it; increments racing that reset can be
+     * lost, which only makes the rates slightly approximate.
+     */
+    private static final class SlidingWindow {
+        final long bucketNanos;
+        final int size;
+        final AtomicLongArray epochs;
+        final AtomicLongArray calls;
+        final AtomicLongArray failures;
+        final AtomicLongArray slowCalls;
+        final AtomicLongArray latencyNanos;
+
+        SlidingWindow(Duration window, int size) {
+            this.size = size;
+            this.bucketNanos = Math.max(1, window.toNanos() / size);
+            this.epochs = new AtomicLongArray(size);
+            this.calls = new AtomicLongArray(size);
+            this.failures = new AtomicLongArray(size);
+            this.slowCalls = new AtomicLongArray(size);
+            this.latencyNanos = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                epochs.set(i, Long.MIN_VALUE);
+            }
+        }
+
+        void record(long now, boolean failed, boolean slow, long latency) {
+            long epoch = Math.floorDiv(now, bucketNanos);
+            int index = (int) Math.floorMod(epoch, (long) size);
+            long seen = epochs.get(index);
+            if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+                calls.set(index, 0);
+                failures.set(index, 0);
+                slowCalls.set(index, 0);
+                latencyNanos.set(index, 0);
+            }
+            calls.incrementAndGet(index);
+            latencyNanos.addAndGet(index, latency);
+            if (failed) {
+                failures.incrementAndGet(index);
+            }
+            if (slow) {
+                slowCalls.incrementAndGet(index);
+            }
+        }
+
+        /** Totals over buckets still inside the window: {calls, failures, slowCalls, latencyNanos}. */
+        long[] totals(long now) {
+            long current = Math.floorDiv(now, bucketNanos);
+            long[] totals = new long[4];
+            for (int i = 0; i < size; i++) {
+                long epoch = epochs.get(i);
+                if (epoch > current - size && epoch <= current) {
+                    totals[0] += calls.get(i);
+                    totals[1] += failures.get(i);
+                    totals[2] += slowCalls.get(i);
+                    totals[3] += latencyNanos.get(i);
+                }
+            }
+            return totals;
+        }
+
+        void reset() {
+            for (int i = 0; i < size; i++) {
+                epochs.set(i, Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private final class Circuit {
+        final String host;
+        final Group group;
+        final SlidingWindow window = new SlidingWindow(windowLength, buckets);
+        final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+        final AtomicLong openedAt = new AtomicLong();
+        final AtomicLong trialStartedAt = new AtomicLong();
+        final AtomicLong lastUsed = new AtomicLong();
+
+        Circuit(String host) {
+            this.host = host;
+            this.group = groups.computeIfAbsent(hostGroup.apply(host), Group::new);
+            this.lastUsed.set(nanoClock.getAsLong());
+            group.members.add(this);
+        }
+    }
+
+    /** The circuits of one host group, and the meters they are exported through. */
+    private final class Group {
+        final Set<Circuit> members = ConcurrentHashMap.newKeySet();
+        final Counter rejected;
+
+        Group(String name) {
+            this.rejected = Counter.builder("link.host.circuit.rejected")
+                    .description("Probes refused without I/O because their host's circuit was open")
+                    .tag("host_group", name)
+                    .register(meterRegistry);
+            Gauge.builder("link.host.circuit.state", this,
+                            g -> g.members.stream().mapToInt(c -> c.state.get().ordinal()).max().orElse(0))
+                    .description("Worst circuit state among the group's hosts: 0 closed, 1 half-open, 2 open")
+                    .tag("host_group", name)
+                    .register(meterRegistry);
+            Gauge.builder("link.host.failure.rate", this, g -> rates(g.members)[0])
+                    .description("Share of probes to the group's hosts that failed within the sliding window")
+                    .tag("host_group", name)
+                    .register(meterRegistry);
+            Gauge.builder("link.host.slow.rate", this, g -> rates(g.members)[1])
+                    .description("Share of probes to the group's hosts slower than the slow-call threshold")
+                    .tag("host_group", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration windowLength;
+    private final int buckets;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final UnaryOperator<String> hostGroup;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-style timestamps
+     * @param hostGroup maps a host to the {@code host_group} its meters are tagged with
+     */
+    public HostCircuitBreaker(MeterRegistry meterRegistry,
+            Duration window,
+            int buckets,
+            int minCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration,
+            LongSupplier nanoClock,
+            UnaryOperator<String> hostGroup) {
+        this.meterRegistry = meterRegistry;
+        this.windowLength = window;
+        this.buckets = buckets;
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.hostGroup = hostGroup;
+    }
+
+    /** Same, grouping hosts as a default {@link ProbeLatencyMetrics} does. */
+    public HostCircuitBreaker(MeterRegistry meterRegistry,
+            Duration window,
+            int buckets,
+            int minCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration,
+            LongSupplier nanoClock) {
+        this(meterRegistry, window, buckets, minCalls, failureRateThreshold, slowCallThreshold, slowCallRateThreshold,
+                openDuration, nanoClock, new ProbeLatencyMetrics(meterRegistry)::hostGroup);
+    }
+
+    @Autowired
+    public HostCircuitBreaker(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.circuit.window:PT10S}") Duration window,
+            @Value("${vantage.worker.circuit.buckets:10}") int buckets,
+            @Value("${vantage.worker.circuit.min-calls:20}") int minCalls,
+            @Value("${vantage.worker.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${vantage.worker.circuit.slow-call-threshold:PT2S}") Duration slowCallThreshold,
+            @Value("${vantage.worker.circuit.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${vantage.worker.circuit.open-duration:PT30S}") Duration openDuration,
+            ProbeLatencyMetrics latency) {
+        this(meterRegistry, window, buckets, minCalls, failureRateThreshold, slowCallThreshold,
+                slowCallRateThreshold, openDuration, System::nanoTime, latency::hostGroup);
+    }
+
+    /** Same, with the system clock and default host groups. */
+    public HostCircuitBreaker(MeterRegistry meterRegistry,
+            Duration window,
+            int buckets,
+            int minCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration) {
+        this(meterRegistry, window, buckets, minCalls, failureRateThreshold, slowCallThreshold,
+                slowCallRateThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * Whether a probe to {@code host} may go out now. While half-open only one
+     * trial is admitted at a time; a trial whose outcome is never reported
+     * (e.g. the task was dropped) expires after {@code openDuration}.
+     */
+    public boolean tryAcquire(String host) {
+        Circuit circuit = circuitFor(host);
+        long now = nanoClock.getAsLong();
+        State state = circuit.state.get();
+
+        if (state == State.OPEN) {
+            if (now - circuit.openedAt.get() < openNanos
+                    || !circuit.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                circuit.group.rejected.increment();
+                return false;
+            }
+            circuit.trialStartedAt.set(now);
+            return true;
+        }
+        if (state == State.HALF_OPEN) {
+            long trial = circuit.trialStartedAt.get();
+            if (now - trial < openNanos || !circuit.trialStartedAt.compareAndSet(trial, now)) {
+                circuit.group.rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Time until the circuit for {@code host} may admit a probe: the rest of
+     * the open duration, or while half-open the rest of the pending trial's
+     * allowance. Never less than a tenth of the open duration, so tasks
+     * refused in a race with the trial are not re-queued in a tight loop.
+     */
+    public Duration retryAfter(String host) {
+        Circuit circuit = circuitFor(host);
+        long now = nanoClock.getAsLong();
+        long since = circuit.state.get() == State.HALF_OPEN
+                ? circuit.trialStartedAt.get()
+                : circuit.openedAt.get();
+        long remaining = openNanos - (now - since);
+        return Duration.ofNanos(Math.max(remaining, openNanos / 10));
+    }
+
+    /** The host answered (any HTTP status that says something about the link). */
+    public void onSuccess(String host, long latencyNanos) {
+        record(host, false, latencyNanos);
+    }
+
+    /** No usable answer: timeout, connection or DNS failure, gateway error. */
+    public void onFailure(String host, long latencyNanos) {
+        record(host, true, latencyNanos);
+    }
+
+    private void record(String host, boolean failed, long latencyNanos) {
+        Circuit circuit = circuitFor(host);
+        long now = nanoClock.getAsLong();
+        boolean slow = latencyNanos >= slowCallNanos;
+
+        if (circuit.state.get() == State.HALF_OPEN) {
+            if (failed || slow) {
+                open(circuit, now);
+            } else if (circuit.state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                circuit.window.reset();
+                log.info("Circuit for host {} closed", circuit.host);
+            }
+            return;
+        }
+
+        circuit.window.record(now, failed, slow, latencyNanos);
+        if (circuit.state.get() == State.CLOSED && shouldOpen(circuit, now)) {
+            open(circuit, now);
+        }
+    }
+
+    private boolean shouldOpen(Circuit circuit, long now) {
+        long[] totals = circuit.window.totals(now);
+        if (totals[0] < minCalls) {
+            return false;
+        }
+        return (double) totals[1] / totals[0] >= failureRateThreshold
+                || (double) totals[2] / totals[0] >= slowCallRateThreshold;
+    }
+
+    private void open(Circuit circuit, long now) {
+        circuit.openedAt.set(now);
+        State previous = circuit.state.getAndSet(State.OPEN);
+        if (previous != State.OPEN) {
+            log.warn("Circuit for host {} opened", circuit.host);
+        }
+    }
+
+    private double[] rates(Circuit circuit) {
+        return rates(List.of(circuit));
+    }
+
+    private double[] rates(Collection<Circuit> members) {
+        long now = nanoClock.getAsLong();
+        long calls = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (Circuit circuit : members) {
+            long[] totals = circuit.window.totals(now);
+            calls += totals[0];
+            failures += totals[1];
+            slowCalls += totals[2];
+        }
+        if (calls == 0) {
+            return new double[] {0, 0};
+        }
+        return new double[] {(double) failures / calls, (double) slowCalls / calls};
+    }
+
+    private Circuit circuitFor(String host) {
+        Circuit circuit = circuits.computeIfAbsent(host, Circuit::new);
+        circuit.lastUsed.set(nanoClock.getAsLong());
+        return circuit;
+    }
+
+    /**
+     * Drops closed circuits that saw no probe for a whole window: their window
+     * is empty, so a fresh circuit is equivalent. A probe racing the eviction
+     * may record into the dropped circuit, losing one sample.
+     */
+    @Scheduled(fixedDelayString = "${vantage.worker.circuit.window:PT10S}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        long idleNanos = windowLength.toNanos();
+        for (Circuit circuit : circuits.values()) {
+            if (circuit.state.get() == State.CLOSED && now - circuit.lastUsed.get() >= idleNanos
+                    && circuits.remove(circuit.host, circuit)) {
+                circuit.group.members.remove(circuit);
+            }
+        }
+    }
+
+    /** Hosts with a circuit. */
+    public int size() {
+        return circuits.size();
+    }
+
+    /** Current health of one host, if any probe to it has been seen. */
+    public Optional<HostHealth> health(String host) {
+        Circuit circuit = circuits.get(host);
+        return circuit == null ? Optional.empty() : Optional.of(healthOf(circuit));
+    }
+
+    /** Current health of every host seen so far, worst failure rate first. */
+    public List<HostHealth> snapshot() {
+        return circuits.values().stream()
+                .map(this::healthOf)
+                .sorted(Comparator.comparingDouble(HostHealth::failureRate).reversed())
+                .toList();
+    }
+
+    private HostHealth healthOf(Circuit circuit) {
+        long[] totals = circuit.window.totals(nanoClock.getAsLong());
+        double[] rates = rates(circuit);
+        double meanLatencyMillis = totals[0] == 0 ? 0 : totals[3] / (double) totals[0] / 1_000_000;
+        return new HostHealth(circuit.host, circuit.state.get().name(), totals[0], rates[0], rates[1],
+                meanLatencyMillis);
+    }
+}
@@ -0,0 +1,303 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Host-keyed politeness scheduler for outbound probes.
+ * <p>
+ * Every host gets its own FIFO queue, at most {@code maxConcurrency} probes in
+ * flight and at least {@code minInterval} between two probe starts. Hosts with
+ * waiting work are served round-robin, one start per host per pass, so a host
+ * with a deep backlog cannot starve the others. A slow host only ever fills its
+ * own slots: work for unrelated hosts never waits behind it.
+ * <p>
+ * Callers {@link #reserve(String) reserve} a slot, run their probe, then
+ * {@link Slot#release() release} it. A host's queue is dropped once it is idle
+ * and its interval has passed, so only hosts with recent work are kept. Queue
+ * depth and wait time are exported per {@code host_group} of
+ * {@link ProbeLatencyMetrics} as {@code link.host.queue.depth} and
+ * {@code link.host.wait}.
+ */
+@Component
+public class HostScheduler {
+
+    /** Thrown (via the returned future) when a host's queue is already full. */
+    public static class HostBusyException extends RuntimeException {
+        public HostBusyException(String host) {
+            super("Too many probes queued for host " + host);
+        }
+    }
+
+    /** A granted probe slot. Must be released exactly once. */
+    public interface Slot {
+        void release();
+    }
+
+    private final class GroupMeters {
+        final Timer waitTimer;
+        final AtomicInteger depth = new AtomicInteger();
+
+        GroupMeters(String group) {
+            this.waitTimer = Timer.builder("link.host.wait")
+                    .description("Time a probe waited for its host's politeness slot")
+                    .tag("host_group", group)
+                    .register(meterRegistry);
+            Gauge.builder("link.host.queue.depth", depth, AtomicInteger::get)
+                    .description("Probes queued for the politeness slots of a host group")
+                    .tag("host_group", group)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final class HostQueue {
+        final String host;
+        final GroupMeters meters;
+        final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        int active;
+        long nextStartNanos;
+        boolean inRotation;
+
+        HostQueue(String host) {
+            this.host = host;
+            this.meters = groups.computeIfAbsent(hostGroup.apply(host), GroupMeters::new);
+        }
+
+        // Called with the lock held
+        boolean idle(long now) {
+            return active == 0 && waiting.isEmpty() && now - nextStartNanos >= 0;
+        }
+    }
+
+    private record Waiter(HostQueue queue, CompletableFuture<Slot> granted, long enqueuedNanos) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrency;
+    private final long minIntervalNanos;
+    private final int maxQueuedPerHost;
+    private final UnaryOperator<String> hostGroup;
+
+    // Guarded by lock
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final Map<String, GroupMeters> groups = new ConcurrentHashMap<>();
+    private final ArrayDeque<HostQueue> rotation = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("host-scheduler").daemon().factory());
+    private long wakeupAtNanos = Long.MAX_VALUE;
+
+    /**
+     * @param hostGroup maps a host to the {@code host_group} its meters are tagged with
+     */
+    public HostScheduler(MeterRegistry meterRegistry, int maxConcurrency, Duration minInterval, int maxQueuedPerHost,
+            UnaryOperator<String> hostGroup) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = maxConcurrency;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.maxQueuedPerHost = maxQueuedPerHost;
+        this.hostGroup = hostGroup;
+    }
+
+    @Autowired
+    public HostScheduler(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.host.max-concurrency:8}") int maxConcurrency,
+            @Value("${vantage.worker.host.min-interval:PT0.1S}") Duration minInterval,
+            @Value("${vantage.worker.host.max-queued:500}") int maxQueuedPerHost,
+            ProbeLatencyMetrics latency) {
+        this(meterRegistry, maxConcurrency, minInterval, maxQueuedPerHost, latency::hostGroup);
+    }
+
+    /** Same, grouping hosts as a default {@link ProbeLatencyMetrics} does. */
+    public HostScheduler(MeterRegistry meterRegistry, int maxConcurrency, Duration minInterval, int maxQueuedPerHost) {
+        this(meterRegistry, maxConcurrency, minInterval, maxQueuedPerHost, new ProbeLatencyMetrics(meterRegistry)::hostGroup);
+    }
+
+    /** Lower-cased host of {@code url}, or {@code "unknown"} if it has none or cannot be parsed. */
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "unknown" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Queues for a slot on {@code host}. The future completes once the slot is
+     * granted, or fails with {@link HostBusyException} if the host's queue is full.
+     */
+    public CompletableFuture<Slot> reserve(String host) {
+        CompletableFuture<Slot> granted = new CompletableFuture<>();
+
+        lock.lock();
+        try {
+            // Looked up under the lock so an eviction cannot leave two queues for one host
+            HostQueue queue = hosts.computeIfAbsent(host, HostQueue::new);
+            // Waiters alone count: a host paced by its interval queues up long before it is at full concurrency
+            if (queue.waiting.size() >= maxQueuedPerHost) {
+                return CompletableFuture.failedFuture(new HostBusyException(host));
+            }
+            queue.waiting.add(new Waiter(queue, granted, System.nanoTime()));
+            queue.meters.depth.incrementAndGet();
+            if (!queue.inRotation) {
+                queue.inRotation = true;
+                rotation.add(queue);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        dispatch();
+        return granted;
+    }
+
+    /**
+     * Starts as many waiters as limits allow. Grants are completed outside the
+     * lock so callers' continuations never run while holding it.
+     */
+    private void dispatch() {
+        List<Waiter> started = new ArrayList<>();
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            long earliest = Long.MAX_VALUE;
+            boolean progress = true;
+            while (progress && !rotation.isEmpty()) {
+                progress = false;
+                earliest = Long.MAX_VALUE;
+                // One pass: at most one start per host, in rotation order
+                for (int i = rotation.size(); i > 0; i--) {
+                    HostQueue queue = rotation.poll();
+                    if (queue.active < maxConcurrency && now >= queue.nextStartNanos) {
+                        Waiter waiter = queue.waiting.poll();
+                        queue.meters.depth.decrementAndGet();
+                        queue.active++;
+                        queue.nextStartNanos = now + minIntervalNanos;
+                        started.add(waiter);
+                        progress = true;
+                    }
+                    if (queue.waiting.isEmpty()) {
+                        queue.inRotation = false;
+                        continue;
+                    }
+                    if (queue.active < maxConcurrency) {
+                        earliest = Math.min(earliest, queue.nextStartNanos);
+                    }
+                    rotation.add(queue);
+                }
+            }
+            scheduleWakeup(earliest, now);
+        } finally {
+            lock.unlock();
+        }
+
+        for (Waiter waiter : started) {
+            waiter.queue().meters.waitTimer.record(now - waiter.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            waiter.granted().complete(slotFor(waiter.queue()));
+        }
+    }
+
+    // Called with the lock held
+    private void scheduleWakeup(long earliest, long now) {
+        if (earliest == Long.MAX_VALUE || earliest >= wakeupAtNanos) {
+            return;
+        }
+        wakeupAtNanos = earliest;
+        try {
+            timer.schedule(() -> {
+                lock.lock();
+                try {
+                    wakeupAtNanos = Long.MAX_VALUE;
+                } finally {
+                    lock.unlock();
+                }
+                dispatch();
+            }, Math.max(0, earliest - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private Slot slotFor(HostQueue queue) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            lock.lock();
+            try {
+                queue.active--;
+                if (queue.active == 0 && queue.waiting.isEmpty()) {
+                    // Kept until its interval has passed, so a quick next probe still waits it out
+                    scheduleEviction(queue, queue.nextStartNanos - System.nanoTime());
+                }
+            } finally {
+                lock.unlock();
+            }
+            dispatch();
+        };
+    }
+
+    // Called with the lock held
+    private void scheduleEviction(HostQueue queue, long delayNanos) {
+        if (delayNanos <= 0) {
+            hosts.remove(queue.host, queue);
+            return;
+        }
+        try {
+            timer.schedule(() -> {
+                lock.lock();
+                try {
+                    if (queue.idle(System.nanoTime())) {
+                        hosts.remove(queue.host, queue);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /** Hosts with a queue: those with work queued or in flight, or whose interval has not yet passed. */
+    public int size() {
+        lock.lock();
+        try {
+            return hosts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+}
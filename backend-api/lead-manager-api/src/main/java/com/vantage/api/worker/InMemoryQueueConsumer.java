@@ -0,0 +1,138 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bridges the {@link InMemoryTaskQueue} to {@link LinkWorkerService}, the
+ * counterpart of {@link LinkStreamConsumer} for {@code vantage.queue.engine=memory}.
+ * <p>
+ * One dedicated thread drains the ring buffer in batches and hands each task
+ * to the worker executor. When the buffer runs dry it spins briefly, then
+ * parks until a publisher unparks it, so an idle node costs nothing and a
+ * fresh task is picked up without waiting out a poll interval.
+ * <p>
+ * There is no pending list to reclaim from: a task whose worker fails is
+ * published again after {@code redeliveryDelay}. Tasks cut short by shutdown
+ * are not; they are still {@code PENDING} and reconciled on the next start.
+ * A task the full worker executor spills comes back after {@code spillDelay};
+ * a shed one is treated like a failure.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "memory")
+public class InMemoryQueueConsumer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryQueueConsumer.class);
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    // Upper bound on a park, in case a wake-up races with the consumer going idle
+    private static final long MAX_PARK_NANOS = Duration.ofMillis(10).toNanos();
+
+    private final LinkWorkerService workerService;
+    private final InMemoryTaskQueue queue;
+    private final InMemoryRetryQueue retryQueue;
+    private final Executor executor;
+    private final int batchSize;
+    private final Duration redeliveryDelay;
+    private final Duration spillDelay;
+    private volatile Thread drainer;
+
+    public InMemoryQueueConsumer(LinkWorkerService workerService,
+            InMemoryTaskQueue queue,
+            InMemoryRetryQueue retryQueue,
+            @Qualifier("linkWorkerExecutor") Executor executor,
+            @Value("${vantage.queue.batch-size:50}") int batchSize,
+            @Value("${vantage.queue.reclaim-min-idle:PT1M}") Duration redeliveryDelay,
+            @Value("${vantage.worker.overflow.spill-delay:PT5S}") Duration spillDelay) {
+        this.workerService = workerService;
+        this.queue = queue;
+        this.retryQueue = retryQueue;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.redeliveryDelay = redeliveryDelay;
+        this.spillDelay = spillDelay;
+    }
+
+    @Override
+    public void start() {
+        drainer = Thread.ofPlatform().name("memory-queue-drainer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = drainer;
+        drainer = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return drainer != null;
+    }
+
+    private void drainLoop() {
+        Thread self = Thread.currentThread();
+        int idleSpins = 0;
+        while (drainer == self) {
+            if (queue.drain(this::dispatch, batchSize) > 0) {
+                idleSpins = 0;
+            } else if (idleSpins++ < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                // Announce before the last look, so a publish either is seen here or unparks us
+                queue.idleConsumer(self);
+                if (queue.backlog() == 0 && drainer == self) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                queue.idleConsumer(null);
+                idleSpins = 0;
+            }
+        }
+    }
+
+    private void dispatch(LinkValidationTask task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    workerService.handleMessage(task).whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            redeliver(task, failure);
+                        }
+                    });
+                } catch (Exception e) {
+                    redeliver(task, e);
+                }
+            });
+        } catch (TaskShedException e) {
+            redeliver(task, e);
+        } catch (RejectedExecutionException e) {
+            retryQueue.redeliver(task, spillDelay);
+        }
+    }
+
+    private void redeliver(LinkValidationTask task, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof CancellationException) {
+            // Shutting down: reconciliation re-queues the check on the next start
+            return;
+        }
+        log.warn("Validation of {} failed, redelivering in {}: {}", task.url(), redeliveryDelay, cause.getMessage());
+        retryQueue.redeliver(task, redeliveryDelay);
+    }
+}
@@ -0,0 +1,136 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LinkRetryQueue} for {@code vantage.queue.engine=memory}.
+ * <p>
+ * Retries wait on a timer thread and are offered back to the
+ * {@link InMemoryTaskQueue} when due; dead letters are kept in a map. Like
+ * the queue itself, neither survives a restart: parked retries are still
+ * {@code PENDING} and come back through {@link PendingTaskReconciler}, while
+ * dead-lettered checks already carry their final status.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "memory")
+public class InMemoryRetryQueue implements LinkRetryQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRetryQueue.class);
+
+    private final InMemoryTaskQueue taskQueue;
+    private final int maxAttempts;
+    private final RetryBackoff backoff;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("memory-retry").daemon().factory());
+    private final Map<UUID, DeadLetter> deadLetters = new ConcurrentHashMap<>();
+    private final Counter scheduled;
+    private final Counter deadLettered;
+    private final Counter deferred;
+
+    /**
+     * @param maxAttempts total probe attempts per task, the first one included
+     */
+    public InMemoryRetryQueue(InMemoryTaskQueue taskQueue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.retry.max-attempts:4}") int maxAttempts,
+            @Value("${vantage.retry.initial-delay:PT5S}") Duration initialDelay,
+            @Value("${vantage.retry.max-delay:PT5M}") Duration maxDelay) {
+        this.taskQueue = taskQueue;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new RetryBackoff(initialDelay, maxDelay);
+        this.scheduled = Counter.builder("link.retry.scheduled")
+                .description("Transiently failed probes parked for a delayed retry")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("link.retry.dead_lettered")
+                .description("Tasks that exhausted their retries")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("link.retry.deferred")
+                .description("Tasks parked untried: their host's circuit was open or the worker executor was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean retryOrDeadLetter(LinkValidationTask task, String reason) {
+        if (task.attempt() + 1 < maxAttempts) {
+            redeliver(task.nextAttempt(), backoff.delay(task.attempt()));
+            scheduled.increment();
+            return true;
+        }
+        deadLetters.put(task.id(), new DeadLetter(task, reason, System.currentTimeMillis()));
+        deadLettered.increment();
+        log.warn("Giving up on {} after {} attempts: {}", task.url(), task.attempt() + 1, reason);
+        return false;
+    }
+
+    @Override
+    public void defer(LinkValidationTask task, Duration delay) {
+        redeliver(task, delay);
+        deferred.increment();
+    }
+
+    /**
+     * Publishes {@code task} again once {@code delay} has passed, without
+     * touching the retry counters. Stands in for the reclaim of a pending
+     * stream entry when a worker fails outright.
+     */
+    public void redeliver(LinkValidationTask task, Duration delay) {
+        timer.schedule(() -> taskQueue.publish(task.withEnqueuedAt(System.currentTimeMillis())),
+                delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<DeadLetter> deadLetters() {
+        return deadLetters.values().stream()
+                .sorted(Comparator.comparingLong(DeadLetter::failedAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public void replay(UUID id) {
+        // The removal decides who replays when two requests race
+        DeadLetter deadLetter = deadLetters.remove(id);
+        if (deadLetter == null) {
+            throw new ResourceNotFoundException("DeadLetter", id);
+        }
+        taskQueue.publish(new LinkValidationTask(deadLetter.task().id(), deadLetter.task().url()));
+    }
+
+    @Override
+    public int replayAll() {
+        int replayed = 0;
+        for (UUID id : List.copyOf(deadLetters.keySet())) {
+            try {
+                replay(id);
+                replayed++;
+            } catch (ResourceNotFoundException e) {
+                // Replayed concurrently by another request
+            }
+        }
+        return replayed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * {@link LinkTaskOutbox} for {@code vantage.queue.engine=memory}: no table,
+ * the tasks are published to the {@link InMemoryTaskQueue} right after the
+ * transaction commits, on the committing thread. If the process dies in
+ * between, the checks are still {@code PENDING} and the
+ * {@link PendingTaskReconciler} re-queues them on the next start.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "memory")
+public class InMemoryTaskOutbox implements LinkTaskOutbox {
+
+    private final InMemoryTaskQueue queue;
+    private final Counter enqueued;
+
+    public InMemoryTaskOutbox(InMemoryTaskQueue queue, MeterRegistry meterRegistry) {
+        this.queue = queue;
+        this.enqueued = LinkPipelineMonitor.enqueuedCounter(meterRegistry, "new");
+    }
+
+    @Override
+    public void add(LinkValidationTask task) {
+        addAll(List.of(task));
+    }
+
+    @Override
+    public void addAll(List<LinkValidationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishAll(tasks);
+            return;
+        }
+        List<LinkValidationTask> pending = List.copyOf(tasks);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishAll(pending);
+            }
+        });
+    }
+
+    private void publishAll(List<LinkValidationTask> tasks) {
+        queue.publishAll(tasks);
+        enqueued.increment(tasks.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Work queue inside the JVM for single-node deployments
+ * ({@code vantage.queue.engine=memory}, the {@code memory} profile).
+ * <p>
+ * Tasks go through a {@link MpmcRingBuffer}: publishing is one CAS and a
+ * consumer parked on an empty queue is woken directly, so a task reaches a
+ * worker in microseconds instead of a poll interval or a network round trip.
+ * Nothing survives a restart; {@link PendingTaskReconciler} rebuilds the
+ * queue from the checks still {@code PENDING} in the database.
+ * <p>
+ * A full buffer drops the task rather than blocking the publisher, which is
+ * usually a request thread. The check stays {@code PENDING}, and the drop is
+ * remembered so the reconciler re-queues it once there is room again.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "memory")
+public class InMemoryTaskQueue implements LinkTaskQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskQueue.class);
+
+    private final MpmcRingBuffer<LinkValidationTask> buffer;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final Counter rejected;
+    private volatile Thread idleConsumer;
+
+    public InMemoryTaskQueue(int capacity, MeterRegistry meterRegistry) {
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.rejected = Counter.builder("link.queue.memory.rejected")
+                .description("Tasks dropped because the in-memory queue was full; re-queued by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("link.queue.memory.size", buffer, MpmcRingBuffer::size)
+                .description("Tasks waiting in the in-memory queue")
+                .register(meterRegistry);
+    }
+
+    @Autowired
+    public InMemoryTaskQueue(MeterRegistry meterRegistry,
+            @Value("${vantage.queue.memory.capacity:65536}") int capacity) {
+        this(capacity, meterRegistry);
+    }
+
+    @Override
+    public void publish(LinkValidationTask task) {
+        if (offer(task)) {
+            return;
+        }
+        rejected.increment();
+        if (overflowed.compareAndSet(false, true)) {
+            log.warn("In-memory queue full ({} tasks), dropping until reconciliation catches up", buffer.capacity());
+        }
+    }
+
+    /**
+     * Queues {@code task} if there is room, waking the consumer. Tasks without
+     * an enqueue time are stamped with the current one.
+     *
+     * @return false if the buffer is full
+     */
+    public boolean offer(LinkValidationTask task) {
+        if (!buffer.offer(task.stamped())) {
+            return false;
+        }
+        Thread consumer = idleConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /** Hands up to {@code limit} queued tasks to {@code sink}, oldest first. */
+    public int drain(Consumer<LinkValidationTask> sink, int limit) {
+        return buffer.drain(sink, limit);
+    }
+
+    /**
+     * Registers the calling thread as parked on an empty queue, or clears it
+     * with {@code null}. Publishers unpark it after each successful offer.
+     */
+    void idleConsumer(Thread consumer) {
+        this.idleConsumer = consumer;
+    }
+
+    /** Clears and returns whether tasks were dropped since the last call. */
+    public boolean takeOverflow() {
+        return overflowed.getAndSet(false);
+    }
+
+    public int remainingCapacity() {
+        return buffer.capacity() - buffer.size();
+    }
+
+    @Override
+    public long backlog() {
+        return buffer.size();
+    }
+}
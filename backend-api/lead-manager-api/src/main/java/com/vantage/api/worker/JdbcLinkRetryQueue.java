@@ -0,0 +1,121 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Postgres-backed {@link LinkRetryQueue} for {@code vantage.queue.engine=postgres}.
+ * <p>
+ * A retry is just another queue row whose {@code available_at} lies in the
+ * future, so no promotion step is needed: workers claim it once it is due.
+ * Dead letters live in the {@code dead_letters} table, one per URL check.
+ * Replaying moves a dead letter back onto the queue in a single statement.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "postgres")
+public class JdbcLinkRetryQueue implements LinkRetryQueue {
+
+    static final String DEAD_LETTER_SQL = """
+            INSERT INTO dead_letters (url_check_id, url, attempt, reason, failed_at)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (url_check_id) DO UPDATE
+            SET url = EXCLUDED.url, attempt = EXCLUDED.attempt, reason = EXCLUDED.reason, failed_at = EXCLUDED.failed_at
+            """;
+    static final String LIST_SQL =
+            "SELECT url_check_id, url, attempt, reason, failed_at FROM dead_letters ORDER BY failed_at DESC";
+    static final String REPLAY_SQL = """
+            WITH replayed AS (DELETE FROM dead_letters WHERE url_check_id = ? RETURNING url_check_id, url)
+            INSERT INTO outbox (url_check_id, url) SELECT url_check_id, url FROM replayed
+            """;
+    static final String REPLAY_ALL_SQL = """
+            WITH replayed AS (DELETE FROM dead_letters RETURNING url_check_id, url)
+            INSERT INTO outbox (url_check_id, url) SELECT url_check_id, url FROM replayed
+            """;
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcLinkRetryQueue.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostgresTaskQueue taskQueue;
+    private final int maxAttempts;
+    private final RetryBackoff backoff;
+    private final Counter scheduled;
+    private final Counter deadLettered;
+    private final Counter deferred;
+
+    /**
+     * @param maxAttempts total probe attempts per task, the first one included
+     */
+    public JdbcLinkRetryQueue(JdbcTemplate jdbcTemplate,
+            PostgresTaskQueue taskQueue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.retry.max-attempts:4}") int maxAttempts,
+            @Value("${vantage.retry.initial-delay:PT5S}") Duration initialDelay,
+            @Value("${vantage.retry.max-delay:PT5M}") Duration maxDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskQueue = taskQueue;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new RetryBackoff(initialDelay, maxDelay);
+        this.scheduled = Counter.builder("link.retry.scheduled")
+                .description("Transiently failed probes parked for a delayed retry")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("link.retry.dead_lettered")
+                .description("Tasks that exhausted their retries")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("link.retry.deferred")
+                .description("Tasks parked untried: their host's circuit was open or the worker executor was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean retryOrDeadLetter(LinkValidationTask task, String reason) {
+        if (task.attempt() + 1 < maxAttempts) {
+            taskQueue.publishAt(task.nextAttempt(), backoff.delay(task.attempt()));
+            scheduled.increment();
+            return true;
+        }
+        jdbcTemplate.update(DEAD_LETTER_SQL, task.id(), task.url(), task.attempt(), reason);
+        deadLettered.increment();
+        log.warn("Giving up on {} after {} attempts: {}", task.url(), task.attempt() + 1, reason);
+        return false;
+    }
+
+    @Override
+    public void defer(LinkValidationTask task, Duration delay) {
+        taskQueue.publishAt(task, delay);
+        deferred.increment();
+    }
+
+    @Override
+    public List<DeadLetter> deadLetters() {
+        return jdbcTemplate.query(LIST_SQL, (rs, rowNum) -> new DeadLetter(
+                new LinkValidationTask(rs.getObject("url_check_id", UUID.class), rs.getString("url"), rs.getInt("attempt")),
+                rs.getString("reason"),
+                rs.getTimestamp("failed_at").getTime()));
+    }
+
+    @Override
+    public void replay(UUID id) {
+        // The DELETE decides who replays when two requests race
+        if (jdbcTemplate.update(REPLAY_SQL, id) == 0) {
+            throw new ResourceNotFoundException("DeadLetter", id);
+        }
+    }
+
+    @Override
+    public int replayAll() {
+        return jdbcTemplate.update(REPLAY_ALL_SQL);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.entity.OutboxEntry;
+import com.vantage.api.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link LinkTaskOutbox} on the {@code outbox} table, for the redis and
+ * postgres engines. Rows are relayed to the stream by {@link LinkOutboxRelay}
+ * or claimed in place by {@link PostgresQueueConsumer}.
+ */
+@Component
+@ConditionalOnExpression("'${vantage.queue.engine:redis}' != 'memory'")
+public class JdbcTaskOutbox implements LinkTaskOutbox {
+
+    static final String INSERT_SQL = "INSERT INTO outbox (url_check_id, url) VALUES (?, ?)";
+
+    private final OutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter enqueued;
+
+    public JdbcTaskOutbox(OutboxRepository outboxRepository,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enqueued = LinkPipelineMonitor.enqueuedCounter(meterRegistry, "new");
+    }
+
+    @Override
+    public void add(LinkValidationTask task) {
+        outboxRepository.save(new OutboxEntry(task.id(), task.url()));
+        enqueued.increment();
+    }
+
+    /** Batch insert; the relay or consumer is nudged once the rows commit instead of on its next poll. */
+    @Override
+    public void addAll(List<LinkValidationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(tasks.size());
+        for (LinkValidationTask task : tasks) {
+            args.add(new Object[]{task.id(), task.url()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        enqueued.increment(tasks.size());
+        eventPublisher.publishEvent(new LinkOutboxRelay.OutboxWritten(tasks.size()));
+    }
+}
@@ -0,0 +1,144 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relays committed {@code outbox} rows to the link-validation stream.
+ * <p>
+ * Each batch runs in one transaction: lock up to {@code batchSize} of the
+ * oldest rows ({@code FOR UPDATE SKIP LOCKED}, so several nodes can relay
+ * side by side without handing out the same row), XADD them all in a single
+ * pipelined round trip, then delete them. If Redis fails the transaction
+ * rolls back and the rows are picked up again next time; if the commit fails
+ * after a publish, the tasks are delivered twice, which the workers tolerate.
+ * <p>
+ * Batches are drained back to back while full, so a burst of N creates costs
+ * roughly N / batchSize round trips to Redis.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+public class LinkOutboxRelay {
+
+    static final String SELECT_SQL =
+            "SELECT id, url_check_id, url, created_at FROM outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    static final String DELETE_SQL = "DELETE FROM outbox WHERE id = ?";
+
+    /** Published after outbox rows are written; handled once their transaction commits. */
+    public record OutboxWritten(int entries) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LinkOutboxRelay.class);
+
+    private record Entry(long id, LinkValidationTask task) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final LinkValidationQueue validationQueue;
+    private final int batchSize;
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final Counter relayed;
+    private final DistributionSummary relaySize;
+
+    public LinkOutboxRelay(JdbcTemplate jdbcTemplate,
+            TransactionOperations transactions,
+            LinkValidationQueue validationQueue,
+            MeterRegistry meterRegistry,
+            int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.validationQueue = validationQueue;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("link.outbox.relayed")
+                .description("Outbox entries published to the validation stream")
+                .register(meterRegistry);
+        this.relaySize = DistributionSummary.builder("link.outbox.relay.size")
+                .description("Outbox entries published per pipelined batch")
+                .register(meterRegistry);
+    }
+
+    @Autowired
+    public LinkOutboxRelay(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            LinkValidationQueue validationQueue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.outbox.batch-size:500}") int batchSize) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), validationQueue, meterRegistry, batchSize);
+    }
+
+    /** Drains the outbox batch by batch until a batch comes back short. */
+    @Scheduled(fixedDelayString = "${vantage.outbox.poll-interval:PT0.1S}")
+    public void relay() {
+        // One drain per node at a time; other nodes are kept apart by SKIP LOCKED
+        if (!relayLock.tryLock()) {
+            return;
+        }
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    /**
+     * Relays right after a bulk write commits instead of waiting for the next
+     * poll. Off the request thread, which only pays for the commit.
+     */
+    @TransactionalEventListener
+    public void onOutboxWritten(OutboxWritten event) {
+        Thread.ofVirtual().name("outbox-relay").start(this::relay);
+    }
+
+    private int relayBatch() {
+        Integer published = transactions.execute(status -> {
+            List<Entry> batch = jdbcTemplate.query(SELECT_SQL,
+                    (rs, rowNum) -> new Entry(rs.getLong("id"), new LinkValidationTask(
+                            rs.getObject("url_check_id", UUID.class), rs.getString("url"), 0, 0,
+                            rs.getTimestamp("created_at").getTime())),
+                    batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            validationQueue.publishAll(batch.stream().map(Entry::task).toList());
+            List<Object[]> ids = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                ids.add(new Object[]{entry.id()});
+            }
+            jdbcTemplate.batchUpdate(DELETE_SQL, ids);
+            return batch.size();
+        });
+
+        int count = published == null ? 0 : published;
+        if (count > 0) {
+            relayed.increment(count);
+            relaySize.record(count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.vantage.api.worker;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Actuator health for the validation pipeline, shown under
+ * {@code /actuator/health} as {@code linkPipeline}. Reports the last
+ * {@link LinkPipelineMonitor} sample: queue depth, oldest pending age,
+ * enqueue and completion rates and the desired replica count.
+ * <p>
+ * A backlog is not an outage, so a queue running behind is reported as
+ * {@code LAGGING} rather than {@code DOWN}: visible on the component, but
+ * not part of the aggregate status and never a reason to restart the node.
+ * {@code UNKNOWN} until the first sample.
+ */
+@Component
+public class LinkPipelineHealthIndicator implements HealthIndicator {
+
+    static final Status LAGGING = new Status("LAGGING", "Oldest pending check is older than the lag threshold");
+
+    private final LinkPipelineMonitor monitor;
+    private final Duration maxLag;
+
+    /**
+     * @param maxLag oldest pending age beyond which the pipeline reports {@code LAGGING}
+     */
+    public LinkPipelineHealthIndicator(LinkPipelineMonitor monitor,
+            @Value("${vantage.scaling.max-lag:PT15M}") Duration maxLag) {
+        this.monitor = monitor;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Health health() {
+        LinkPipelineMonitor.Snapshot snapshot = monitor.snapshot();
+        if (snapshot == null) {
+            return Health.unknown().withDetail("reason", "not sampled yet").build();
+        }
+        Health.Builder health = snapshot.oldestPendingAge().compareTo(maxLag) > 0
+                ? Health.status(LAGGING)
+                : Health.up();
+        return health
+                .withDetail("queueDepth", snapshot.depth())
+                .withDetail("oldestPendingAge", snapshot.oldestPendingAge().toString())
+                .withDetail("enqueueRate", round(snapshot.enqueueRate()))
+                .withDetail("completionRate", round(snapshot.completionRate()))
+                .withDetail("workerThroughput", round(snapshot.workerThroughput()))
+                .withDetail("desiredReplicas", snapshot.desiredReplicas())
+                .withDetail("sampledAt", snapshot.sampledAt().toString())
+                .build();
+    }
+
+    private static double round(double perSecond) {
+        return Math.round(perSecond * 100) / 100.0;
+    }
+}
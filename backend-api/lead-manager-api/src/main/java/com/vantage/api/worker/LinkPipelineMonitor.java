@@ -0,0 +1,193 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import com.vantage.api.repository.UrlCheckRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Samples the validation pipeline on a timer and publishes what an operator
+ * or autoscaler needs to see whether the workers keep up:
+ * <ul>
+ *   <li>{@code link.queue.depth}: tasks queued but not completed, from {@link LinkTaskQueue#backlog()}</li>
+ *   <li>{@code link.queue.oldest_pending_age}: age of the oldest check still {@code PENDING}</li>
+ *   <li>{@code link.queue.enqueue.rate} and {@code link.queue.completion.rate}: tasks per
+ *       second in and results per second out on this node, smoothed across samples</li>
+ *   <li>{@code link.scaling.desired_replicas}: worker nodes needed to bring the lag
+ *       within {@code targetLag}</li>
+ * </ul>
+ * The rates are derived from the {@code link.queue.enqueued} and
+ * {@code link.validation.completed} counters, which the outboxes, the
+ * revalidation scheduler and {@link LinkResultWriter} register through
+ * {@link #enqueuedCounter} and {@link #completedCounter}.
+ * <p>
+ * Desired replicas follows Little's law: to keep the lag at {@code targetLag},
+ * the fleet must drain {@code depth / targetLag} tasks per second, and each
+ * node drains {@code workerThroughput}. Per-node throughput is measured while
+ * the queue is non-empty, so it reflects a busy node rather than an idle one;
+ * until such a sample exists the configured value is used. Depth is read from
+ * the shared queue, so every node reports the same fleet-wide answer.
+ * <p>
+ * Sampling costs one backlog read and one indexed query per interval, never
+ * one per scrape.
+ */
+@Component
+public class LinkPipelineMonitor {
+
+    /** Point-in-time view of the pipeline, as of the last sample. */
+    public record Snapshot(long depth,
+                           Duration oldestPendingAge,
+                           double enqueueRate,
+                           double completionRate,
+                           double workerThroughput,
+                           int desiredReplicas,
+                           LocalDateTime sampledAt) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LinkPipelineMonitor.class);
+
+    private static final double RATE_ALPHA = 0.3;
+
+    private final LinkTaskQueue taskQueue;
+    private final UrlCheckRepository urlCheckRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration targetLag;
+    private final double configuredThroughput;
+    private final int minReplicas;
+    private final int maxReplicas;
+
+    private volatile Snapshot snapshot;
+
+    // Only touched from the scheduled sample
+    private long lastSampleNanos;
+    private double lastEnqueued;
+    private double lastCompleted;
+    private long lastDepth;
+    private double enqueueRate;
+    private double completionRate;
+    private double measuredThroughput = Double.NaN;
+
+    /**
+     * @param targetLag        how far behind the queue may run before more workers are wanted
+     * @param workerThroughput results per second one node is assumed to produce until measured
+     */
+    public LinkPipelineMonitor(LinkTaskQueue taskQueue,
+            UrlCheckRepository urlCheckRepository,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.scaling.target-lag:PT1M}") Duration targetLag,
+            @Value("${vantage.scaling.worker-throughput:20}") double workerThroughput,
+            @Value("${vantage.scaling.min-replicas:1}") int minReplicas,
+            @Value("${vantage.scaling.max-replicas:20}") int maxReplicas) {
+        this.taskQueue = taskQueue;
+        this.urlCheckRepository = urlCheckRepository;
+        this.meterRegistry = meterRegistry;
+        this.targetLag = targetLag;
+        this.configuredThroughput = workerThroughput;
+        this.minReplicas = minReplicas;
+        this.maxReplicas = maxReplicas;
+
+        Gauge.builder("link.queue.depth", this, m -> m.value(Snapshot::depth))
+                .description("Validation tasks queued but not yet completed")
+                .register(meterRegistry);
+        TimeGauge.builder("link.queue.oldest_pending_age", this, TimeUnit.MILLISECONDS,
+                        m -> m.value(s -> s.oldestPendingAge().toMillis()))
+                .description("Age of the oldest URL check still waiting for its first result")
+                .register(meterRegistry);
+        Gauge.builder("link.queue.enqueue.rate", this, m -> m.value(Snapshot::enqueueRate))
+                .description("Validation tasks queued per second on this node")
+                .register(meterRegistry);
+        Gauge.builder("link.queue.completion.rate", this, m -> m.value(Snapshot::completionRate))
+                .description("Validation results written per second on this node")
+                .register(meterRegistry);
+        Gauge.builder("link.scaling.desired_replicas", this, m -> m.value(Snapshot::desiredReplicas))
+                .description("Worker nodes needed to keep queue lag within the target")
+                .register(meterRegistry);
+    }
+
+    /** Counter for tasks entering the queue; {@code source} is {@code new} or {@code revalidation}. */
+    public static Counter enqueuedCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("link.queue.enqueued")
+                .description("Validation tasks queued, retries excluded")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /** Counter for results written, tagged with their final status. */
+    public static Counter completedCounter(MeterRegistry meterRegistry, LinkStatus status) {
+        return Counter.builder("link.validation.completed")
+                .description("Validation results written, by outcome")
+                .tag("outcome", status.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${vantage.scaling.sample-interval:PT15S}")
+    public void sample() {
+        try {
+            long depth = taskQueue.backlog();
+            LocalDateTime oldest = urlCheckRepository.findOldestCreatedAt(LinkStatus.PENDING);
+            LocalDateTime now = LocalDateTime.now();
+            update(System.nanoTime(), depth, oldest == null ? Duration.ZERO : Duration.between(oldest, now), now);
+        } catch (Exception e) {
+            // Keep the previous snapshot; a failing queue or database shows up in its own health check
+            log.warn("Pipeline sample failed: {}", e.getMessage());
+        }
+    }
+
+    private void update(long nowNanos, long depth, Duration oldestPendingAge, LocalDateTime sampledAt) {
+        double enqueued = total("link.queue.enqueued");
+        double completed = total("link.validation.completed");
+        if (lastSampleNanos != 0) {
+            double seconds = (nowNanos - lastSampleNanos) / 1e9;
+            double in = (enqueued - lastEnqueued) / seconds;
+            double out = (completed - lastCompleted) / seconds;
+            enqueueRate += RATE_ALPHA * (in - enqueueRate);
+            completionRate += RATE_ALPHA * (out - completionRate);
+            // Only a node that had work waiting the whole interval shows what it can do
+            if (lastDepth > 0 && depth > 0 && out > 0) {
+                measuredThroughput = Double.isNaN(measuredThroughput)
+                        ? out : measuredThroughput + RATE_ALPHA * (out - measuredThroughput);
+            }
+        }
+        lastSampleNanos = nowNanos;
+        lastEnqueued = enqueued;
+        lastCompleted = completed;
+        lastDepth = depth;
+
+        double throughput = Double.isNaN(measuredThroughput) ? configuredThroughput : measuredThroughput;
+        snapshot = new Snapshot(depth, oldestPendingAge, enqueueRate, completionRate, throughput,
+                desiredReplicas(depth, throughput), sampledAt);
+    }
+
+    private int desiredReplicas(long depth, double throughput) {
+        double requiredRate = depth / (targetLag.toMillis() / 1000.0);
+        long replicas = (long) Math.ceil(requiredRate / throughput);
+        return (int) Math.clamp(replicas, minReplicas, maxReplicas);
+    }
+
+    private double total(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double value(ToDoubleFunction<Snapshot> field) {
+        Snapshot current = snapshot;
+        return current == null ? Double.NaN : field.applyAsDouble(current);
+    }
+
+    /** The last sample, or null before the first one. */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,214 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for validation results.
+ * <p>
+ * Workers hand over (url check id, status, lastChecked) and get back a future that
+ * completes once the row has been written. Results are flushed as a single
+ * JDBC batch {@code UPDATE} whenever {@code batchSize} of them are buffered,
+ * or by the scheduled flush every {@code flush-interval}, whichever comes first.
+ * One commit per batch instead of a find + save + commit per link, and one
+ * row per canonical URL instead of one per link.
+ * <p>
+ * Results that come with an HTTP response also store its status code and
+ * cache validators; those go out as a second batch statement in the same
+ * flush. A validator longer than its column is dropped rather than cut: a
+ * truncated ETag never matches, and one over-long header must not fail the
+ * whole batch.
+ */
+@Component
+public class LinkResultWriter {
+
+    static final String UPDATE_SQL =
+            "UPDATE url_checks SET status = ?, last_checked = ?, updated_at = ? WHERE id = ?";
+    // Validators compare against the row's previous values: a change means the resource changed.
+    // A response without validators clears them but is not counted as a change.
+    static final String UPDATE_WITH_RESPONSE_SQL = """
+            UPDATE url_checks
+            SET status = ?, last_checked = ?, updated_at = ?, http_status = ?,
+                content_changed_at = CASE
+                    WHEN (etag IS NOT NULL OR last_modified IS NOT NULL)
+                     AND (CAST(? AS VARCHAR) IS NOT NULL OR CAST(? AS VARCHAR) IS NOT NULL)
+                     AND (etag IS DISTINCT FROM ? OR last_modified IS DISTINCT FROM ?)
+                    THEN ? ELSE content_changed_at END,
+                etag = ?, last_modified = ?
+            WHERE id = ?
+            """;
+    // Column sizes from V12__add_url_checks_validators.sql
+    static final int MAX_ETAG_LENGTH = 1024;
+    static final int MAX_LAST_MODIFIED_LENGTH = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(LinkResultWriter.class);
+
+    private record PendingResult(UUID id, LinkStatus status, LocalDateTime checkedAt, ProbeResponse response,
+                                 CompletableFuture<Void> written) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<PendingResult> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private final Map<LinkStatus, Counter> completed = new EnumMap<>(LinkStatus.class);
+
+    public LinkResultWriter(JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.writeback.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushSize = DistributionSummary.builder("link.writeback.flush.size")
+                .description("Number of validation results written per JDBC batch")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("link.writeback.flush.latency")
+                .description("Time taken to write one batch of validation results")
+                .register(meterRegistry);
+        Gauge.builder("link.writeback.buffered", buffered, AtomicInteger::get)
+                .description("Validation results waiting to be written")
+                .register(meterRegistry);
+        for (LinkStatus status : LinkStatus.values()) {
+            completed.put(status, LinkPipelineMonitor.completedCounter(meterRegistry, status));
+        }
+    }
+
+    /**
+     * Buffers a result. The returned future completes when the row update has
+     * been committed, or exceptionally if the batch failed.
+     */
+    public CompletableFuture<Void> submit(UUID id, LinkStatus status, LocalDateTime checkedAt) {
+        return submit(id, status, checkedAt, null);
+    }
+
+    /**
+     * Same, also recording the upstream's HTTP status and cache validators
+     * when {@code response} holds an actual HTTP exchange.
+     */
+    public CompletableFuture<Void> submit(UUID id, LinkStatus status, LocalDateTime checkedAt, ProbeResponse response) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        buffer.add(new PendingResult(id, status, checkedAt, response != null && response.received() ? response : null,
+                written));
+        if (buffered.incrementAndGet() >= batchSize) {
+            flush();
+        }
+        return written;
+    }
+
+    /** Drains the buffer in batches. Called on size threshold and on a timer. */
+    @Scheduled(fixedDelayString = "${vantage.writeback.flush-interval:PT0.2S}")
+    public void flush() {
+        // Only one thread flushes at a time; others keep buffering instead of queueing on the lock
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writeAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            writeAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeAll() {
+        List<PendingResult> batch;
+        while (!(batch = drain()).isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private List<PendingResult> drain() {
+        List<PendingResult> batch = new ArrayList<>(batchSize);
+        PendingResult next;
+        while (batch.size() < batchSize && (next = buffer.poll()) != null) {
+            batch.add(next);
+        }
+        buffered.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void write(List<PendingResult> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<PendingResult> statusOnly = new ArrayList<>();
+        List<PendingResult> withResponse = new ArrayList<>();
+        for (PendingResult result : batch) {
+            (result.response() == null ? statusOnly : withResponse).add(result);
+        }
+        write(statusOnly, UPDATE_SQL, now);
+        write(withResponse, UPDATE_WITH_RESPONSE_SQL, now);
+    }
+
+    private void write(List<PendingResult> results, String sql, Timestamp now) {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(results.size());
+        for (PendingResult result : results) {
+            args.add(args(result, now));
+        }
+
+        try {
+            flushLatency.record(() -> jdbcTemplate.batchUpdate(sql, args));
+            flushSize.record(results.size());
+            results.forEach(result -> {
+                completed.get(result.status()).increment();
+                result.written().complete(null);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} validation results: {}", results.size(), e.getMessage());
+            results.forEach(result -> result.written().completeExceptionally(e));
+        }
+    }
+
+    private static Object[] args(PendingResult result, Timestamp now) {
+        Timestamp checkedAt = Timestamp.valueOf(result.checkedAt());
+        ProbeResponse response = result.response();
+        if (response == null) {
+            return new Object[]{result.status().name(), checkedAt, now, result.id()};
+        }
+        String etag = fitting(response.etag(), MAX_ETAG_LENGTH);
+        String lastModified = fitting(response.lastModified(), MAX_LAST_MODIFIED_LENGTH);
+        return new Object[]{result.status().name(), checkedAt, now, response.statusCode(),
+                etag, lastModified, etag, lastModified, checkedAt,
+                etag, lastModified, result.id()};
+    }
+
+    /** {@code validator}, or null if it does not fit its column; the next probe is then unconditional. */
+    private static String fitting(String validator, int maxLength) {
+        return validator != null && validator.length() > maxLength ? null : validator;
+    }
+}
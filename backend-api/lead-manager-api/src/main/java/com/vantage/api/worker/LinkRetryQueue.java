@@ -0,0 +1,45 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delayed retries and dead letters for probes that failed transiently.
+ * Backed by the same engine as the {@link LinkTaskQueue}: see
+ * {@link RedisLinkRetryQueue}, {@link JdbcLinkRetryQueue} and {@link InMemoryRetryQueue}.
+ */
+public interface LinkRetryQueue {
+
+    /**
+     * Parks the next attempt of {@code task}, or dead-letters it once its
+     * attempts are used up.
+     *
+     * @return true if a retry was scheduled, false if the task was dead-lettered
+     */
+    boolean retryOrDeadLetter(LinkValidationTask task, String reason);
+
+    /**
+     * Parks {@code task} unchanged until {@code delay} has passed, without
+     * using up an attempt. Used when the task was never tried, e.g. its
+     * host's circuit is open.
+     */
+    void defer(LinkValidationTask task, Duration delay);
+
+    /** Dead letters, most recent failure first. */
+    List<DeadLetter> deadLetters();
+
+    /**
+     * Removes a dead letter and publishes its task again with a fresh attempt count.
+     *
+     * @throws ResourceNotFoundException if no dead letter exists for {@code id}
+     */
+    void replay(UUID id);
+
+    /** Replays every dead letter. Returns how many were replayed. */
+    int replayAll();
+}
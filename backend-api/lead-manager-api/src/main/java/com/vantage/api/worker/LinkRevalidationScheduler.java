@@ -0,0 +1,175 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.entity.UrlCheck;
+import com.vantage.api.repository.UrlCheckRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-probes URL checks whose result is older than {@code maxAge}, so links
+ * that rot after their first validation are eventually marked broken.
+ * <p>
+ * Each tick walks {@code url_checks} oldest-{@code last_checked}-first with a
+ * keyset cursor (never OFFSET, never a full scan) and enqueues at most
+ * {@code rate * interval} tasks. Enqueues are spread at random across the
+ * tick ({@code jitter}) so workers see a steady trickle rather than a wave.
+ * The scheduler also stops topping up once the queue backlog reaches
+ * {@code maxCapacityShare} of {@code workerCapacity}, leaving the rest of the
+ * workers' capacity to newly created links.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.revalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class LinkRevalidationScheduler {
+
+    static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final UUID CURSOR_START_ID = new UUID(0, 0);
+
+    private static final Logger log = LoggerFactory.getLogger(LinkRevalidationScheduler.class);
+
+    private final UrlCheckRepository urlCheckRepository;
+    private final LinkTaskQueue taskQueue;
+    private final Duration maxAge;
+    private final Duration interval;
+    private final double ratePerSecond;
+    private final double maxCapacityShare;
+    private final int workerCapacity;
+    private final double jitter;
+    private final Counter enqueued;
+    private final Counter queueEnqueued;
+    private final AtomicInteger lastBudget = new AtomicInteger();
+    private final ScheduledExecutorService spreader = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("link-revalidation").daemon().factory());
+
+    // Keyset cursor: only touched from the scheduled tick
+    private LocalDateTime cursorChecked = CURSOR_START;
+    private UUID cursorId = CURSOR_START_ID;
+
+    /**
+     * @param ratePerSecond    average revalidation tasks enqueued per second
+     * @param maxCapacityShare fraction of {@code workerCapacity} the queue backlog may reach
+     *                         before revalidation holds back
+     * @param jitter           fraction of the interval over which one tick's enqueues are spread;
+     *                         0 enqueues the whole tick at once
+     */
+    public LinkRevalidationScheduler(UrlCheckRepository urlCheckRepository,
+            LinkTaskQueue taskQueue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.revalidation.max-age:${vantage.links.check-ttl:PT24H}}") Duration maxAge,
+            @Value("${vantage.revalidation.interval:PT1M}") Duration interval,
+            @Value("${vantage.revalidation.rate:10}") double ratePerSecond,
+            @Value("${vantage.revalidation.max-capacity-share:0.2}") double maxCapacityShare,
+            @Value("${vantage.revalidation.worker-capacity:${vantage.worker.max-in-flight:2000}}") int workerCapacity,
+            @Value("${vantage.revalidation.jitter:1.0}") double jitter) {
+        this.urlCheckRepository = urlCheckRepository;
+        this.taskQueue = taskQueue;
+        this.maxAge = maxAge;
+        this.interval = interval;
+        this.ratePerSecond = ratePerSecond;
+        this.maxCapacityShare = maxCapacityShare;
+        this.workerCapacity = workerCapacity;
+        this.jitter = jitter;
+        this.enqueued = Counter.builder("link.revalidation.enqueued")
+                .description("Revalidation tasks published for stale URL checks")
+                .register(meterRegistry);
+        this.queueEnqueued = LinkPipelineMonitor.enqueuedCounter(meterRegistry, "revalidation");
+        Gauge.builder("link.revalidation.budget", lastBudget, AtomicInteger::get)
+                .description("Tasks the last revalidation tick was allowed to enqueue")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${vantage.revalidation.interval:PT1M}",
+            initialDelayString = "${vantage.revalidation.interval:PT1M}")
+    public void tick() {
+        try {
+            int budget = budget();
+            lastBudget.set(budget);
+            if (budget == 0) {
+                return;
+            }
+            spread(nextPage(budget));
+        } catch (Exception e) {
+            log.warn("Revalidation tick failed: {}", e.getMessage());
+        }
+    }
+
+    /** Per-tick rate allowance, reduced to whatever capacity headroom the backlog leaves. */
+    int budget() {
+        long perTick = (long) (ratePerSecond * interval.toMillis() / 1000.0);
+        long headroom = (long) (maxCapacityShare * workerCapacity) - taskQueue.backlog();
+        return (int) Math.max(0, Math.min(perTick, headroom));
+    }
+
+    /**
+     * Next {@code limit} due checks after the cursor. When the walk reaches the
+     * cutoff it wraps to the start, picking up checks that went stale since.
+     */
+    List<UrlCheck> nextPage(int limit) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        List<UrlCheck> page = urlCheckRepository.findDueForRevalidation(cutoff, cursorChecked, cursorId, limit);
+        if (page.isEmpty() && !CURSOR_START_ID.equals(cursorId)) {
+            cursorChecked = CURSOR_START;
+            cursorId = CURSOR_START_ID;
+            page = urlCheckRepository.findDueForRevalidation(cutoff, cursorChecked, cursorId, limit);
+        }
+        if (!page.isEmpty()) {
+            UrlCheck last = page.get(page.size() - 1);
+            cursorChecked = last.getLastChecked();
+            cursorId = last.getId();
+        }
+        return page;
+    }
+
+    private void spread(List<UrlCheck> due) {
+        long windowNanos = (long) (interval.toNanos() * jitter);
+        for (UrlCheck check : due) {
+            if (windowNanos <= 0) {
+                publish(check);
+                continue;
+            }
+            try {
+                spreader.schedule(() -> publish(check),
+                        ThreadLocalRandom.current().nextLong(windowNanos), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the check is still stale and will be picked up again
+                return;
+            }
+        }
+    }
+
+    private void publish(UrlCheck check) {
+        try {
+            // Conditional: an unchanged resource answers 304 instead of a full response
+            taskQueue.publish(new LinkValidationTask(check.getId(), check.getCanonicalUrl())
+                    .withValidators(check.getEtag(), check.getLastModified()));
+            enqueued.increment();
+            queueEnqueued.increment();
+        } catch (Exception e) {
+            log.warn("Could not enqueue revalidation of {}: {}", check.getCanonicalUrl(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        spreader.shutdownNow();
+    }
+}
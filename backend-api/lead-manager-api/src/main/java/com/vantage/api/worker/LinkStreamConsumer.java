@@ -0,0 +1,122 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bridges the Redis Stream to {@link LinkWorkerService}.
+ * <p>
+ * Entries are only acknowledged once the future returned by
+ * {@code handleMessage} completes, i.e. after the result has been written.
+ * If the worker fails or the node dies, the entry stays pending and
+ * {@link #reclaimStalled()} on a healthy node picks it up again
+ * (at-least-once delivery).
+ * <p>
+ * When the bounded worker executor is full, a spilled task is parked in the
+ * retry set for {@code spillDelay} and its entry acked; a shed one is simply
+ * left pending to be reclaimed.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+public class LinkStreamConsumer implements StreamListener<String, MapRecord<String, String, Object>> {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkStreamConsumer.class);
+
+    private final LinkWorkerService workerService;
+    private final LinkValidationQueue queue;
+    private final LinkRetryQueue retryQueue;
+    private final Executor executor;
+    private final Duration reclaimMinIdle;
+    private final int reclaimBatchSize;
+    private final Duration spillDelay;
+
+    public LinkStreamConsumer(LinkWorkerService workerService,
+            LinkValidationQueue queue,
+            LinkRetryQueue retryQueue,
+            @Qualifier("linkWorkerExecutor") Executor executor,
+            @Value("${vantage.queue.reclaim-min-idle:PT1M}") Duration reclaimMinIdle,
+            @Value("${vantage.queue.reclaim-batch-size:100}") int reclaimBatchSize,
+            @Value("${vantage.worker.overflow.spill-delay:PT5S}") Duration spillDelay) {
+        this.workerService = workerService;
+        this.queue = queue;
+        this.retryQueue = retryQueue;
+        this.executor = executor;
+        this.reclaimMinIdle = reclaimMinIdle;
+        this.reclaimBatchSize = reclaimBatchSize;
+        this.spillDelay = spillDelay;
+    }
+
+    @Override
+    public void onMessage(MapRecord<String, String, Object> record) {
+        dispatch(record.getId(), (LinkValidationTask) record.getValue().get(LinkValidationQueue.TASK_FIELD));
+    }
+
+    /**
+     * Periodically claims entries left pending by consumers that stopped
+     * responding, then drops consumers left idle with nothing pending.
+     */
+    @Scheduled(fixedDelayString = "${vantage.queue.reclaim-interval:PT30S}")
+    public void reclaimStalled() {
+        try {
+            queue.reclaim(reclaimMinIdle, reclaimBatchSize)
+                    .forEach(record -> dispatch(record.getId(), record.getValue().get(LinkValidationQueue.TASK_FIELD)));
+        } catch (Exception e) {
+            log.warn("Pending-entry reclaim failed: {}", e.getMessage());
+        }
+        try {
+            queue.pruneIdleConsumers(reclaimMinIdle);
+        } catch (Exception e) {
+            log.warn("Idle-consumer cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(RecordId recordId, LinkValidationTask task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    workerService.handleMessage(task).whenComplete((ignored, failure) -> {
+                        if (failure == null) {
+                            queue.acknowledge(recordId);
+                        } else {
+                            leavePending(recordId, failure);
+                        }
+                    });
+                } catch (Exception e) {
+                    leavePending(recordId, e);
+                }
+            });
+        } catch (TaskShedException e) {
+            leavePending(recordId, e);
+        } catch (RejectedExecutionException e) {
+            spill(recordId, task);
+        }
+    }
+
+    // Parked untried in the retry set, so the entry can be acked without losing the task
+    private void spill(RecordId recordId, LinkValidationTask task) {
+        try {
+            retryQueue.defer(task, spillDelay);
+            queue.acknowledge(recordId);
+        } catch (Exception e) {
+            leavePending(recordId, e);
+        }
+    }
+
+    // Left un-acked on purpose: the entry will be reclaimed and retried.
+    private void leavePending(RecordId recordId, Throwable failure) {
+        log.warn("Validation of entry {} failed, leaving it pending: {}", recordId, failure.getMessage());
+    }
+}
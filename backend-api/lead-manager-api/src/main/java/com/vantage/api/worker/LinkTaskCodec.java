@@ -0,0 +1,213 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact binary Redis encoding for the values the queue stores: stream
+ * entries and retries ({@link LinkValidationTask}) and dead letters
+ * ({@link DeadLetter}).
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * task:        version(1) kind=1(1) uuid(16) attempt(varint) budgetMillis(varint) urlLength(varint) url(UTF-8)
+ *              enqueuedAt(varint, version 2 on) etagLength+1(varint, 0 = null) etag(UTF-8)
+ *              lastModifiedLength+1(varint, 0 = null) lastModified(UTF-8) (version 3 on)
+ * dead letter: version(1) kind=2(1) &lt;task body&gt; failedAt(8) reasonLength+1(varint, 0 = null) reason(UTF-8)
+ * </pre>
+ * A typical task is its URL plus about 20 bytes, against roughly 150 bytes
+ * of JSON with its class name and quoted UUID. The same codec must back the
+ * template's value and hash-value serializers and the stream container,
+ * since the retry promotion script copies zset members into the stream
+ * byte for byte.
+ * <p>
+ * Evolving the format: append fields under a new {@link #VERSION}, keep
+ * decoding the older versions, and roll out readers before writers. A reader
+ * rejects versions it does not know rather than guess. Version 1 lacks
+ * {@code enqueuedAt} and decodes with 0; versions 1 and 2 lack the
+ * validators and decode without them. Payloads starting
+ * with <code>{</code> are JSON written before this codec and still decode.
+ */
+public final class LinkTaskCodec implements RedisSerializer<Object> {
+
+    public static final byte VERSION = 3;
+
+    static final byte VERSION_1 = 1;
+
+    static final byte KIND_TASK = 1;
+    static final byte KIND_DEAD_LETTER = 2;
+
+    private static final byte JSON_START = '{';
+
+    private final RedisSerializer<Object> legacyJson = RedisSerializer.json();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return switch (value) {
+            case null -> null;
+            case LinkValidationTask task -> encodeTask(task);
+            case DeadLetter deadLetter -> encodeDeadLetter(deadLetter);
+            default -> throw new SerializationException(
+                    "Cannot encode " + value.getClass().getName() + " as a link task");
+        };
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_START) {
+            return legacyJson.deserialize(bytes);
+        }
+        byte version = bytes[0];
+        if (version < VERSION_1 || version > VERSION) {
+            throw new SerializationException("Unsupported link task encoding version " + bytes[0]);
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+            return switch (bytes[1]) {
+                case KIND_TASK -> readTask(in, version);
+                case KIND_DEAD_LETTER -> readDeadLetter(in, version);
+                default -> throw new SerializationException("Unknown link task record kind " + bytes[1]);
+            };
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated link task payload of " + bytes.length + " bytes", e);
+        }
+    }
+
+    @Override
+    public boolean canSerialize(Class<?> type) {
+        return LinkValidationTask.class.isAssignableFrom(type) || DeadLetter.class.isAssignableFrom(type);
+    }
+
+    private static byte[] encodeTask(LinkValidationTask task) {
+        byte[] url = task.url().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(2 + taskSize(task, url));
+        out.put(VERSION).put(KIND_TASK);
+        writeTask(out, task, url);
+        return out.array();
+    }
+
+    private static byte[] encodeDeadLetter(DeadLetter deadLetter) {
+        LinkValidationTask task = deadLetter.task();
+        byte[] url = task.url().getBytes(StandardCharsets.UTF_8);
+        byte[] reason = utf8(deadLetter.reason());
+        ByteBuffer out = ByteBuffer.allocate(2 + taskSize(task, url) + Long.BYTES + nullableSize(reason));
+        out.put(VERSION).put(KIND_DEAD_LETTER);
+        writeTask(out, task, url);
+        out.putLong(deadLetter.failedAt());
+        writeNullable(out, reason);
+        return out.array();
+    }
+
+    private static int taskSize(LinkValidationTask task, byte[] url) {
+        return 2 * Long.BYTES
+                + varIntSize(task.attempt())
+                + varIntSize(task.budgetMillis())
+                + varIntSize(url.length) + url.length
+                + varIntSize(task.enqueuedAt())
+                + nullableSize(utf8(task.etag()))
+                + nullableSize(utf8(task.lastModified()));
+    }
+
+    private static void writeTask(ByteBuffer out, LinkValidationTask task, byte[] url) {
+        out.putLong(task.id().getMostSignificantBits()).putLong(task.id().getLeastSignificantBits());
+        writeVarLong(out, task.attempt());
+        writeVarLong(out, task.budgetMillis());
+        writeVarLong(out, url.length);
+        out.put(url);
+        writeVarLong(out, task.enqueuedAt());
+        writeNullable(out, utf8(task.etag()));
+        writeNullable(out, utf8(task.lastModified()));
+    }
+
+    private static LinkValidationTask readTask(ByteBuffer in, byte version) {
+        UUID id = new UUID(in.getLong(), in.getLong());
+        int attempt = (int) readVarLong(in);
+        long budgetMillis = readVarLong(in);
+        String url = readString(in, (int) readVarLong(in));
+        long enqueuedAt = version >= 2 ? readVarLong(in) : 0;
+        String etag = version >= 3 ? readNullableString(in) : null;
+        String lastModified = version >= 3 ? readNullableString(in) : null;
+        return new LinkValidationTask(id, url, attempt, budgetMillis, enqueuedAt, etag, lastModified);
+    }
+
+    private static DeadLetter readDeadLetter(ByteBuffer in, byte version) {
+        LinkValidationTask task = readTask(in, version);
+        long failedAt = in.getLong();
+        return new DeadLetter(task, readNullableString(in), failedAt);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int nullableSize(byte[] value) {
+        return value == null ? 1 : varIntSize(value.length + 1) + value.length;
+    }
+
+    // Length + 1 so that 0 can stand for null
+    private static void writeNullable(ByteBuffer out, byte[] value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+        } else {
+            writeVarLong(out, value.length + 1);
+            out.put(value);
+        }
+    }
+
+    private static String readNullableString(ByteBuffer in) {
+        int lengthPlusOne = (int) readVarLong(in);
+        return lengthPlusOne == 0 ? null : readString(in, lengthPlusOne - 1);
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last
+    private static void writeVarLong(ByteBuffer out, long value) {
+        if (value < 0) {
+            throw new SerializationException("Negative value " + value + " in link task");
+        }
+        while (value >= 0x80) {
+            out.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in link task");
+    }
+
+    private static int varIntSize(long value) {
+        int size = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
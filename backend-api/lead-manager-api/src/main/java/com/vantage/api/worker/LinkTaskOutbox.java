@@ -0,0 +1,22 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+
+import java.util.List;
+
+/**
+ * Hands validation tasks to the queue from inside the caller's transaction.
+ * A task reaches the workers only once, and only if, that transaction
+ * commits, so a worker never sees a check that is not in the database yet.
+ * <p>
+ * With the redis and postgres engines the task is an {@code outbox} row
+ * ({@link JdbcTaskOutbox}); with the memory engine it is published straight
+ * to the ring buffer after commit ({@link InMemoryTaskOutbox}).
+ */
+public interface LinkTaskOutbox {
+
+    void add(LinkValidationTask task);
+
+    /** Adds several tasks in one round trip. */
+    void addAll(List<LinkValidationTask> tasks);
+}
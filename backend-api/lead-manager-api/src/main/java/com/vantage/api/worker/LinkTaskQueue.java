@@ -0,0 +1,25 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+
+import java.util.List;
+
+/**
+ * Where validation tasks are queued for the workers. The engine is chosen with
+ * {@code vantage.queue.engine}: {@code redis} (a Redis Stream, the default),
+ * {@code postgres} (the {@code outbox} table, claimed with SKIP LOCKED) or
+ * {@code memory} (a ring buffer in this JVM, for a single node).
+ */
+public interface LinkTaskQueue {
+
+    /** Queues a task for the next free worker. */
+    void publish(LinkValidationTask task);
+
+    /** Queues several tasks, in as few round trips as the engine allows. */
+    default void publishAll(List<LinkValidationTask> tasks) {
+        tasks.forEach(this::publish);
+    }
+
+    /** Tasks queued but not yet completed. */
+    long backlog();
+}
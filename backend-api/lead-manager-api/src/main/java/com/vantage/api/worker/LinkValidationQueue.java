@@ -0,0 +1,183 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumer;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable link-validation queue backed by a Redis Stream and a consumer group.
+ * <p>
+ * Producers append with XADD; every worker node reads through the same group,
+ * so each task is delivered to exactly one consumer and stays in the group's
+ * pending list until it is acknowledged. Tasks published while no worker is
+ * running simply wait in the stream.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+public class LinkValidationQueue implements LinkTaskQueue {
+
+    /** Field name of the task payload inside each stream entry. */
+    public static final String TASK_FIELD = "task";
+
+    private static final Logger log = LoggerFactory.getLogger(LinkValidationQueue.class);
+
+    private final RedisTemplate<String, LinkValidationTask> redisTemplate;
+    private final StreamOperations<String, String, LinkValidationTask> streamOps;
+    private final String streamKey;
+    private final String group;
+    private final String consumerName;
+
+    public LinkValidationQueue(RedisTemplate<String, LinkValidationTask> redisTemplate,
+            @Value("${vantage.queue.stream-key:link-validation}") String streamKey,
+            @Value("${vantage.queue.group:link-workers}") String group,
+            @Value("${vantage.queue.consumer-name:worker-${random.uuid}}") String consumerName) {
+        this.redisTemplate = redisTemplate;
+        this.streamOps = redisTemplate.opsForStream();
+        this.streamKey = streamKey;
+        this.group = group;
+        this.consumerName = consumerName;
+    }
+
+    /** Appends a task to the stream (XADD), stamped with the current time unless it carries one. */
+    @Override
+    public void publish(LinkValidationTask task) {
+        streamOps.add(StreamRecords.newRecord()
+                .in(streamKey)
+                .ofMap(Map.of(TASK_FIELD, task.stamped())));
+    }
+
+    /**
+     * Appends several tasks in one pipelined round trip. Not atomic: if the
+     * connection fails midway, some of the tasks may already be in the stream.
+     */
+    @Override
+    public void publishAll(List<LinkValidationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                StreamOperations<String, String, LinkValidationTask> pipelined =
+                        ((RedisOperations<String, LinkValidationTask>) operations).opsForStream();
+                for (LinkValidationTask task : tasks) {
+                    pipelined.add(StreamRecords.newRecord()
+                            .in(streamKey)
+                            .ofMap(Map.of(TASK_FIELD, task.stamped())));
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Acknowledges a processed entry (XACK) and removes it from the stream
+     * (XDEL) so the stream only ever holds outstanding work.
+     */
+    public void acknowledge(RecordId recordId) {
+        streamOps.acknowledge(streamKey, group, recordId);
+        streamOps.delete(streamKey, recordId);
+    }
+
+    /**
+     * Entries still in the stream (XLEN): not yet delivered or delivered but
+     * unacknowledged. Acked entries are deleted, so this is the outstanding work.
+     */
+    @Override
+    public long backlog() {
+        Long size = streamOps.size(streamKey);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Creates the consumer group (and the stream, via MKSTREAM) if it does not
+     * exist yet. Safe to call on every startup.
+     */
+    public void ensureGroup() {
+        try {
+            streamOps.createGroup(streamKey, ReadOffset.from("0"), group);
+        } catch (RedisSystemException e) {
+            if (e.getMostSpecificCause().getMessage() == null
+                    || !e.getMostSpecificCause().getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Takes over entries that another consumer read but never acknowledged
+     * within {@code minIdle}, e.g. because its node crashed mid-task.
+     * <p>
+     * Equivalent to XAUTOCLAIM: XPENDING filtered by idle time, then XCLAIM
+     * with the same min-idle guard so two nodes cannot steal the same entry.
+     */
+    public List<MapRecord<String, String, LinkValidationTask>> reclaim(Duration minIdle, int count) {
+        PendingMessages pending = streamOps.pending(streamKey, group, Range.unbounded(), count, minIdle);
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        RecordId[] ids = pending.stream().map(PendingMessage::getId).toArray(RecordId[]::new);
+        List<MapRecord<String, String, LinkValidationTask>> claimed =
+                streamOps.claim(streamKey, group, consumerName, XClaimOptions.minIdle(minIdle).ids(ids));
+        log.info("Reclaimed {} stalled link-validation entries", claimed.size());
+        return claimed;
+    }
+
+    /**
+     * Removes consumers of the group (XGROUP DELCONSUMER) that have been idle
+     * for at least {@code minIdle} and hold no pending entries. Every restart
+     * registers a fresh consumer name, so without this the group keeps one
+     * dead consumer per past process; ones still holding entries are left
+     * until {@link #reclaim} has taken those over.
+     */
+    public int pruneIdleConsumers(Duration minIdle) {
+        int deleted = 0;
+        for (XInfoConsumer info : streamOps.consumers(streamKey, group)) {
+            if (info.consumerName().equals(consumerName)
+                    || info.pendingCount() > 0
+                    || info.idleTime().compareTo(minIdle) < 0) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(streamOps.deleteConsumer(streamKey, Consumer.from(group, info.consumerName())))) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            log.info("Removed {} idle link-validation consumers", deleted);
+        }
+        return deleted;
+    }
+
+    public StreamOffset<String> readOffset() {
+        return StreamOffset.create(streamKey, ReadOffset.lastConsumed());
+    }
+
+    public Consumer consumer() {
+        return Consumer.from(group, consumerName);
+    }
+}
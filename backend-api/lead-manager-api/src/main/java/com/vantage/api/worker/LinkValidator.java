@@ -0,0 +1,42 @@
+package com.vantage.api.worker;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates the links of one storage provider through its metadata API
+ * instead of probing each URL.
+ * <p>
+ * Implementations are Spring beans picked up by {@link LinkValidators}, which
+ * collects the links a validator {@linkplain #resourceId claims} and hands
+ * them over in batches of up to {@link #maxBatchSize()}, one
+ * {@link #validate} call per batch. Links no validator claims, and all links
+ * while no validator is enabled, take the generic HEAD probe.
+ */
+public interface LinkValidator {
+
+    /** Short lowercase provider name, used as the {@code provider} metric tag. */
+    String name();
+
+    /**
+     * The provider's id of the resource {@code url} points to, or null when
+     * this validator does not handle the URL. Links with the same id share
+     * one lookup.
+     */
+    String resourceId(String url);
+
+    /** Most ids a single {@link #validate} call accepts. */
+    int maxBatchSize();
+
+    /**
+     * Looks up {@code resourceIds} in one call to the provider. The answer per
+     * id is given as the HTTP status a probe of the link would have got (200,
+     * 404, 410, ...); a 429 or gateway error for an id retries that link only.
+     * Ids missing from the result are taken as not found.
+     *
+     * @throws IOException when the call as a whole got no usable answer; every
+     *                     link in the batch is retried
+     */
+    Map<String, ProbeResponse> validate(List<String> resourceIds) throws IOException, InterruptedException;
+}
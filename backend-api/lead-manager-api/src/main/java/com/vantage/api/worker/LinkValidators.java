@@ -0,0 +1,269 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes links to the {@link LinkValidator} of their provider and batches the
+ * lookups.
+ * <p>
+ * Links claimed by a validator are buffered per provider; a batch goes out
+ * once it holds {@link LinkValidator#maxBatchSize()} distinct ids, and partial
+ * batches on a timer, so a sweep over a thousand Drive links costs ten API
+ * calls instead of a thousand probes. Calls run on virtual threads, off the
+ * consumer and scheduler threads, at most {@code max-concurrent-calls} at a
+ * time per provider; further batches wait their turn. Lookups outstanding per
+ * provider are capped at {@code backlog-factor} times what those calls take
+ * at once; beyond that a lookup fails with {@link ProviderBusyException} and
+ * its task stays in the queue engine rather than on the heap.
+ * <p>
+ * Each call is one sample for {@link HostCircuitBreaker}, keyed by the
+ * provider's {@link LinkValidator#name() name}: it is the provider's API that
+ * answers, not the links' hosts. The worker checks that circuit before
+ * queueing a link.
+ * <p>
+ * Per provider ({@code provider} tag): {@code link.validator.batch.size}
+ * (ids per call), {@code link.validator.batch.latency} and
+ * {@code link.validator.batch.failed} (calls that got no usable answer).
+ */
+@Component
+public class LinkValidators {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkValidators.class);
+
+    /** Thrown (via the returned future) when a provider already has its fill of outstanding lookups. */
+    public static class ProviderBusyException extends RuntimeException {
+        public ProviderBusyException(String provider) {
+            super("Too many lookups outstanding for provider " + provider);
+        }
+    }
+
+    /** A link claimed by {@code validator}, which knows it as {@code resourceId}. */
+    public record Match(LinkValidator validator, String resourceId) {
+    }
+
+    private static final class Batcher {
+        final LinkValidator validator;
+        final DistributionSummary size;
+        final Timer latency;
+        final Counter failed;
+        final Semaphore calls;
+        final Semaphore outstanding;
+        // Full batches waiting for a call slot
+        final Queue<Map<String, List<CompletableFuture<ProbeResponse>>>> ready = new ConcurrentLinkedQueue<>();
+        // Links sharing a resource id share its lookup
+        Map<String, List<CompletableFuture<ProbeResponse>>> pending = new LinkedHashMap<>();
+
+        Batcher(LinkValidator validator, MeterRegistry meterRegistry, int maxConcurrentCalls, int backlogFactor) {
+            this.validator = validator;
+            this.calls = new Semaphore(maxConcurrentCalls);
+            this.outstanding = new Semaphore(validator.maxBatchSize() * maxConcurrentCalls * backlogFactor);
+            this.size = DistributionSummary.builder("link.validator.batch.size")
+                    .description("Resource ids looked up per provider metadata call")
+                    .tag("provider", validator.name())
+                    .register(meterRegistry);
+            this.latency = Timer.builder("link.validator.batch.latency")
+                    .description("Duration of provider metadata calls")
+                    .tag("provider", validator.name())
+                    .register(meterRegistry);
+            this.failed = Counter.builder("link.validator.batch.failed")
+                    .description("Provider metadata calls that got no usable answer; their links are retried")
+                    .tag("provider", validator.name())
+                    .register(meterRegistry);
+        }
+
+        /** Takes the pending lookups, or null if there are none. */
+        synchronized Map<String, List<CompletableFuture<ProbeResponse>>> drain() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            Map<String, List<CompletableFuture<ProbeResponse>>> batch = pending;
+            pending = new LinkedHashMap<>();
+            return batch;
+        }
+    }
+
+    private final Map<LinkValidator, Batcher> batchers = new LinkedHashMap<>();
+    private final HostCircuitBreaker circuitBreaker;
+    private final Executor executor;
+
+    /**
+     * @param maxConcurrentCalls most calls in flight to one provider
+     * @param backlogFactor      lookups outstanding per provider, in multiples of a
+     *                           full round of its concurrent calls
+     * @param executor           runs the provider calls; {@code Runnable::run} calls on
+     *                           the thread that filled or flushed the batch
+     */
+    public LinkValidators(List<LinkValidator> validators,
+            MeterRegistry meterRegistry,
+            HostCircuitBreaker circuitBreaker,
+            int maxConcurrentCalls,
+            int backlogFactor,
+            Executor executor) {
+        for (LinkValidator validator : validators) {
+            batchers.put(validator, new Batcher(validator, meterRegistry, maxConcurrentCalls, backlogFactor));
+        }
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+    }
+
+    @Autowired
+    public LinkValidators(ObjectProvider<LinkValidator> validators,
+            MeterRegistry meterRegistry,
+            HostCircuitBreaker circuitBreaker,
+            @Value("${vantage.validators.max-concurrent-calls:4}") int maxConcurrentCalls,
+            @Value("${vantage.validators.backlog-factor:4}") int backlogFactor) {
+        this(validators.orderedStream().toList(), meterRegistry, circuitBreaker, maxConcurrentCalls, backlogFactor,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /** No provider validators: every link takes the generic probe. */
+    public static LinkValidators none() {
+        return new LinkValidators(List.of(), null, null, 1, 1, Runnable::run);
+    }
+
+    /** The validator claiming {@code url}, or null if it is left to the generic probe. */
+    public Match match(String url) {
+        for (LinkValidator validator : batchers.keySet()) {
+            String resourceId;
+            try {
+                resourceId = validator.resourceId(url);
+            } catch (RuntimeException e) {
+                // Unparseable for this provider: someone else's, or the generic probe's
+                continue;
+            }
+            if (resourceId != null) {
+                return new Match(validator, resourceId);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues a lookup of the matched link. The future completes with the
+     * provider's answer once its batch has been sent, or fails with a
+     * {@link TransientProbeException} if the provider gave none for it, or
+     * with {@link ProviderBusyException} if too many lookups are outstanding.
+     */
+    public CompletableFuture<ProbeResponse> validate(Match match) {
+        Batcher batcher = batchers.get(match.validator());
+        if (!batcher.outstanding.tryAcquire()) {
+            return CompletableFuture.failedFuture(new ProviderBusyException(batcher.validator.name()));
+        }
+        CompletableFuture<ProbeResponse> response = new CompletableFuture<>();
+        response.whenComplete((ignored, failure) -> batcher.outstanding.release());
+        Map<String, List<CompletableFuture<ProbeResponse>>> full = null;
+        synchronized (batcher) {
+            batcher.pending.computeIfAbsent(match.resourceId(), id -> new ArrayList<>(1)).add(response);
+            if (batcher.pending.size() >= batcher.validator.maxBatchSize()) {
+                full = batcher.drain();
+            }
+        }
+        if (full != null) {
+            dispatch(batcher, full);
+        }
+        return response;
+    }
+
+    /** Sends every partial batch. Called on a timer; bounds how long a lookup waits for company. */
+    @Scheduled(fixedDelayString = "${vantage.validators.linger:PT0.2S}")
+    public void flush() {
+        for (Batcher batcher : batchers.values()) {
+            Map<String, List<CompletableFuture<ProbeResponse>>> batch = batcher.drain();
+            if (batch != null) {
+                dispatch(batcher, batch);
+            }
+        }
+    }
+
+    private void dispatch(Batcher batcher, Map<String, List<CompletableFuture<ProbeResponse>>> batch) {
+        batcher.ready.add(batch);
+        startCalls(batcher);
+    }
+
+    /** Sends ready batches while the provider has call slots free; each finished call starts the next. */
+    private void startCalls(Batcher batcher) {
+        while (!batcher.ready.isEmpty() && batcher.calls.tryAcquire()) {
+            Map<String, List<CompletableFuture<ProbeResponse>>> batch = batcher.ready.poll();
+            if (batch == null) {
+                batcher.calls.release();
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        call(batcher, batch);
+                    } finally {
+                        batcher.calls.release();
+                        startCalls(batcher);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                batcher.calls.release();
+                fail(batch, new TransientProbeException(batcher.validator.name() + " lookup rejected: " + e, e));
+            }
+        }
+    }
+
+    private void call(Batcher batcher, Map<String, List<CompletableFuture<ProbeResponse>>> batch) {
+        LinkValidator validator = batcher.validator;
+        batcher.size.record(batch.size());
+        Map<String, ProbeResponse> responses;
+        long start = System.nanoTime();
+        try {
+            responses = validator.validate(List.copyOf(batch.keySet()));
+            circuitBreaker.onSuccess(validator.name(), System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(batch, new TransientProbeException(validator.name() + " lookup interrupted", e));
+            return;
+        } catch (Exception e) {
+            circuitBreaker.onFailure(validator.name(), System.nanoTime() - start);
+            batcher.failed.increment();
+            log.warn("{} lookup of {} links failed: {}", validator.name(), batch.size(), e.toString());
+            fail(batch, e instanceof TransientProbeException transientFailure
+                    ? transientFailure
+                    : new TransientProbeException(validator.name() + " lookup failed: " + e, e));
+            return;
+        } finally {
+            batcher.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        batch.forEach((id, waiting) -> {
+            ProbeResponse response = responses.getOrDefault(id, new ProbeResponse(404, null, null));
+            if (ProbeResponse.isTransient(response.statusCode())) {
+                TransientProbeException failure = new TransientProbeException(
+                        "HTTP " + response.statusCode() + " from " + validator.name() + " for " + id);
+                waiting.forEach(future -> future.completeExceptionally(failure));
+            } else {
+                waiting.forEach(future -> future.complete(response));
+            }
+        });
+    }
+
+    private static void fail(Map<String, List<CompletableFuture<ProbeResponse>>> batch, Throwable failure) {
+        batch.values().forEach(waiting -> waiting.forEach(future -> future.completeExceptionally(failure)));
+    }
+}
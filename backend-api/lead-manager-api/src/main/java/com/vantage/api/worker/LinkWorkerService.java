@@ -2,77 +2,513 @@ package com.vantage.api.worker;
 
 import com.vantage.api.dto.LinkValidationTask;
 import com.vantage.api.entity.ExternalLink.LinkStatus;
-import com.vantage.api.repository.ExternalLinkRepository;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class LinkWorkerService {
 
-    private final ExternalLinkRepository repository;
-    private final HttpClient httpClient;
-    private final Timer validationTimer;
+    private static final Logger log = LoggerFactory.getLogger(LinkWorkerService.class);
 
-    public LinkWorkerService(ExternalLinkRepository repository,
-            HttpClient httpClient,
-            MeterRegistry meterRegistry) {
-        this.repository = repository;
-        this.httpClient = httpClient;
-        this.validationTimer = Timer.builder("link.validation.latency")
-                .description("Time taken to validate an external link via HEAD request")
+    private final LinkResultWriter resultWriter;
+    private final HostScheduler hostScheduler;
+    private final HostCircuitBreaker circuitBreaker;
+    private final ProbeCoalescer probeCoalescer;
+    private final LinkRetryQueue retryQueue;
+    private final ProbeHttpClients httpClients;
+    private final ProbeLatencyMetrics latency;
+    private final ProbeStrategyCache probeStrategies;
+    private final LinkValidators validators;
+    private final boolean asyncProbes;
+    private final AdaptiveLimiter limiter;
+    private final Duration taskBudget;
+    private final Counter timeouts;
+    private final Counter notModified;
+    // Outstanding exchanges and blocked probe threads, cancelled on shutdown
+    private final Set<CompletableFuture<?>> exchanges = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> blockingProbes = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    /**
+     * @param httpClients the clients probes are sent with, per host
+     * @param asyncProbes when true, probes go through {@link HttpClient#sendAsync} and
+     *                    no thread is held for the network round trip
+     * @param limiter     cap on outstanding probes; callers block once it is reached
+     * @param latency     per-stage latency timers
+     * @param probeStrategies per-host memory of which request method gets a real answer
+     * @param validators  provider validators that take their links off the generic probe
+     * @param taskBudget  time budget per attempt for tasks that do not carry their own
+     */
+    @Autowired
+    public LinkWorkerService(LinkResultWriter resultWriter,
+            HostScheduler hostScheduler,
+            HostCircuitBreaker circuitBreaker,
+            ProbeCoalescer probeCoalescer,
+            LinkRetryQueue retryQueue,
+            ProbeHttpClients httpClients,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.worker.async-probes:true}") boolean asyncProbes,
+            AdaptiveLimiter limiter,
+            ProbeLatencyMetrics latency,
+            ProbeStrategyCache probeStrategies,
+            LinkValidators validators,
+            @Value("${vantage.worker.task-budget:PT30S}") Duration taskBudget) {
+        this.resultWriter = resultWriter;
+        this.hostScheduler = hostScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.probeCoalescer = probeCoalescer;
+        this.retryQueue = retryQueue;
+        this.httpClients = httpClients;
+        this.asyncProbes = asyncProbes;
+        this.limiter = limiter;
+        this.latency = latency;
+        this.probeStrategies = probeStrategies;
+        this.validators = validators;
+        this.taskBudget = taskBudget;
+        this.timeouts = Counter.builder("link.validation.timeout")
+                .description("Probes that ran out of their time budget")
+                .register(meterRegistry);
+        this.notModified = Counter.builder("link.validation.not_modified")
+                .description("Conditional probes confirmed by a 304 Not Modified")
                 .register(meterRegistry);
     }
 
-    @org.springframework.beans.factory.annotation.Autowired
-    public LinkWorkerService(ExternalLinkRepository repository,
-            MeterRegistry meterRegistry) {
-        this(repository,
-                HttpClient.newBuilder()
-                        .connectTimeout(Duration.ofSeconds(5))
-                        .build(),
-                meterRegistry);
+    /** Same, with a single client and a fixed cap of {@code maxInFlight} outstanding probes. */
+    public LinkWorkerService(LinkResultWriter resultWriter,
+            HostScheduler hostScheduler,
+            HostCircuitBreaker circuitBreaker,
+            ProbeCoalescer probeCoalescer,
+            LinkRetryQueue retryQueue,
+            HttpClient httpClient,
+            MeterRegistry meterRegistry,
+            boolean asyncProbes,
+            int maxInFlight,
+            Duration taskBudget) {
+        this(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, ProbeHttpClients.of(httpClient),
+                meterRegistry, asyncProbes, AdaptiveLimiter.fixed(maxInFlight, meterRegistry),
+                new ProbeLatencyMetrics(meterRegistry), new ProbeStrategyCache(meterRegistry), LinkValidators.none(), taskBudget);
     }
 
-    @Transactional
-    public void handleMessage(LinkValidationTask task) {
-        System.out.println("Processing task for URL: " + task.url());
+    /**
+     * Probes the link and hands the outcome to the write-behind buffer.
+     * The returned future completes once the result has been persisted.
+     * <p>
+     * Tasks for the same normalized URL that overlap share a single probe;
+     * each task still has its result submitted for its own id.
+     * <p>
+     * A transient failure (no response, 429, gateway error) parks a delayed
+     * retry instead of writing a result; the link only goes BROKEN once its
+     * retries are exhausted, or TIMEOUT if the last attempt ran out of budget.
+     * <p>
+     * Each attempt's budget starts once its host slot and in-flight permit are
+     * held, so time spent waiting behind other probes of the host never counts
+     * against it; the HTTP request timeout is whatever is left of it when the
+     * request, or a fallback request, is sent.
+     * <p>
+     * Tasks carrying the validators of the URL's last response probe
+     * conditionally; a 304 confirms the link as still valid. The response's
+     * status and validators are stored with the result for the next probe.
+     * <p>
+     * Links are probed with HEAD unless {@link ProbeStrategyCache} has learned
+     * that the host refuses it; a refusal is retried right away with a ranged
+     * GET, then a GET whose body is aborted, all within the same attempt.
+     * <p>
+     * Links a {@link LinkValidator} claims are looked up through their
+     * provider's API instead, batched with other links of that provider by
+     * {@link LinkValidators}. They take no in-flight permit or politeness slot,
+     * as the link's host is never contacted; the circuit checked is the
+     * provider's rather than the host's.
+     * <p>
+     * Time spent in the queue, waiting for admission, on the upstream and on
+     * the result write is recorded per stage by {@link ProbeLatencyMetrics}.
+     */
+    public CompletableFuture<Void> handleMessage(LinkValidationTask task) {
+        log.debug("Processing task for URL: {}", task.url());
 
-        validationTimer.record(() -> {
-            try {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(task.url()))
-                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
-                        .build();
-
-                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-
-                LinkStatus finalStatus = (response.statusCode() >= 200 && response.statusCode() < 400)
-                        ? LinkStatus.VALIDATED
-                        : LinkStatus.BROKEN;
-
-                repository.findById(task.id()).ifPresent(link -> {
-                    link.setStatus(finalStatus);
-                    link.setLastChecked(LocalDateTime.now());
-                    repository.save(link);
-                    System.out.println("Updated link " + task.id() + " to " + finalStatus);
+        if (stopping) {
+            // Left pending; another node reclaims it
+            return CompletableFuture.failedFuture(new CancellationException("Worker is shutting down"));
+        }
+        long pickedUp = System.nanoTime();
+        long queueWait = task.enqueuedAt() > 0
+                ? TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - task.enqueuedAt()))
+                : -1;
+        Duration budget = task.budgetMillis() > 0 ? Duration.ofMillis(task.budgetMillis()) : taskBudget;
+        String host = HostScheduler.hostOf(task.url());
+        String[] outcome = new String[1];
+
+        return probeCoalescer.probe(task.url(), () -> probeWithinLimits(task, host, pickedUp, budget))
+                .handle((response, failure) -> {
+                    outcome[0] = failure == null ? outcomeTag(response.linkStatus()) : outcomeTag(unwrap(failure));
+                    return failure == null
+                            ? writeResult(task, host, response.linkStatus(), response)
+                            : settleFailure(task, host, failure);
+                })
+                .thenCompose(settled -> settled)
+                .whenComplete((ignored, failure) -> {
+                    String tag = failure == null ? outcome[0] : "error";
+                    latency.record(ProbeLatencyMetrics.Stage.QUEUE_WAIT, host, tag, queueWait);
+                    latency.record(ProbeLatencyMetrics.Stage.TOTAL, host, tag, System.nanoTime() - pickedUp);
                 });
+    }
+
+    private CompletableFuture<Void> writeResult(LinkValidationTask task, String host, LinkStatus status,
+            ProbeResponse response) {
+        long start = System.nanoTime();
+        return resultWriter.submit(task.id(), status, LocalDateTime.now(), response)
+                .whenComplete((ignored, failure) -> latency.record(ProbeLatencyMetrics.Stage.WRITEBACK, host,
+                        failure == null ? outcomeTag(status) : "error", System.nanoTime() - start));
+    }
 
+    private CompletableFuture<Void> settleFailure(LinkValidationTask task, String host, Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof HostCircuitBreaker.CircuitOpenException open) {
+            try {
+                // Never attempted: park it until the circuit admits a trial, attempt count untouched
+                retryQueue.defer(task, open.retryAfter());
+                return CompletableFuture.completedFuture(null);
             } catch (Exception e) {
-                repository.findById(task.id()).ifPresent(link -> {
-                    link.setStatus(LinkStatus.BROKEN);
-                    link.setLastChecked(LocalDateTime.now());
-                    repository.save(link);
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (!(cause instanceof TransientProbeException)) {
+            // e.g. host queue full: no result, the stream entry stays pending and is reclaimed later
+            return CompletableFuture.failedFuture(cause);
+        }
+        try {
+            if (retryQueue.retryOrDeadLetter(task, cause.getMessage())) {
+                // The retry set now owns the task; completing lets the stream entry be acked
+                return CompletableFuture.completedFuture(null);
+            }
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        LinkStatus finalStatus = cause instanceof ProbeTimeoutException ? LinkStatus.TIMEOUT : LinkStatus.BROKEN;
+        return writeResult(task, host, finalStatus, null);
+    }
+
+    private CompletableFuture<ProbeResponse> probeWithinLimits(LinkValidationTask task, String host,
+            long pickedUp, Duration budget) {
+        LinkValidators.Match provider = validators.match(task.url());
+        // Provider lookups go to the provider's API, whose circuit LinkValidators samples once per call
+        String circuit = provider != null ? provider.validator().name() : host;
+        if (!circuitBreaker.tryAcquire(circuit)) {
+            // Host or provider is failing: no I/O, no permit, no politeness slot
+            return CompletableFuture.failedFuture(new HostCircuitBreaker.CircuitOpenException(circuit, circuitBreaker.retryAfter(circuit)));
+        }
+
+        if (provider != null) {
+            return validateWithProvider(provider, host, pickedUp);
+        }
+
+        if (!asyncProbes) {
+            HostScheduler.Slot slot;
+            try {
+                slot = hostScheduler.reserve(host).join();
+            } catch (CompletionException e) {
+                // Host queue full: fail without a result so the task is retried later
+                return CompletableFuture.failedFuture(e.getCause());
+            }
+            try {
+                // Permit only once the host slot is held, so a host's backlog never ties up the global limit
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                slot.release();
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+            long start = System.nanoTime();
+            try {
+                // Blocks the calling thread; in virtual-thread mode that only parks a virtual thread
+                ProbeResponse response = probe(task, host, start + budget.toNanos());
+                long upstream = System.nanoTime() - start;
+                if (unsent(response, null)) {
+                    limiter.release();
+                } else {
+                    circuitBreaker.onSuccess(host, upstream);
+                    limiter.release(upstream, AdaptiveLimiter.Outcome.SUCCESS);
+                }
+                recordProbe(host, outcomeTag(response.linkStatus()), start - pickedUp, upstream);
+                return CompletableFuture.completedFuture(response);
+            } catch (TransientProbeException e) {
+                long upstream = System.nanoTime() - start;
+                if (unsent(null, e)) {
+                    limiter.release();
+                } else {
+                    circuitBreaker.onFailure(host, upstream);
+                    limiter.release(upstream, outcomeOf(e));
+                }
+                recordProbe(host, outcomeTag(e), start - pickedUp, upstream);
+                return CompletableFuture.failedFuture(e);
+            } catch (CancellationException e) {
+                // Cancelled: says nothing about upstream latency
+                limiter.release();
+                return CompletableFuture.failedFuture(e);
+            } catch (RuntimeException e) {
+                limiter.release();
+                throw e;
+            } finally {
+                slot.release();
+            }
+        }
+
+        // Permit only once the host slot is held, so a host's backlog never ties up the global limit
+        CompletableFuture<HostScheduler.Slot> reserved = hostScheduler.reserve(host);
+        CompletableFuture<HostScheduler.Slot> admitted;
+        if (reserved.isDone() && !reserved.isCompletedExceptionally()) {
+            try {
+                // Backpressure: the calling consumer thread waits here while the limit is reached
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                reserved.join().release();
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+            admitted = reserved;
+        } else {
+            // Granted later, on the thread that freed the slot: must not block there
+            admitted = reserved.thenCompose(slot -> limiter.acquireAsync().thenApply(ignored -> slot));
+        }
+
+        // Slot and permit are held from here on and released exactly once, with the probe's outcome
+        return admitted
+                .thenCompose(slot -> {
+                    long start = System.nanoTime();
+                    long deadline = start + budget.toNanos();
+                    return probeAsync(task, host, probeStrategies.strategyFor(host), deadline).whenComplete((response, failure) -> {
+                        long upstream = System.nanoTime() - start;
+                        Throwable cause = failure == null ? null : unwrap(failure);
+                        if (unsent(response, cause)) {
+                            // Nothing reached the host: neither its health nor the limit learns anything
+                            limiter.release();
+                            recordProbe(host, failure == null ? outcomeTag(response.linkStatus()) : outcomeTag(cause),
+                                    start - pickedUp, upstream);
+                        } else if (failure == null) {
+                            circuitBreaker.onSuccess(host, upstream);
+                            limiter.release(upstream, AdaptiveLimiter.Outcome.SUCCESS);
+                            recordProbe(host, outcomeTag(response.linkStatus()), start - pickedUp, upstream);
+                        } else if (!(cause instanceof CancellationException)) {
+                            circuitBreaker.onFailure(host, upstream);
+                            limiter.release(upstream, outcomeOf(cause));
+                            recordProbe(host, outcomeTag(cause), start - pickedUp, upstream);
+                        } else {
+                            // Cancelled: says nothing about upstream latency
+                            limiter.release();
+                        }
+                        slot.release();
+                    });
                 });
+    }
+
+    private CompletableFuture<ProbeResponse> validateWithProvider(LinkValidators.Match provider, String host,
+            long pickedUp) {
+        long start = System.nanoTime();
+        // The upstream stage includes the wait for the batch to fill
+        return validators.validate(provider).whenComplete((response, failure) -> recordProbe(host,
+                failure == null ? outcomeTag(response.linkStatus()) : outcomeTag(unwrap(failure)),
+                start - pickedUp, System.nanoTime() - start));
+    }
+
+    private void recordProbe(String host, String outcome, long admission, long upstream) {
+        latency.record(ProbeLatencyMetrics.Stage.ADMISSION, host, outcome, admission);
+        latency.record(ProbeLatencyMetrics.Stage.UPSTREAM, host, outcome, upstream);
+    }
+
+    private static String outcomeTag(LinkStatus status) {
+        return status.name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Why a probe produced no status; a fixed set, to keep the tag's cardinality bounded. */
+    private static String outcomeTag(Throwable failure) {
+        return switch (failure) {
+            case ProbeTimeoutException e -> "timeout";
+            case TransientProbeException e -> "transient";
+            case HostCircuitBreaker.CircuitOpenException e -> "circuit_open";
+            case CancellationException e -> "cancelled";
+            default -> "rejected";
+        };
+    }
+
+    /** Whether the probe ended before a request was sent: a malformed URL, or no budget left to send it with. */
+    private static boolean unsent(ProbeResponse response, Throwable failure) {
+        return failure == null
+                ? response == ProbeResponse.NONE
+                : failure instanceof ProbeTimeoutException timeout && timeout.beforeSend();
+    }
+
+    private static AdaptiveLimiter.Outcome outcomeOf(Throwable failure) {
+        return failure instanceof ProbeTimeoutException
+                ? AdaptiveLimiter.Outcome.TIMEOUT
+                : AdaptiveLimiter.Outcome.FAILURE;
+    }
+
+    private ProbeResponse probe(LinkValidationTask task, String host, long deadline) {
+        ProbeStrategy strategy = probeStrategies.strategyFor(host);
+        while (true) {
+            ProbeResponse response = probe(task, host, strategy, deadline);
+            ProbeStrategy fallback = probeStrategies.next(host, strategy, response);
+            if (fallback == null) {
+                return response;
+            }
+            strategy = fallback;
+        }
+    }
+
+    private ProbeResponse probe(LinkValidationTask task, String host, ProbeStrategy strategy, long deadline) {
+        HttpResponse<Void> response;
+        blockingProbes.add(Thread.currentThread());
+        try {
+            response = httpClients.clientFor(host).send(request(task, strategy, remaining(task, deadline)), strategy.bodyHandler());
+        } catch (HttpTimeoutException e) {
+            throw timedOut(task, e);
+        } catch (IOException e) {
+            // DNS or connection failure
+            throw new TransientProbeException("No response from " + task.url() + ": " + e, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Probe of " + task.url() + " cancelled");
+        } catch (TransientProbeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Malformed URI or similar: retrying cannot help
+            return ProbeResponse.NONE;
+        } finally {
+            blockingProbes.remove(Thread.currentThread());
+        }
+        httpClients.onResponse(host, isTls(task), response);
+        return responseOf(task, response);
+    }
+
+    private CompletableFuture<ProbeResponse> probeAsync(LinkValidationTask task, String host, ProbeStrategy strategy,
+            long deadline) {
+        return exchangeAsync(task, host, strategy, deadline).thenCompose(response -> {
+            ProbeStrategy fallback = probeStrategies.next(host, strategy, response);
+            return fallback == null
+                    ? CompletableFuture.completedFuture(response)
+                    : probeAsync(task, host, fallback, deadline);
+        });
+    }
+
+    private CompletableFuture<ProbeResponse> exchangeAsync(LinkValidationTask task, String host,
+            ProbeStrategy strategy, long deadline) {
+        if (stopping) {
+            return CompletableFuture.failedFuture(new CancellationException("Worker is shutting down"));
+        }
+        CompletableFuture<HttpResponse<Void>> exchange;
+        try {
+            exchange = httpClients.clientFor(host).sendAsync(request(task, strategy, remaining(task, deadline)), strategy.bodyHandler());
+        } catch (TransientProbeException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (Exception e) {
+            // Malformed URI or similar: fails before any I/O is attempted
+            return CompletableFuture.completedFuture(ProbeResponse.NONE);
+        }
+
+        exchanges.add(exchange);
+        return exchange.handle((response, failure) -> {
+            exchanges.remove(exchange);
+            if (failure == null) {
+                httpClients.onResponse(host, isTls(task), response);
+                return responseOf(task, response);
             }
+            Throwable cause = unwrap(failure);
+            if (cause instanceof CancellationException cancelled) {
+                throw cancelled;
+            }
+            if (cause instanceof HttpTimeoutException timeout) {
+                throw timedOut(task, timeout);
+            }
+            throw new TransientProbeException("No response from " + task.url() + ": " + cause, cause);
         });
     }
-}
\ No newline at end of file
+
+    private static boolean isTls(LinkValidationTask task) {
+        return task.url().regionMatches(true, 0, "https:", 0, 6);
+    }
+
+    /** Budget left before {@code deadline}; fails the attempt if earlier requests of it spent it all. */
+    private Duration remaining(LinkValidationTask task, long deadline) {
+        long nanos = deadline - System.nanoTime();
+        if (nanos <= 0) {
+            throw timedOut(task, null);
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private ProbeTimeoutException timedOut(LinkValidationTask task, HttpTimeoutException cause) {
+        timeouts.increment();
+        return cause == null
+                ? new ProbeTimeoutException("Budget for " + task.url() + " spent before the request was sent", null)
+                : new ProbeTimeoutException("Timed out probing " + task.url(), cause);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+    }
+
+    /**
+     * Stops taking new probes and cancels the outstanding ones: async exchanges
+     * are aborted, blocked probe threads interrupted. Their tasks end without a
+     * result, so their stream entries stay pending and are reclaimed elsewhere.
+     */
+    @PreDestroy
+    public void cancelInFlight() {
+        stopping = true;
+        exchanges.forEach(exchange -> exchange.cancel(true));
+        blockingProbes.forEach(Thread::interrupt);
+    }
+
+    private static HttpRequest request(LinkValidationTask task, ProbeStrategy strategy, Duration timeout) {
+        HttpRequest.Builder request = strategy.apply(HttpRequest.newBuilder())
+                .uri(URI.create(task.url()))
+                .timeout(timeout);
+        if (task.etag() != null) {
+            request.header("If-None-Match", task.etag());
+        }
+        if (task.lastModified() != null) {
+            request.header("If-Modified-Since", task.lastModified());
+        }
+        return request.build();
+    }
+
+    private ProbeResponse responseOf(LinkValidationTask task, HttpResponse<?> response) {
+        int code = response.statusCode();
+        if (ProbeResponse.isTransient(code)) {
+            throw new TransientProbeException("HTTP " + code + " from " + response.uri());
+        }
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (code == ProbeResponse.NOT_MODIFIED) {
+            // Unchanged since the validators we sent; a 304 need not repeat them
+            notModified.increment();
+            return new ProbeResponse(code,
+                    etag != null ? etag : task.etag(),
+                    lastModified != null ? lastModified : task.lastModified());
+        }
+        return new ProbeResponse(code, etag, lastModified);
+    }
+}
@@ -0,0 +1,123 @@
+package com.vantage.api.worker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue (Vyukov's array queue).
+ * <p>
+ * Every slot carries a sequence number that tells producers and consumers
+ * whose turn it is: a producer may fill slot {@code pos & mask} when its
+ * sequence equals {@code pos}, a consumer may empty it when it equals
+ * {@code pos + 1}. Claiming a position is one CAS on the shared tail (or
+ * head) counter; the slot itself is published with a release store of the
+ * next sequence, so neither side ever blocks the other. A full queue rejects
+ * instead of waiting, leaving the overflow policy to the caller.
+ *
+ * @param <E> element type; {@code null} is not allowed
+ */
+public final class MpmcRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /** @param capacity rounded up to the next power of two */
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30, was " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.slots = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** @return false if the queue is full */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long lag = sequences.getAcquire(index) - pos;
+            if (lag == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.setPlain(index, element);
+                    sequences.setRelease(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (lag < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /** @return the oldest element, or null if the queue is empty */
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long lag = sequences.getAcquire(index) - (pos + 1);
+            if (lag == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E element = slots.getPlain(index);
+                    slots.setPlain(index, null);
+                    sequences.setRelease(index, pos + mask + 1);
+                    return element;
+                }
+                pos = head.get();
+            } else if (lag < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Polls up to {@code limit} elements into {@code sink}.
+     *
+     * @return how many were drained
+     */
+    public int drain(Consumer<? super E> sink, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            sink.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /** Elements currently queued; a snapshot that may be stale under contention. */
+    public int size() {
+        while (true) {
+            long before = head.get();
+            long end = tail.get();
+            if (head.get() == before) {
+                return (int) Math.max(0, Math.min(end - before, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
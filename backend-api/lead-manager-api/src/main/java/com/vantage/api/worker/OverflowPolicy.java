@@ -0,0 +1,30 @@
+package com.vantage.api.worker;
+
+/**
+ * What the {@link BoundedExecutor} does with a task once its queue is full,
+ * selected by {@code vantage.worker.overflow.policy}.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Run the task on the submitting thread. The stream poller stops reading
+     * until it is done, so the backlog stays in Redis instead of the heap.
+     * Pollers running as {@code @Scheduled} jobs hold a scheduler thread
+     * meanwhile; see {@link com.vantage.api.config.SchedulingConfig}.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Reject with {@link java.util.concurrent.RejectedExecutionException}; the
+     * consumer parks the task back in its queue's delayed-retry set without
+     * using up an attempt, and takes the next one.
+     */
+    SPILL,
+
+    /**
+     * Reject with {@link TaskShedException}; the consumer drops the task for
+     * now and lets the queue redeliver it in its own time (a stream entry is
+     * reclaimed once idle, a Postgres lease expires).
+     */
+    SHED
+}
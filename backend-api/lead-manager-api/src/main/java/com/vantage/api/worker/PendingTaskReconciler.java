@@ -0,0 +1,114 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.entity.UrlCheck;
+import com.vantage.api.repository.UrlCheckRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rebuilds the {@link InMemoryTaskQueue} from the database, which is the only
+ * durable record of outstanding work with {@code vantage.queue.engine=memory}.
+ * <p>
+ * On startup, every check still {@code PENDING} is queued again: tasks lost
+ * with the previous process, parked retries, and anything created while the
+ * node was down. The walk pages through {@code url_checks} by id, and waits
+ * for room rather than dropping when the buffer is full, so a large backlog
+ * is fed to the workers at the pace they drain it.
+ * <p>
+ * The same walk runs again after the queue has dropped tasks for lack of
+ * room. Checks that were still queued get a second task then; the probe
+ * coalescer and the idempotent result write absorb the duplicate.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "memory")
+public class PendingTaskReconciler {
+
+    static final UUID CURSOR_START_ID = new UUID(0, 0);
+
+    private static final Logger log = LoggerFactory.getLogger(PendingTaskReconciler.class);
+
+    private static final long FULL_QUEUE_BACKOFF_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final UrlCheckRepository urlCheckRepository;
+    private final InMemoryTaskQueue queue;
+    private final int pageSize;
+    private final Counter requeued;
+    private final ReentrantLock walkLock = new ReentrantLock();
+
+    public PendingTaskReconciler(UrlCheckRepository urlCheckRepository,
+            InMemoryTaskQueue queue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.queue.memory.reconcile-page-size:500}") int pageSize) {
+        this.urlCheckRepository = urlCheckRepository;
+        this.queue = queue;
+        this.pageSize = pageSize;
+        this.requeued = Counter.builder("link.queue.memory.reconciled")
+                .description("Pending checks re-queued from the database into the in-memory queue")
+                .register(meterRegistry);
+    }
+
+    /** Off the startup thread: a long walk must not hold up readiness. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("pending-reconcile").start(this::reconcile);
+    }
+
+    @Scheduled(fixedDelayString = "${vantage.queue.memory.overflow-check-interval:PT30S}")
+    public void reconcileAfterOverflow() {
+        if (queue.takeOverflow()) {
+            reconcile();
+        }
+    }
+
+    /** Queues every {@code PENDING} check. Returns how many were queued; 0 if a walk is already running. */
+    public int reconcile() {
+        if (!walkLock.tryLock()) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            UUID cursor = CURSOR_START_ID;
+            List<UrlCheck> page;
+            do {
+                page = urlCheckRepository.findPendingAfter(cursor, pageSize);
+                for (UrlCheck check : page) {
+                    offerWhenRoom(new LinkValidationTask(check.getId(), check.getCanonicalUrl()));
+                }
+                total += page.size();
+                requeued.increment(page.size());
+                if (!page.isEmpty()) {
+                    cursor = page.getLast().getId();
+                }
+            } while (page.size() == pageSize);
+            if (total > 0) {
+                log.info("Re-queued {} pending checks", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pending-check reconciliation stopped after {} checks: {}", total, e.getMessage());
+        } finally {
+            walkLock.unlock();
+        }
+        return total;
+    }
+
+    private void offerWhenRoom(LinkValidationTask task) {
+        while (!queue.offer(task)) {
+            LockSupport.parkNanos(FULL_QUEUE_BACKOFF_NANOS);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.vantage.api.worker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bridges the Postgres work queue to {@link LinkWorkerService}, the
+ * counterpart of {@link LinkStreamConsumer} for {@code vantage.queue.engine=postgres}.
+ * <p>
+ * Each poll first deletes the rows finished since the last poll (one
+ * statement), then claims due rows batch by batch while fewer than
+ * {@code maxClaimed} are outstanding, so no more work is leased than this
+ * node can start soon. A failed task keeps its lease and is claimed again
+ * once it expires, as a pending stream entry would be reclaimed.
+ * <p>
+ * When the bounded worker executor is full, a spilled task is re-queued as a
+ * new row due after {@code spillDelay} and its claim completed; a shed one
+ * keeps its lease like a failed one.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "postgres")
+public class PostgresQueueConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresQueueConsumer.class);
+
+    private final LinkWorkerService workerService;
+    private final PostgresTaskQueue queue;
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxClaimed;
+    private final Duration spillDelay;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Long> completed = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    public PostgresQueueConsumer(LinkWorkerService workerService,
+            PostgresTaskQueue queue,
+            @Qualifier("linkWorkerExecutor") Executor executor,
+            @Value("${vantage.queue.batch-size:50}") int batchSize,
+            @Value("${vantage.queue.postgres.max-claimed:${vantage.worker.max-in-flight:2000}}") int maxClaimed,
+            @Value("${vantage.worker.overflow.spill-delay:PT5S}") Duration spillDelay) {
+        this.workerService = workerService;
+        this.queue = queue;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxClaimed = maxClaimed;
+        this.spillDelay = spillDelay;
+    }
+
+    @Scheduled(fixedDelayString = "${vantage.queue.postgres.poll-interval:PT0.1S}")
+    public void poll() {
+        // Overlapping polls on one node would only contend for the same rows
+        if (!pollLock.tryLock()) {
+            return;
+        }
+        try {
+            flushCompleted();
+            int room;
+            while ((room = Math.min(batchSize, maxClaimed - claimed.get())) > 0) {
+                List<PostgresTaskQueue.Claim> batch = queue.claim(room);
+                batch.forEach(this::dispatch);
+                if (batch.size() < room) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Work-queue poll failed: {}", e.getMessage());
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /** Polls right after a bulk write commits instead of waiting for the next tick. */
+    @TransactionalEventListener
+    public void onOutboxWritten(LinkOutboxRelay.OutboxWritten event) {
+        Thread.ofVirtual().name("work-queue-poll").start(this::poll);
+    }
+
+    private void flushCompleted() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = completed.poll()) != null) {
+            ids.add(id);
+        }
+        try {
+            queue.complete(ids);
+        } catch (RuntimeException e) {
+            // Still leased to us; expired leases are only re-run, never lost
+            completed.addAll(ids);
+            throw e;
+        }
+    }
+
+    private void dispatch(PostgresTaskQueue.Claim claim) {
+        claimed.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    workerService.handleMessage(claim.task()).whenComplete((ignored, failure) -> {
+                        claimed.decrementAndGet();
+                        if (failure == null) {
+                            completed.add(claim.id());
+                        } else {
+                            leaveLeased(claim, failure);
+                        }
+                    });
+                } catch (Exception e) {
+                    claimed.decrementAndGet();
+                    leaveLeased(claim, e);
+                }
+            });
+        } catch (TaskShedException e) {
+            claimed.decrementAndGet();
+            leaveLeased(claim, e);
+        } catch (RejectedExecutionException e) {
+            claimed.decrementAndGet();
+            spill(claim);
+        }
+    }
+
+    private void spill(PostgresTaskQueue.Claim claim) {
+        try {
+            queue.publishAt(claim.task(), spillDelay);
+            completed.add(claim.id());
+        } catch (RuntimeException e) {
+            leaveLeased(claim, e);
+        }
+    }
+
+    // Left in place on purpose: the lease expires and the row is claimed again.
+    private void leaveLeased(PostgresTaskQueue.Claim claim, Throwable failure) {
+        log.warn("Validation of queue row {} failed, leaving it leased: {}", claim.id(), failure.getMessage());
+    }
+}
@@ -0,0 +1,119 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.LinkValidationTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Work queue inside Postgres, on the {@code outbox} table.
+ * <p>
+ * {@code LinkService} already writes an outbox row for every task in its own
+ * transaction, so with this engine nothing is published anywhere else: the
+ * row is the queue entry. Workers {@link #claim claim} due rows in batches
+ * with {@code FOR UPDATE SKIP LOCKED}, stamping a lease so concurrent workers
+ * skip them, and {@link #complete delete} them once the result is written.
+ * Rows of a worker that dies keep their lease until it expires and are then
+ * claimed again (at-least-once, like pending stream entries). A claim also
+ * reads the check's current cache validators, so the probe is conditional.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "postgres")
+public class PostgresTaskQueue implements LinkTaskQueue {
+
+    /** A claimed row: delete it by {@code id} once the task is done. */
+    public record Claim(long id, LinkValidationTask task) {
+    }
+
+    static final String INSERT_SQL =
+            "INSERT INTO outbox (url_check_id, url, attempt, available_at) VALUES (?, ?, ?, now() + ? * interval '1 millisecond')";
+    static final String CLAIM_SQL = """
+            WITH due AS (
+                SELECT id FROM outbox
+                WHERE available_at <= now() AND (leased_until IS NULL OR leased_until < now())
+                ORDER BY available_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE outbox o
+            SET leased_until = now() + ? * interval '1 millisecond', leased_by = ?
+            FROM due, url_checks c
+            WHERE o.id = due.id AND c.id = o.url_check_id
+            RETURNING o.id, o.url_check_id, o.url, o.attempt, o.available_at, c.etag, c.last_modified
+            """;
+    static final String COMPLETE_SQL = "DELETE FROM outbox WHERE id = ANY(?) AND leased_by = ?";
+    static final String BACKLOG_SQL = "SELECT count(*) FROM outbox WHERE available_at <= now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lease;
+    private final String workerName;
+
+    /**
+     * @param lease      how long a claim is held before another worker may take it over;
+     *                   must comfortably exceed the task budget
+     * @param workerName recorded on claimed rows so a worker only deletes its own claims
+     */
+    public PostgresTaskQueue(JdbcTemplate jdbcTemplate,
+            @Value("${vantage.queue.postgres.lease:PT5M}") Duration lease,
+            @Value("${vantage.queue.consumer-name:worker-${random.uuid}}") String workerName) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lease = lease;
+        this.workerName = workerName;
+    }
+
+    @Override
+    public void publish(LinkValidationTask task) {
+        publishAt(task, Duration.ZERO);
+    }
+
+    @Override
+    public void publishAll(List<LinkValidationTask> tasks) {
+        List<Object[]> args = new ArrayList<>(tasks.size());
+        for (LinkValidationTask task : tasks) {
+            args.add(new Object[]{task.id(), task.url(), task.attempt(), 0L});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    /** Queues {@code task} to become claimable once {@code delay} has passed. */
+    public void publishAt(LinkValidationTask task, Duration delay) {
+        jdbcTemplate.update(INSERT_SQL, task.id(), task.url(), task.attempt(), delay.toMillis());
+    }
+
+    /** Claims up to {@code limit} due rows under a fresh lease, oldest first. */
+    public List<Claim> claim(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new Claim(rs.getLong("id"), new LinkValidationTask(
+                        rs.getObject("url_check_id", UUID.class), rs.getString("url"), rs.getInt("attempt"), 0,
+                        rs.getTimestamp("available_at").getTime(), rs.getString("etag"), rs.getString("last_modified"))),
+                limit, lease.toMillis(), workerName);
+    }
+
+    /** Deletes finished rows, skipping any whose lease has since passed to another worker. */
+    public void complete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Long[] idArray = ids.toArray(Long[]::new);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(COMPLETE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", idArray));
+            ps.setString(2, workerName);
+            return ps;
+        });
+    }
+
+    @Override
+    public long backlog() {
+        Long count = jdbcTemplate.queryForObject(BACKLOG_SQL, Long.class);
+        return count == null ? 0 : count;
+    }
+}
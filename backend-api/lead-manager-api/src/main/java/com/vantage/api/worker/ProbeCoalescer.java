@@ -0,0 +1,66 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of probes for the same URL.
+ * <p>
+ * The first task for a normalized URL becomes the leader and runs the probe;
+ * tasks for the same URL that arrive while it is outstanding share its result
+ * instead of sending their own request. Outbound volume therefore scales with
+ * distinct URLs in flight, not with {@code external_links} rows.
+ */
+@Component
+public class ProbeCoalescer {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public ProbeCoalescer(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("link.validation.coalesced")
+                .description("Tasks answered by another task's in-flight probe of the same URL")
+                .register(meterRegistry);
+        Gauge.builder("link.validation.distinct_in_flight", inFlight, Map::size)
+                .description("Distinct URLs currently being probed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the outcome of the in-flight probe for {@code url}, starting one
+     * with {@code probe} if there is none. The supplier runs on the caller's
+     * thread and may block. Every caller must probe with the same result type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> probe(String url, Supplier<CompletableFuture<T>> probe) {
+        String key = UrlNormalizer.normalize(url);
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        // Leader: run the probe outside the map so a blocking probe never holds a map bin
+        shared.whenComplete((result, failure) -> inFlight.remove(key, shared));
+        try {
+            probe.get().whenComplete((result, failure) -> {
+                if (failure != null) {
+                    shared.completeExceptionally(failure);
+                } else {
+                    shared.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            shared.completeExceptionally(e);
+        }
+        return shared;
+    }
+}
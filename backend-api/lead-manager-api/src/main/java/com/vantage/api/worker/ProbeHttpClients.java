@@ -0,0 +1,259 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * The {@link HttpClient}s probes are sent with, and what they do with their
+ * connections.
+ * <p>
+ * With {@link Pooling#SHARED} every host goes through one client and one
+ * connection pool. With {@link Pooling#PER_HOST_GROUP} each {@code host_group}
+ * of {@link ProbeLatencyMetrics} gets its own client, so a group holding many
+ * slow connections cannot starve the others; each such client also runs its
+ * own selector thread, and groups are capped the same way as the metric tag.
+ * Clients prefer HTTP/2 by default: negotiated through ALPN over TLS, so one
+ * connection carries many concurrent probes to a host that supports it, and
+ * HTTP/1.1 keep-alive otherwise.
+ * <p>
+ * Per pool ({@code pool} tag: {@code shared} or the host group):
+ * <ul>
+ *   <li>{@code link.http.requests}: responses, tagged with the negotiated {@code version}</li>
+ *   <li>{@code link.http.tls.handshakes}: TLS connections opened, one handshake each</li>
+ *   <li>{@code link.http.connection.reuse}: share of HTTPS requests sent on an
+ *       already open connection</li>
+ *   <li>{@code link.http.streams_per_connection}: HTTPS requests per TLS connection,
+ *       i.e. streams for HTTP/2 and sequential requests for HTTP/1.1</li>
+ * </ul>
+ * The JDK client reports nothing about its connections; TLS ones are counted
+ * where it asks its {@link SSLContext} for an engine, cleartext ones are not
+ * visible at all and are left out of the reuse figures.
+ */
+@Component
+public class ProbeHttpClients {
+
+    public enum Pooling {
+        SHARED, PER_HOST_GROUP
+    }
+
+    private static final String SHARED_POOL = "shared";
+
+    private final class Pool {
+        final HttpClient client;
+        final Counter handshakes;
+        final Counter http1;
+        final Counter http2;
+        final LongAdder tlsRequests = new LongAdder();
+
+        Pool(String name) {
+            this.handshakes = Counter.builder("link.http.tls.handshakes")
+                    .description("TLS connections opened by the probe client, one handshake each")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            this.http1 = requests(name, "1.1");
+            this.http2 = requests(name, "2");
+            this.client = newBuilder.get().sslContext(counting(sslContext, handshakes)).build();
+            Gauge.builder("link.http.connection.reuse", this,
+                            p -> p.tlsRequests.sum() == 0 ? Double.NaN : Math.max(0, 1 - p.handshakes.count() / p.tlsRequests.sum()))
+                    .description("Share of HTTPS probes sent on an already open connection")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("link.http.streams_per_connection", this,
+                            p -> p.handshakes.count() == 0 ? Double.NaN : p.tlsRequests.sum() / p.handshakes.count())
+                    .description("HTTPS probes per TLS connection (HTTP/2 streams or HTTP/1.1 keep-alive requests)")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Pooling pooling;
+    private final UnaryOperator<String> hostGroup;
+    private final SSLContext sslContext;
+    private final Supplier<HttpClient.Builder> newBuilder;
+    private final HttpClient fixedClient;
+    private final DnsCache dnsCache;
+    // The clients' executor in virtual-thread mode, else null: the JDK default per client
+    private final ExecutorService executor;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param version   preferred protocol; HTTP/2 falls back to HTTP/1.1 per server
+     * @param hostGroup maps a host to its pool name under {@link Pooling#PER_HOST_GROUP}
+     * @param dnsCache  where probed hosts are marked for caching, or null to leave resolution alone
+     */
+    public ProbeHttpClients(MeterRegistry meterRegistry,
+            Pooling pooling,
+            HttpClient.Version version,
+            Duration connectTimeout,
+            WorkerThreadMode threadMode,
+            SSLContext sslContext,
+            UnaryOperator<String> hostGroup,
+            DnsCache dnsCache) {
+        this.meterRegistry = meterRegistry;
+        this.pooling = pooling;
+        this.hostGroup = hostGroup;
+        this.sslContext = sslContext;
+        this.fixedClient = null;
+        this.dnsCache = dnsCache;
+        // Response handling and async completions also run on virtual threads
+        this.executor = threadMode == WorkerThreadMode.VIRTUAL ? threadMode.newExecutor("link-http", 0) : null;
+        this.newBuilder = () -> {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(version)
+                    .connectTimeout(connectTimeout);
+            return executor == null ? builder : builder.executor(executor);
+        };
+    }
+
+    @Autowired
+    public ProbeHttpClients(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.http.pool:shared}") Pooling pooling,
+            @Value("${vantage.worker.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${vantage.worker.http.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${vantage.worker.threads:platform}") WorkerThreadMode threadMode,
+            ProbeLatencyMetrics latency,
+            DnsCache dnsCache) throws NoSuchAlgorithmException {
+        this(meterRegistry, pooling, version, connectTimeout, threadMode, SSLContext.getDefault(), latency::hostGroup,
+                dnsCache);
+    }
+
+    private ProbeHttpClients(HttpClient client) {
+        this.meterRegistry = null;
+        this.pooling = Pooling.SHARED;
+        this.hostGroup = UnaryOperator.identity();
+        this.sslContext = null;
+        this.newBuilder = null;
+        this.fixedClient = client;
+        this.dnsCache = null;
+        this.executor = null;
+    }
+
+    /** Sends every probe through {@code client} as is, without connection telemetry. */
+    public static ProbeHttpClients of(HttpClient client) {
+        return new ProbeHttpClients(client);
+    }
+
+    /** The client to probe {@code host} with; its name is resolved through the DNS cache from here on. */
+    public HttpClient clientFor(String host) {
+        if (dnsCache != null) {
+            // HttpClient resolves through InetAddress only; the cache serves the hosts marked here
+            dnsCache.markProbeHost(host);
+        }
+        return fixedClient != null ? fixedClient : pool(host).client;
+    }
+
+    /** Counts a response received from {@code host}; {@code tls} when it came over HTTPS. */
+    public void onResponse(String host, boolean tls, HttpResponse<?> response) {
+        if (fixedClient != null) {
+            return;
+        }
+        Pool pool = pool(host);
+        (response.version() == HttpClient.Version.HTTP_2 ? pool.http2 : pool.http1).increment();
+        if (tls) {
+            pool.tlsRequests.increment();
+        }
+    }
+
+    /** Stops the clients' virtual-thread executor; exchanges still completing finish first. */
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private Pool pool(String host) {
+        String name = pooling == Pooling.SHARED ? SHARED_POOL : hostGroup.apply(host);
+        return pools.computeIfAbsent(name, Pool::new);
+    }
+
+    private Counter requests(String pool, String version) {
+        return Counter.builder("link.http.requests")
+                .description("Probe responses, by negotiated HTTP version")
+                .tag("pool", pool)
+                .tag("version", version)
+                .register(meterRegistry);
+    }
+
+    /** {@code delegate}, counting every engine it hands out: one per new TLS connection. */
+    private static SSLContext counting(SSLContext delegate, Counter handshakes) {
+        SSLContextSpi spi = new SSLContextSpi() {
+            @Override
+            protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+                throw new KeyManagementException("Already initialized");
+            }
+
+            @Override
+            protected SSLSocketFactory engineGetSocketFactory() {
+                return delegate.getSocketFactory();
+            }
+
+            @Override
+            protected SSLServerSocketFactory engineGetServerSocketFactory() {
+                return delegate.getServerSocketFactory();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine() {
+                handshakes.increment();
+                return delegate.createSSLEngine();
+            }
+
+            @Override
+            protected SSLEngine engineCreateSSLEngine(String host, int port) {
+                handshakes.increment();
+                return delegate.createSSLEngine(host, port);
+            }
+
+            @Override
+            protected SSLSessionContext engineGetServerSessionContext() {
+                return delegate.getServerSessionContext();
+            }
+
+            @Override
+            protected SSLSessionContext engineGetClientSessionContext() {
+                return delegate.getClientSessionContext();
+            }
+
+            @Override
+            protected SSLParameters engineGetDefaultSSLParameters() {
+                return delegate.getDefaultSSLParameters();
+            }
+
+            @Override
+            protected SSLParameters engineGetSupportedSSLParameters() {
+                return delegate.getSupportedSSLParameters();
+            }
+        };
+        return new SSLContext(spi, delegate.getProvider(), delegate.getProtocol()) {
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of one validation, broken down by stage, so a slow p99 can be
+ * pinned on queueing, on our own limits, on the upstream or on the database:
+ * <ul>
+ *   <li>{@code link.validation.queue_wait}: from the task's enqueue time to worker pickup</li>
+ *   <li>{@code link.validation.admission}: pickup to request sent, i.e. waiting for the
+ *       in-flight limiter and the host's politeness slot</li>
+ *   <li>{@code link.validation.upstream}: request sent to response headers. Probes are
+ *       HEAD requests, so this is time to first byte, with DNS, connect and TLS included
+ *       whenever no pooled connection was available; the JDK client does not report those
+ *       phases separately</li>
+ *   <li>{@code link.validation.writeback}: result handed to {@link LinkResultWriter} to row committed</li>
+ *   <li>{@code link.validation.latency}: pickup to result persisted or retry parked</li>
+ * </ul>
+ * Every timer publishes a percentile histogram plus the configured SLO
+ * buckets, and is tagged with {@code host_group} and {@code outcome}.
+ * <p>
+ * Host groups are registrable domains ({@code cdn.example.co.uk} and
+ * {@code www.example.co.uk} both count as {@code example.co.uk}). Only the
+ * first {@code maxHostGroups} distinct ones get a tag value of their own;
+ * later ones are reported as {@code other}, so a crawl over millions of
+ * domains cannot blow up the series count. Outcomes are a fixed set.
+ */
+@Component
+public class ProbeLatencyMetrics {
+
+    public enum Stage {
+        QUEUE_WAIT("link.validation.queue_wait", "Time a task waited in the queue before a worker picked it up"),
+        ADMISSION("link.validation.admission", "Time from pickup until the probe was sent (in-flight limit, host politeness)"),
+        UPSTREAM("link.validation.upstream", "Time from sending the probe to the response headers"),
+        WRITEBACK("link.validation.writeback", "Time to persist a validation result"),
+        TOTAL("link.validation.latency", "Time from pickup until the validation outcome was persisted");
+
+        private final String meterName;
+        private final String description;
+
+        Stage(String meterName, String description) {
+            this.meterName = meterName;
+            this.description = description;
+        }
+    }
+
+    public static final String OTHER_HOSTS = "other";
+    public static final List<Duration> DEFAULT_SLOS = List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10),
+            Duration.ofSeconds(30));
+
+    private record Key(Stage stage, String hostGroup, String outcome) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxHostGroups;
+    private final Duration[] slos;
+    private final Map<String, String> hostGroups = new ConcurrentHashMap<>();
+    private final AtomicInteger distinctGroups = new AtomicInteger();
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxHostGroups distinct {@code host_group} tag values before the rest fold into {@code other}
+     * @param slos          latency buckets published alongside the percentile histogram
+     */
+    public ProbeLatencyMetrics(MeterRegistry meterRegistry, int maxHostGroups, List<Duration> slos) {
+        this.meterRegistry = meterRegistry;
+        this.maxHostGroups = maxHostGroups;
+        this.slos = slos.toArray(Duration[]::new);
+    }
+
+    public ProbeLatencyMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, 50, DEFAULT_SLOS);
+    }
+
+    @Autowired
+    public ProbeLatencyMetrics(MeterRegistry meterRegistry,
+            @Value("${vantage.metrics.max-host-groups:50}") int maxHostGroups,
+            @Value("${vantage.metrics.latency-slos:50ms,100ms,250ms,500ms,1s,2500ms,5s,10s,30s}") Duration[] slos) {
+        this(meterRegistry, maxHostGroups, List.of(slos));
+    }
+
+    public void record(Stage stage, String host, String outcome, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        timer(stage, hostGroup(host), outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** The {@code host_group} tag value for {@code host}. */
+    public String hostGroup(String host) {
+        if (host == null || host.isEmpty()) {
+            return OTHER_HOSTS;
+        }
+        String domain = registrableDomain(host.toLowerCase(Locale.ROOT));
+        String known = hostGroups.get(domain);
+        if (known != null) {
+            return known;
+        }
+        if (distinctGroups.get() >= maxHostGroups) {
+            // Not remembered: the map holds only domains with a slot, however many are probed
+            return OTHER_HOSTS;
+        }
+        // Claim one of the remaining slots; a null from the mapping stores nothing
+        String claimed = hostGroups.computeIfAbsent(domain, d -> distinctGroups.getAndIncrement() < maxHostGroups ? d : null);
+        return claimed != null ? claimed : OTHER_HOSTS;
+    }
+
+    /** Domains holding a {@code host_group} tag value of their own. */
+    public int knownHostGroups() {
+        return hostGroups.size();
+    }
+
+    private Timer timer(Stage stage, String hostGroup, String outcome) {
+        return timers.computeIfAbsent(new Key(stage, hostGroup, outcome), key -> Timer.builder(stage.meterName)
+                .description(stage.description)
+                .tag("host_group", key.hostGroup())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(slos)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry));
+    }
+
+    /**
+     * Last two labels of the host, or three when the second-level label looks
+     * like a country-code suffix ({@code co.uk}, {@code com.au}). A heuristic,
+     * not the public suffix list; IP literals are grouped as {@code ip}.
+     */
+    static String registrableDomain(String host) {
+        if (host.startsWith("[") || host.chars().allMatch(c -> c == '.' || Character.isDigit(c))) {
+            return "ip";
+        }
+        String[] labels = host.split("\\.");
+        if (labels.length <= 2) {
+            return host;
+        }
+        int keep = labels[labels.length - 1].length() == 2 && labels[labels.length - 2].length() <= 3 ? 3 : 2;
+        return String.join(".", List.of(labels).subList(Math.max(0, labels.length - keep), labels.length));
+    }
+}
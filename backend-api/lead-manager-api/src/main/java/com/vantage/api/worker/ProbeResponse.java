@@ -0,0 +1,37 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+
+/**
+ * What the upstream answered to a probe: the HTTP status and the cache
+ * validators to send on the next probe of the same URL.
+ *
+ * @param statusCode   HTTP status, or 0 if no request could be made (e.g. a malformed URL)
+ * @param etag         the {@code ETag} header; on a 304 without one, the ETag the probe sent
+ * @param lastModified the {@code Last-Modified} header; on a 304 without one, the value the probe sent
+ */
+public record ProbeResponse(int statusCode, String etag, String lastModified) {
+
+    /** No request was made: the URL itself is unusable. */
+    public static final ProbeResponse NONE = new ProbeResponse(0, null, null);
+
+    public static final int NOT_MODIFIED = 304;
+
+    /**
+     * Rate limited, or the origin unreachable behind a gateway: says nothing
+     * about the link, so the probe is retried rather than answered.
+     */
+    public static boolean isTransient(int statusCode) {
+        return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /** Whether there was an HTTP exchange whose metadata is worth persisting. */
+    public boolean received() {
+        return statusCode > 0;
+    }
+
+    /** 2xx and 3xx, including a 304 confirming the last response, are valid; anything else is broken. */
+    public LinkStatus linkStatus() {
+        return statusCode >= 200 && statusCode < 400 ? LinkStatus.VALIDATED : LinkStatus.BROKEN;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vantage.api.worker;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * How a link is probed, cheapest first. Many CDNs and file hosts refuse HEAD
+ * while GET works; each strategy names the codes that mean "this method is
+ * refused here", as opposed to "this link is broken", and the one to fall
+ * back to when it sees them. A strategy may also fall back on codes that say
+ * something about the one resource rather than the method, which are not
+ * refusals and teach nothing about the host.
+ */
+public enum ProbeStrategy {
+
+    /** {@code HEAD}: headers only. */
+    HEAD(Set.of(403, 405, 501), Set.of()),
+
+    /**
+     * {@code GET} for the first byte. A 416 means the resource is empty
+     * rather than missing, so a plain GET settles it.
+     */
+    RANGE_GET(Set.of(405, 501), Set.of(416)),
+
+    /** {@code GET}, reading the headers and aborting the body. */
+    GET(Set.of(), Set.of());
+
+    private final Set<Integer> refusedCodes;
+    private final Set<Integer> resourceCodes;
+
+    ProbeStrategy(Set<Integer> refusedCodes, Set<Integer> resourceCodes) {
+        this.refusedCodes = refusedCodes;
+        this.resourceCodes = resourceCodes;
+    }
+
+    /** The strategy to try next when this one got {@code statusCode}, or null if the response stands. */
+    public ProbeStrategy fallback(int statusCode) {
+        return refuses(statusCode) || resourceCodes.contains(statusCode) ? values()[ordinal() + 1] : null;
+    }
+
+    /** Whether {@code statusCode} means the host refuses this strategy's method, whatever the link. */
+    public boolean refuses(int statusCode) {
+        return refusedCodes.contains(statusCode);
+    }
+
+    HttpRequest.Builder apply(HttpRequest.Builder request) {
+        return switch (this) {
+            case HEAD -> request.method("HEAD", HttpRequest.BodyPublishers.noBody());
+            case RANGE_GET -> request.GET().header("Range", "bytes=0-0");
+            case GET -> request.GET();
+        };
+    }
+
+    HttpResponse.BodyHandler<Void> bodyHandler() {
+        return switch (this) {
+            case HEAD -> HttpResponse.BodyHandlers.discarding();
+            // One byte when the range is honoured; a server ignoring it would send the whole body
+            case RANGE_GET -> info -> info.statusCode() == 206
+                    ? HttpResponse.BodySubscribers.discarding()
+                    : new AbortingSubscriber();
+            case GET -> info -> new AbortingSubscriber();
+        };
+    }
+
+    /**
+     * Completes as soon as the headers are in and cancels the body, which
+     * closes the connection instead of downloading the file.
+     */
+    private static final class AbortingSubscriber implements HttpResponse.BodySubscriber<Void> {
+
+        @Override
+        public CompletionStage<Void> getBody() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
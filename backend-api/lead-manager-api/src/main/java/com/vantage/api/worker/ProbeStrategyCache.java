@@ -0,0 +1,114 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remembers, per host, which {@link ProbeStrategy} gets a real answer.
+ * <p>
+ * Every host starts on {@link ProbeStrategy#HEAD}. When a probe is refused
+ * (e.g. 405 to HEAD) the worker falls back to the next strategy within the
+ * same attempt, and the first fallback that validates the link is stored
+ * here, so later links on that host cost one request instead of two. Hosts
+ * that answer HEAD normally are never stored.
+ * <p>
+ * Only method refusals teach anything: a ranged GET answered 416 is about the
+ * one empty resource, so the host keeps the ranged GET it accepted rather
+ * than the plain GET that settled the link. A learned strategy the host
+ * starts refusing is forgotten, and the fallback that works relearned.
+ * <p>
+ * Shared by all worker threads and bounded to {@code maxHosts} entries,
+ * least recently used first out; a forgotten host just relearns its strategy.
+ * Exports {@code link.probe.strategy.hosts} and {@code link.probe.fallback}
+ * tagged with the strategy fallen back to.
+ */
+@Component
+public class ProbeStrategyCache {
+
+    private final Map<String, ProbeStrategy> strategies;
+    private final Map<ProbeStrategy, Counter> fallbacks = new EnumMap<>(ProbeStrategy.class);
+
+    /**
+     * @param maxHosts hosts whose learned strategy is kept
+     */
+    @Autowired
+    public ProbeStrategyCache(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.probe.strategy-cache-size:10000}") int maxHosts) {
+        // Access order: a lookup refreshes the host, eviction drops the least recently probed
+        this.strategies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProbeStrategy> eldest) {
+                return size() > maxHosts;
+            }
+        };
+        for (ProbeStrategy strategy : ProbeStrategy.values()) {
+            if (strategy != ProbeStrategy.HEAD) {
+                fallbacks.put(strategy, Counter.builder("link.probe.fallback")
+                        .description("Probes repeated with a heavier method after the host refused the lighter one")
+                        .tag("strategy", strategy.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry));
+            }
+        }
+        Gauge.builder("link.probe.strategy.hosts", this, ProbeStrategyCache::size)
+                .description("Hosts with a learned probe strategy other than HEAD")
+                .register(meterRegistry);
+    }
+
+    public ProbeStrategyCache(MeterRegistry meterRegistry) {
+        this(meterRegistry, 10_000);
+    }
+
+    /** The strategy to probe {@code host} with first. */
+    public ProbeStrategy strategyFor(String host) {
+        synchronized (strategies) {
+            return strategies.getOrDefault(host, ProbeStrategy.HEAD);
+        }
+    }
+
+    /**
+     * Reacts to {@code host} answering {@code tried} with {@code response}:
+     * returns the strategy to try next, or null when the response stands. A
+     * fallback that validated the link is remembered for the host.
+     */
+    public ProbeStrategy next(String host, ProbeStrategy tried, ProbeResponse response) {
+        ProbeStrategy fallback = tried.fallback(response.statusCode());
+        if (fallback != null) {
+            fallbacks.get(fallback).increment();
+            if (tried != ProbeStrategy.HEAD && host != null) {
+                synchronized (strategies) {
+                    if (tried.refuses(response.statusCode())) {
+                        strategies.remove(host, tried);
+                    } else {
+                        // The method was accepted; only this resource needs the next strategy
+                        strategies.put(host, tried);
+                    }
+                }
+            }
+            return fallback;
+        }
+        if (tried != ProbeStrategy.HEAD && host != null
+                && response.linkStatus() == LinkStatus.VALIDATED) {
+            synchronized (strategies) {
+                // Never overrides what a method refusal taught within this attempt
+                strategies.putIfAbsent(host, tried);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        synchronized (strategies) {
+            return strategies.size();
+        }
+    }
+}
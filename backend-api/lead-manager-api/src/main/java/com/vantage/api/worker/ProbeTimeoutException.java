@@ -0,0 +1,20 @@
+package com.vantage.api.worker;
+
+import java.net.http.HttpTimeoutException;
+
+/**
+ * A probe that ran out of its time budget, either waiting for the response or
+ * before the request could be sent. Retried like any transient failure, but
+ * recorded as TIMEOUT rather than BROKEN once retries run out.
+ */
+public class ProbeTimeoutException extends TransientProbeException {
+
+    public ProbeTimeoutException(String message, HttpTimeoutException cause) {
+        super(message, cause);
+    }
+
+    /** Whether the budget ran out before the request was sent, so the host was never waited on. */
+    public boolean beforeSend() {
+        return getCause() == null;
+    }
+}
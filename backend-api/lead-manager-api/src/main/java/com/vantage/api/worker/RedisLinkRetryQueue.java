@@ -0,0 +1,173 @@
+package com.vantage.api.worker;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis-backed {@link LinkRetryQueue}.
+ * <p>
+ * A retry is parked in a Redis sorted set scored by its due time (epoch
+ * millis), so waiting costs no worker thread. {@link #promoteDue()} moves due
+ * entries back onto the stream in one Lua script: ZREM and XADD happen
+ * atomically and only one node can move a given entry. Delays grow
+ * exponentially from {@code initialDelay} up to {@code maxDelay}, with jitter
+ * so tasks that failed together do not all retry together.
+ * <p>
+ * After {@code maxAttempts} the task goes to the dead-letter hash (keyed by
+ * task id) and the caller marks the link BROKEN. Dead letters can be listed
+ * and replayed through the admin endpoint.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.queue.engine", havingValue = "redis", matchIfMissing = true)
+public class RedisLinkRetryQueue implements LinkRetryQueue {
+
+    /** KEYS: retry zset, stream. ARGV: now millis, batch size, stream field name. */
+    private static final RedisScript<Long> PROMOTE_SCRIPT = RedisScript.of("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            for _, member in ipairs(due) do
+                redis.call('ZREM', KEYS[1], member)
+                redis.call('XADD', KEYS[2], '*', ARGV[3], member)
+            end
+            return #due
+            """, Long.class);
+
+    private static final RedisSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private static final Logger log = LoggerFactory.getLogger(RedisLinkRetryQueue.class);
+
+    private final RedisTemplate<String, LinkValidationTask> redisTemplate;
+    private final ZSetOperations<String, LinkValidationTask> retries;
+    private final HashOperations<String, String, DeadLetter> deadLetters;
+    private final LinkValidationQueue validationQueue;
+    private final String streamKey;
+    private final String retryKey;
+    private final String deadLetterKey;
+    private final int maxAttempts;
+    private final RetryBackoff backoff;
+    private final int promoteBatchSize;
+    private final Counter scheduled;
+    private final Counter deadLettered;
+    private final Counter deferred;
+
+    /**
+     * @param maxAttempts total probe attempts per task, the first one included
+     */
+    public RedisLinkRetryQueue(RedisTemplate<String, LinkValidationTask> redisTemplate,
+            LinkValidationQueue validationQueue,
+            MeterRegistry meterRegistry,
+            @Value("${vantage.queue.stream-key:link-validation}") String streamKey,
+            @Value("${vantage.retry.max-attempts:4}") int maxAttempts,
+            @Value("${vantage.retry.initial-delay:PT5S}") Duration initialDelay,
+            @Value("${vantage.retry.max-delay:PT5M}") Duration maxDelay,
+            @Value("${vantage.retry.promote-batch-size:100}") int promoteBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.retries = redisTemplate.opsForZSet();
+        this.deadLetters = redisTemplate.opsForHash();
+        this.validationQueue = validationQueue;
+        this.streamKey = streamKey;
+        this.retryKey = streamKey + ":retry";
+        this.deadLetterKey = streamKey + ":dead";
+        this.maxAttempts = maxAttempts;
+        this.backoff = new RetryBackoff(initialDelay, maxDelay);
+        this.promoteBatchSize = promoteBatchSize;
+        this.scheduled = Counter.builder("link.retry.scheduled")
+                .description("Transiently failed probes parked for a delayed retry")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("link.retry.dead_lettered")
+                .description("Tasks that exhausted their retries")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("link.retry.deferred")
+                .description("Tasks parked untried: their host's circuit was open or the worker executor was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean retryOrDeadLetter(LinkValidationTask task, String reason) {
+        if (task.attempt() + 1 < maxAttempts) {
+            long dueAt = System.currentTimeMillis() + backoff.delay(task.attempt()).toMillis();
+            retries.add(retryKey, task.nextAttempt().withEnqueuedAt(dueAt), dueAt);
+            scheduled.increment();
+            return true;
+        }
+        deadLetters.put(deadLetterKey, task.id().toString(),
+                new DeadLetter(task, reason, System.currentTimeMillis()));
+        deadLettered.increment();
+        log.warn("Giving up on {} after {} attempts: {}", task.url(), task.attempt() + 1, reason);
+        return false;
+    }
+
+    @Override
+    public void defer(LinkValidationTask task, Duration delay) {
+        long dueAt = System.currentTimeMillis() + delay.toMillis();
+        retries.add(retryKey, task.withEnqueuedAt(dueAt), dueAt);
+        deferred.increment();
+    }
+
+    /** Moves retries whose due time has passed back onto the stream. */
+    @Scheduled(fixedDelayString = "${vantage.retry.poll-interval:PT1S}")
+    public void promoteDue() {
+        try {
+            Long moved = redisTemplate.execute(PROMOTE_SCRIPT, RedisSerializer.string(), LONG_RESULT,
+                    List.of(retryKey, streamKey),
+                    Long.toString(System.currentTimeMillis()),
+                    Integer.toString(promoteBatchSize),
+                    LinkValidationQueue.TASK_FIELD);
+            if (moved != null && moved > 0) {
+                log.debug("Promoted {} due retries", moved);
+            }
+        } catch (Exception e) {
+            log.warn("Retry promotion failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<DeadLetter> deadLetters() {
+        return deadLetters.values(deadLetterKey).stream()
+                .sorted(Comparator.comparingLong(DeadLetter::failedAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public void replay(UUID id) {
+        DeadLetter deadLetter = deadLetters.get(deadLetterKey, id.toString());
+        // The HDEL result decides who replays when two requests race
+        if (deadLetter == null || deadLetters.delete(deadLetterKey, id.toString()) == 0) {
+            throw new ResourceNotFoundException("DeadLetter", id);
+        }
+        validationQueue.publish(new LinkValidationTask(deadLetter.task().id(), deadLetter.task().url()));
+    }
+
+    @Override
+    public int replayAll() {
+        int replayed = 0;
+        for (DeadLetter deadLetter : deadLetters()) {
+            try {
+                replay(deadLetter.task().id());
+                replayed++;
+            } catch (ResourceNotFoundException e) {
+                // Replayed concurrently by another request
+            }
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,20 @@
+package com.vantage.api.worker;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry delays: exponential from {@code initialDelay}, capped at
+ * {@code maxDelay}, with equal jitter so tasks that failed together do not
+ * all retry together.
+ */
+public record RetryBackoff(Duration initialDelay, Duration maxDelay) {
+
+    /** Delay before retry number {@code attempt + 1}. */
+    public Duration delay(int attempt) {
+        long ceiling = initialDelay.toMillis() << Math.min(attempt, 20);
+        long capped = Math.min(ceiling, maxDelay.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
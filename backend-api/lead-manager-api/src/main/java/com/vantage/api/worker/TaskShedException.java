@@ -0,0 +1,11 @@
+package com.vantage.api.worker;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/** Thrown by a {@link BoundedExecutor} under {@link OverflowPolicy#SHED}: the task was dropped, not parked. */
+public class TaskShedException extends RejectedExecutionException {
+
+    public TaskShedException(String message) {
+        super(message);
+    }
+}
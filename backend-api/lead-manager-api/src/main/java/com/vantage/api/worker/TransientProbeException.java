@@ -0,0 +1,17 @@
+package com.vantage.api.worker;
+
+/**
+ * A probe that got no usable answer: timeout, DNS or connection failure, or a
+ * 429 / gateway-error status. Such outcomes say nothing about the link itself,
+ * so the task is retried instead of marking the link BROKEN.
+ */
+public class TransientProbeException extends RuntimeException {
+
+    public TransientProbeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public TransientProbeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.vantage.api.worker;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+/**
+ * Canonical form of a link URL, used to recognise that two links point at the
+ * same resource: scheme and host lower-cased, default ports (80/443) and the
+ * fragment dropped, an empty path replaced by {@code /}. Path and query are kept
+ * as-is since they are case-sensitive on most servers.
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    /** Returns the canonical form, or the trimmed input if it is not a parseable absolute URL. */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            StringBuilder canonical = new StringBuilder(trimmed.length())
+                    .append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                canonical.append(uri.getRawUserInfo()).append('@');
+            }
+            canonical.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                canonical.append(':').append(port);
+            }
+            canonical.append(path);
+            if (uri.getRawQuery() != null) {
+                canonical.append('?').append(uri.getRawQuery());
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+}
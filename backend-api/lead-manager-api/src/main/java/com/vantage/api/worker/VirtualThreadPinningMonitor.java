@@ -0,0 +1,97 @@
+package com.vantage.api.worker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads that pinned their carrier while blocking.
+ * <p>
+ * On JDK 21 a virtual thread that blocks inside a {@code synchronized} block or
+ * under a native frame cannot unmount, so it holds one of the few carrier threads
+ * for the whole wait. This listens to the JFR {@code jdk.VirtualThreadPinned}
+ * event and, for every pin longer than the threshold, logs the offending frame and
+ * increments {@code worker.virtual.pinned} tagged with the path that caused it:
+ * {@code jdbc} when the stack runs through the Postgres driver or Hikari,
+ * {@code synchronized} otherwise.
+ * <p>
+ * Only active in virtual-thread mode. For ad-hoc debugging,
+ * {@code -Djdk.tracePinnedThreads=full} prints the same information to stdout.
+ */
+@Component
+@ConditionalOnProperty(name = "vantage.worker.threads", havingValue = "virtual")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final List<String> JDBC_PACKAGES = List.of("org.postgresql.", "com.zaxxer.hikari.", "java.sql.");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${vantage.worker.pinning-threshold:PT0.02S}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+
+        String path = frames.stream().anyMatch(VirtualThreadPinningMonitor::isJdbcFrame) ? "jdbc" : "synchronized";
+        String site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith("com.vantage."))
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .orElse("unknown");
+
+        Counter.builder("worker.virtual.pinned")
+                .description("Virtual threads that pinned their carrier while blocking")
+                .tag("path", path)
+                .tag("site", site)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Virtual thread pinned its carrier for {} ms via {} at {}",
+                event.getDuration().toMillis(), path, site);
+    }
+
+    private static boolean isJdbcFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDBC_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+}
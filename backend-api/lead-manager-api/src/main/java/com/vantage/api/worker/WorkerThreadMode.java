@@ -0,0 +1,29 @@
+package com.vantage.api.worker;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How the link worker runs its tasks, selected by {@code vantage.worker.threads}.
+ */
+public enum WorkerThreadMode {
+
+    /** Fixed pool of platform threads; concurrency is capped by the pool size. */
+    PLATFORM,
+
+    /**
+     * One virtual thread per task. Blocking calls (e.g. {@code HttpClient.send})
+     * park the virtual thread and free its carrier, unless the call is pinned
+     * by a {@code synchronized} block or a native frame.
+     */
+    VIRTUAL;
+
+    public ExecutorService newExecutor(String name, int platformPoolSize) {
+        return switch (this) {
+            case PLATFORM -> Executors.newFixedThreadPool(platformPoolSize,
+                    Thread.ofPlatform().name(name + "-", 0).factory());
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name(name + "-", 0).factory());
+        };
+    }
+}
@@ -0,0 +1,5 @@
+-- V10__add_url_checks_pending_index.sql
+-- With vantage.queue.engine=memory nothing queued survives a restart; on startup the queue is rebuilt
+-- from the checks that are still PENDING, walked in id order. Partial, so it only holds unfinished rows.
+
+CREATE INDEX idx_url_checks_pending ON url_checks (id) WHERE status = 'PENDING';
@@ -0,0 +1,5 @@
+-- V11__add_url_checks_pending_created_at_index.sql
+-- Queue lag is reported as the age of the oldest check still PENDING. Partial, so min(created_at)
+-- reads one index entry instead of scanning every unfinished row.
+
+CREATE INDEX idx_url_checks_pending_created_at ON url_checks (created_at) WHERE status = 'PENDING';
@@ -0,0 +1,10 @@
+-- V12__add_url_checks_validators.sql
+-- Each probe keeps the upstream's HTTP status and cache validators, and the next probe of the URL sends
+-- them back (If-None-Match / If-Modified-Since): a 304 confirms the link without a full response.
+-- content_changed_at records when the validators last changed, i.e. when the resource itself did.
+
+ALTER TABLE url_checks
+    ADD COLUMN http_status        INT,
+    ADD COLUMN etag               VARCHAR(1024),
+    ADD COLUMN last_modified      VARCHAR(64),
+    ADD COLUMN content_changed_at TIMESTAMP;
@@ -0,0 +1,65 @@
+-- V5__create_url_checks_table.sql
+-- Moves probe results out of external_links into url_checks, one row per canonical URL
+-- (scheme and host lower-cased, default ports and fragment dropped, empty path -> '/').
+-- Links that share a canonical URL share one check, so each distinct URL is probed and written once.
+
+CREATE TABLE url_checks (
+    id            UUID            NOT NULL DEFAULT gen_random_uuid(),
+    canonical_url VARCHAR(2048)   NOT NULL,
+    status        VARCHAR(20)     NOT NULL DEFAULT 'PENDING',
+    last_checked  TIMESTAMP,
+    created_at    TIMESTAMP       NOT NULL,
+    updated_at    TIMESTAMP       NOT NULL,
+
+    CONSTRAINT pk_url_checks PRIMARY KEY (id),
+    CONSTRAINT uq_url_checks_canonical_url UNIQUE (canonical_url),
+    CONSTRAINT chk_url_checks_status CHECK (status IN ('PENDING', 'VALIDATED', 'BROKEN'))
+);
+
+-- Backfill: mirrors UrlNormalizer for scheme://authority URLs; anything else is kept as trimmed text.
+-- (Unlike UrlNormalizer, user-info is lower-cased along with the host; such links are rare.)
+CREATE TEMPORARY TABLE link_canonical AS
+SELECT id,
+       status,
+       last_checked,
+       CASE
+           WHEN m IS NULL THEN btrim(url)
+           ELSE lower(m[1]) || '://'
+                || regexp_replace(lower(m[2]),
+                                  CASE lower(m[1]) WHEN 'http' THEN ':80$' WHEN 'https' THEN ':443$' ELSE '$^' END,
+                                  '')
+                || coalesce(nullif(m[3], ''), '/')
+                || coalesce(m[4], '')
+       END AS canonical_url
+FROM (SELECT id, status, last_checked, url,
+             regexp_match(btrim(url), '^([A-Za-z][A-Za-z0-9+.-]*)://([^/?#]+)([^?#]*)(\?[^#]*)?') AS m
+      FROM external_links) parsed;
+
+-- Latest known result wins when several links collapse onto one check
+INSERT INTO url_checks (canonical_url, status, last_checked, created_at, updated_at)
+SELECT canonical_url,
+       (array_agg(status ORDER BY last_checked DESC NULLS LAST))[1],
+       max(last_checked),
+       now(),
+       now()
+FROM link_canonical
+GROUP BY canonical_url;
+
+ALTER TABLE external_links ADD COLUMN url_check_id UUID;
+
+UPDATE external_links l
+SET url_check_id = c.id
+FROM link_canonical lc
+JOIN url_checks c ON c.canonical_url = lc.canonical_url
+WHERE lc.id = l.id;
+
+DROP TABLE link_canonical;
+
+ALTER TABLE external_links
+    ALTER COLUMN url_check_id SET NOT NULL,
+    ADD CONSTRAINT fk_external_links_url_check FOREIGN KEY (url_check_id) REFERENCES url_checks (id),
+    DROP CONSTRAINT chk_external_links_status,
+    DROP COLUMN status,
+    DROP COLUMN last_checked;
+
+CREATE INDEX idx_external_links_url_check_id ON external_links (url_check_id);
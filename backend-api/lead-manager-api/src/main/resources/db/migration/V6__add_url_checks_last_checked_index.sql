@@ -0,0 +1,5 @@
+-- V6__add_url_checks_last_checked_index.sql
+-- Supports the revalidation scheduler's keyset walk over url_checks in (last_checked, id) order.
+-- Never-checked rows (NULL last_checked) are still queued from their first enqueue and are excluded.
+
+CREATE INDEX idx_url_checks_last_checked ON url_checks (last_checked, id) WHERE last_checked IS NOT NULL;
@@ -0,0 +1,6 @@
+-- V7__add_timeout_link_status.sql
+-- Probes that exhaust their time budget on every attempt are recorded as TIMEOUT instead of BROKEN.
+
+ALTER TABLE url_checks DROP CONSTRAINT chk_url_checks_status;
+ALTER TABLE url_checks
+    ADD CONSTRAINT chk_url_checks_status CHECK (status IN ('PENDING', 'VALIDATED', 'BROKEN', 'TIMEOUT'));
@@ -0,0 +1,11 @@
+-- V8__create_outbox_table.sql
+-- Validation tasks are written here in the same transaction as the link, then relayed to the Redis stream
+-- after commit. A task can therefore never reach a worker before its row is visible, or outlive a rollback.
+
+CREATE TABLE outbox
+(
+    id           BIGSERIAL PRIMARY KEY,
+    url_check_id UUID          NOT NULL REFERENCES url_checks (id) ON DELETE CASCADE,
+    url          VARCHAR(2048) NOT NULL,
+    created_at   TIMESTAMP     NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,22 @@
+-- V9__add_outbox_queue_columns.sql
+-- With vantage.queue.engine=postgres the outbox is the work queue itself: workers claim rows with
+-- FOR UPDATE SKIP LOCKED and hold them under a lease until the result is written. A crashed worker's
+-- lease simply expires. Retries are rows whose available_at lies in the future.
+
+ALTER TABLE outbox
+    ADD COLUMN attempt      INT          NOT NULL DEFAULT 0,
+    ADD COLUMN available_at TIMESTAMP    NOT NULL DEFAULT NOW(),
+    ADD COLUMN leased_until TIMESTAMP,
+    ADD COLUMN leased_by    VARCHAR(255);
+
+CREATE INDEX idx_outbox_available_at ON outbox (available_at, id);
+
+-- Tasks that exhausted their retries (postgres engine; the redis engine keeps them in a hash)
+CREATE TABLE dead_letters
+(
+    url_check_id UUID          NOT NULL PRIMARY KEY REFERENCES url_checks (id) ON DELETE CASCADE,
+    url          VARCHAR(2048) NOT NULL,
+    attempt      INT           NOT NULL,
+    reason       TEXT,
+    failed_at    TIMESTAMP     NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,228 @@
+package com.vantage.api.benchmark;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.AdaptiveLimiter;
+import com.vantage.api.worker.HostCircuitBreaker;
+import com.vantage.api.worker.HostScheduler;
+import com.vantage.api.worker.LinkResultWriter;
+import com.vantage.api.worker.LinkRetryQueue;
+import com.vantage.api.worker.LinkValidators;
+import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.ProbeCoalescer;
+import com.vantage.api.worker.ProbeHttpClients;
+import com.vantage.api.worker.ProbeLatencyMetrics;
+import com.vantage.api.worker.ProbeStrategyCache;
+import com.vantage.api.worker.WorkerThreadMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TLS handshakes saved by connection reuse during a revalidation sweep.
+ * <p>
+ * Each invocation revalidates {@value #BATCH} links through
+ * {@link LinkWorkerService}'s async path and {@link ProbeHttpClients} against
+ * a local HTTPS stub with a throwaway self-signed certificate (made with the
+ * JDK's {@code keytool}). With {@code keepAlive=false} the stub closes every
+ * connection, so each probe pays a full TLS handshake; with {@code true} the
+ * pool reuses them. The stub speaks HTTP/1.1 only, so the client's HTTP/2
+ * preference falls back through ALPN. The score is seconds per sweep; the
+ * {@code handshakes} and {@code links} secondary results give handshakes per
+ * link, {@code failures} the probes that got no response in time. The DB write-back is stubbed out.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=ConnectionReuseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ConnectionReuseBenchmark {
+
+    static final int BATCH = 10_000;
+    static final char[] PASSWORD = "benchmark".toCharArray();
+
+    @Param({"true", "false"})
+    public boolean keepAlive;
+
+    @Param({"SHARED", "PER_HOST_GROUP"})
+    public ProbeHttpClients.Pooling pooling;
+
+    @Param({"200"})
+    public int maxInFlight;
+
+    /** Handshakes and links of the current iteration, reported next to the score. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+        public long handshakes;
+        public long links;
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            handshakes = 0;
+            links = 0;
+            failures = 0;
+        }
+    }
+
+    private HttpsServer stub;
+    private SimpleMeterRegistry registry;
+    private LinkResultWriter resultWriter;
+    private LinkWorkerService worker;
+    private String url;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyStore keyStore = selfSignedKeyStore();
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(keyStore, PASSWORD);
+        serverContext.init(keys.getKeyManagers(), null, null);
+        // The client trusts exactly the stub's certificate
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trust.init(keyStore);
+        clientContext.init(null, trust.getTrustManagers(), null);
+
+        stub = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        stub.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/", exchange -> {
+            if (!keepAlive) {
+                exchange.getResponseHeaders().set("Connection", "close");
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+        url = "https://localhost:" + stub.getAddress().getPort() + "/file";
+
+        registry = new SimpleMeterRegistry();
+        resultWriter = new LinkResultWriter(new WorkerThreadingBenchmark.NoOpJdbcTemplate(), registry, 200);
+        ProbeLatencyMetrics latency = new ProbeLatencyMetrics(registry);
+        ProbeHttpClients clients = new ProbeHttpClients(registry, pooling, HttpClient.Version.HTTP_2,
+                Duration.ofSeconds(5), WorkerThreadMode.PLATFORM, clientContext, latency::hostGroup, null);
+        // Politeness limits and the circuit breaker off: every probe targets the same stub host, and a burst of
+        // handshakes must not trip it as slow calls
+        HostScheduler hostScheduler = new HostScheduler(registry, Integer.MAX_VALUE, Duration.ZERO, Integer.MAX_VALUE);
+        worker = new LinkWorkerService(resultWriter, hostScheduler,
+                new HostCircuitBreaker(registry, Duration.ofSeconds(10), 10, Integer.MAX_VALUE, 0.5, Duration.ofSeconds(2),
+                        0.8, Duration.ofSeconds(30)),
+                new ProbeCoalescer(registry),
+                new NoRetries(), clients, registry, true, AdaptiveLimiter.fixed(maxInFlight, registry), latency,
+                new ProbeStrategyCache(registry), LinkValidators.none(), Duration.ofSeconds(30));
+    }
+
+    private static KeyStore selfSignedKeyStore() throws Exception {
+        Path file = Files.createTempFile("connection-reuse", ".p12");
+        Files.delete(file);
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-validity", "1",
+                "-storetype", "PKCS12", "-keystore", file.toString(),
+                "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD))
+                .inheritIO()
+                .start();
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed with exit code " + keytool.exitValue());
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            keyStore.load(in, PASSWORD);
+        }
+        Files.delete(file);
+        return keyStore;
+    }
+
+    @TearDown
+    public void tearDown() {
+        worker.cancelInFlight();
+        stub.stop(0);
+    }
+
+    @Benchmark
+    public void revalidate(Connections connections) throws Exception {
+        double before = total("link.http.tls.handshakes");
+        double failedBefore = failures();
+        List<CompletableFuture<Void>> handled = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            // Distinct URLs so probes are not coalesced
+            handled.add(worker.handleMessage(new LinkValidationTask(UUID.randomUUID(), url + "?n=" + i)));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(handled.toArray(CompletableFuture[]::new));
+        while (!all.isDone()) {
+            // Stands in for the writer's scheduled flush of a partial batch
+            resultWriter.flush();
+            try {
+                all.get(50, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Not all written yet
+            }
+        }
+        all.join();
+        connections.handshakes += (long) (total("link.http.tls.handshakes") - before);
+        connections.failures += (long) (failures() - failedBefore);
+        connections.links += BATCH;
+    }
+
+    private double total(String counter) {
+        return registry.find(counter).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double failures() {
+        return total("link.validation.completed")
+                - registry.counter("link.validation.completed", "outcome", "validated").count();
+    }
+
+    /** No retries: a probe that fails is written BROKEN or TIMEOUT at once and counted in failures. */
+    static final class NoRetries implements LinkRetryQueue {
+        @Override
+        public boolean retryOrDeadLetter(LinkValidationTask task, String reason) {
+            return false;
+        }
+
+        @Override
+        public void defer(LinkValidationTask task, Duration delay) {
+            throw new UnsupportedOperationException("Circuit breaker is off");
+        }
+
+        @Override
+        public List<DeadLetter> deadLetters() {
+            return List.of();
+        }
+
+        @Override
+        public void replay(UUID id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int replayAll() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.vantage.api.benchmark;
+
+import com.vantage.api.config.RedisConfig;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.InMemoryTaskQueue;
+import com.vantage.api.worker.LinkValidationQueue;
+import com.vantage.api.worker.PostgresTaskQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue-engine throughput: Redis Stream vs the Postgres SKIP LOCKED queue vs
+ * the in-process ring buffer.
+ * <p>
+ * Each invocation enqueues {@value #BATCH} tasks and drains them again in
+ * batches of {@code batchSize}, the way the consumers do: XREADGROUP then
+ * XACK + XDEL per entry for Redis, claim-with-lease then one DELETE per batch
+ * for Postgres, offer then batched drain for memory. No probing happens, so
+ * only the queue round trips are measured. Reported score is tasks per second
+ * through the queue.
+ * <p>
+ * REDIS and POSTGRES need the local Postgres (migrated {@code lead_db}) and
+ * Redis from the compose setup; MEMORY needs neither. Override the connections
+ * with {@code -Dbench.jdbc.url}, {@code -Dbench.jdbc.user},
+ * {@code -Dbench.jdbc.password}, {@code -Dbench.redis.host}, {@code -Dbench.redis.port}.
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=QueueEngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class QueueEngineBenchmark {
+
+    static final int BATCH = 1000;
+    static final String STREAM_KEY = "link-validation-bench";
+    static final String BENCH_URL = "https://bench.invalid/queue-engine";
+
+    public enum Engine {
+        REDIS, POSTGRES, MEMORY
+    }
+
+    @Param({"REDIS", "POSTGRES", "MEMORY"})
+    public Engine engine;
+
+    @Param({"50"})
+    public int batchSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PostgresTaskQueue postgresQueue;
+    private LettuceConnectionFactory redisFactory;
+    private LinkValidationQueue redisQueue;
+    private RedisTemplate<String, LinkValidationTask> redisTemplate;
+    private StreamOperations<String, String, LinkValidationTask> streamOps;
+    private InMemoryTaskQueue memoryQueue;
+    private List<LinkValidationTask> tasks;
+
+    @Setup
+    public void setUp() {
+        if (engine == Engine.MEMORY) {
+            memoryQueue = new InMemoryTaskQueue(BATCH, new SimpleMeterRegistry());
+            tasks = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                tasks.add(new LinkValidationTask(UUID.randomUUID(), BENCH_URL));
+            }
+            return;
+        }
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/lead_db?reWriteBatchedInserts=true"),
+                System.getProperty("bench.jdbc.user", "dev_user"),
+                System.getProperty("bench.jdbc.password", "dev_password"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Outbox rows reference a url check
+        jdbcTemplate.update("""
+                INSERT INTO url_checks (canonical_url, status, created_at, updated_at)
+                VALUES (?, 'PENDING', now(), now()) ON CONFLICT (canonical_url) DO NOTHING
+                """, BENCH_URL);
+        UUID checkId = jdbcTemplate.queryForObject(
+                "SELECT id FROM url_checks WHERE canonical_url = ?", UUID.class, BENCH_URL);
+        tasks = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            tasks.add(new LinkValidationTask(checkId, BENCH_URL));
+        }
+
+        if (engine == Engine.POSTGRES) {
+            postgresQueue = new PostgresTaskQueue(jdbcTemplate, Duration.ofMinutes(5), "bench-worker");
+        } else {
+            redisFactory = new LettuceConnectionFactory(System.getProperty("bench.redis.host", "localhost"),
+                    Integer.getInteger("bench.redis.port", 6379));
+            redisFactory.afterPropertiesSet();
+            redisFactory.start();
+            redisTemplate = new RedisConfig().redisTemplate(redisFactory);
+            redisTemplate.afterPropertiesSet();
+            redisQueue = new LinkValidationQueue(redisTemplate, STREAM_KEY, "bench-workers", "bench-worker");
+            redisQueue.ensureGroup();
+            streamOps = redisTemplate.opsForStream();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataSource == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM url_checks WHERE canonical_url = ?", BENCH_URL); // cascades to outbox
+        dataSource.destroy();
+        if (redisFactory != null) {
+            redisTemplate.delete(STREAM_KEY);
+            redisFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int enqueueAndDrain() {
+        return switch (engine) {
+            case REDIS -> throughRedis();
+            case POSTGRES -> throughPostgres();
+            case MEMORY -> throughMemory();
+        };
+    }
+
+    private int throughMemory() {
+        memoryQueue.publishAll(tasks);
+        int drained = 0;
+        while (drained < BATCH) {
+            drained += memoryQueue.drain(task -> { }, batchSize);
+        }
+        return drained;
+    }
+
+    private int throughPostgres() {
+        postgresQueue.publishAll(tasks);
+        int drained = 0;
+        while (drained < BATCH) {
+            List<PostgresTaskQueue.Claim> claims = postgresQueue.claim(batchSize);
+            postgresQueue.complete(claims.stream().map(PostgresTaskQueue.Claim::id).toList());
+            drained += claims.size();
+        }
+        return drained;
+    }
+
+    private int throughRedis() {
+        redisQueue.publishAll(tasks);
+        int drained = 0;
+        while (drained < BATCH) {
+            List<MapRecord<String, String, LinkValidationTask>> records = streamOps.read(redisQueue.consumer(),
+                    StreamReadOptions.empty().count(batchSize), redisQueue.readOffset());
+            if (records == null) {
+                continue;
+            }
+            records.forEach(record -> redisQueue.acknowledge(record.getId()));
+            drained += records.size();
+        }
+        return drained;
+    }
+}
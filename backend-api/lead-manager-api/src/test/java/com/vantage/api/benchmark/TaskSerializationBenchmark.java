@@ -0,0 +1,61 @@
+package com.vantage.api.benchmark;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkTaskCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue payload encoding: the JSON serializer the Redis template used to
+ * have vs {@link LinkTaskCodec}.
+ * <p>
+ * {@code encode} and {@code decode} time one task through each format; the
+ * {@code gc} profiler the benchmark profile enables reports allocation per
+ * call as {@code gc.alloc.rate.norm}. Bytes on the wire do not vary between
+ * calls and are pinned by {@code LinkTaskCodecTest} instead.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=TaskSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    public enum Format {
+        JSON, BINARY
+    }
+
+    @Param({"JSON", "BINARY"})
+    public Format format;
+
+    // A typical shared-deck link: canonical, with a path and query
+    @Param({"https://drive.google.com/file/d/1aBcDeFgHiJkLmNoPqRsTuVwXyZ012345/view?usp=sharing"})
+    public String url;
+
+    private RedisSerializer<Object> serializer;
+    private LinkValidationTask task;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = format == Format.JSON ? RedisSerializer.json() : new LinkTaskCodec();
+        task = new LinkValidationTask(UUID.randomUUID(), url, 1, 30_000);
+        encoded = serializer.serialize(task);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(task);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+}
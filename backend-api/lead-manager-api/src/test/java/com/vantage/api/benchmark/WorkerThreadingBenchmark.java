@@ -0,0 +1,118 @@
+package com.vantage.api.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.HostCircuitBreaker;
+import com.vantage.api.worker.HostScheduler;
+import com.vantage.api.worker.LinkResultWriter;
+import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.ProbeCoalescer;
+import com.vantage.api.worker.WorkerThreadMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking-probe throughput of the platform pool vs virtual threads.
+ * <p>
+ * Each invocation pushes {@value #BATCH} links through {@link LinkWorkerService}'s
+ * blocking {@code HttpClient.send} path against a local stub that answers every
+ * HEAD after {@code stubDelayMillis}. The DB write-back is stubbed out so only
+ * thread scheduling is measured. Reported score is probes per second.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=WorkerThreadingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class WorkerThreadingBenchmark {
+
+    static final int BATCH = 1000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public WorkerThreadMode mode;
+
+    @Param({"50"})
+    public int stubDelayMillis;
+
+    @Param({"100"})
+    public int platformPoolSize;
+
+    private HttpServer stub;
+    private ExecutorService workerExecutor;
+    private LinkResultWriter resultWriter;
+    private LinkWorkerService worker;
+    private String url;
+
+    @Setup
+    public void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/", exchange -> {
+            try {
+                Thread.sleep(stubDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+        url = "http://127.0.0.1:" + stub.getAddress().getPort() + "/file";
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        resultWriter = new LinkResultWriter(new NoOpJdbcTemplate(), registry, 200);
+        // Politeness limits off: every probe targets the same stub host
+        HostScheduler hostScheduler = new HostScheduler(registry, Integer.MAX_VALUE, Duration.ZERO, Integer.MAX_VALUE);
+        worker = new LinkWorkerService(resultWriter, hostScheduler,
+                new HostCircuitBreaker(registry, Duration.ofSeconds(10), 10, 20, 0.5, Duration.ofSeconds(2), 0.8,
+                        Duration.ofSeconds(30)),
+                new ProbeCoalescer(registry),
+                null, HttpClient.newHttpClient(), registry, false, Integer.MAX_VALUE, // stub never fails: no retries
+                Duration.ofSeconds(30));
+        workerExecutor = mode.newExecutor("bench-worker", platformPoolSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workerExecutor.shutdownNow();
+        stub.stop(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void blockingProbes() throws Exception {
+        List<Future<?>> submitted = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            // Distinct URLs so probes are not coalesced
+            LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), url + "?n=" + i);
+            submitted.add(workerExecutor.submit(() -> worker.handleMessage(task)));
+        }
+        for (Future<?> future : submitted) {
+            future.get();
+        }
+        resultWriter.flush();
+    }
+
+    /** Accepts write-back batches without a database. */
+    static final class NoOpJdbcTemplate extends JdbcTemplate {
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            return new int[batchArgs.size()];
+        }
+    }
+}
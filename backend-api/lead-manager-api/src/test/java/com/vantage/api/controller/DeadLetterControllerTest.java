@@ -0,0 +1,69 @@
+package com.vantage.api.controller;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import com.vantage.api.worker.LinkRetryQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DeadLetterController.class)
+public class DeadLetterControllerTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private LinkRetryQueue retryQueue;
+
+        @Test
+        void getAll_returns200WithList() throws Exception {
+                LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://down.com/", 3);
+                when(retryQueue.deadLetters()).thenReturn(List.of(new DeadLetter(task, "No response", 1_700_000_000_000L)));
+
+                mockMvc.perform(get("/api/admin/dead-letters"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].task.url").value("https://down.com/"))
+                                .andExpect(jsonPath("$[0].task.attempt").value(3))
+                                .andExpect(jsonPath("$[0].reason").value("No response"));
+        }
+
+        @Test
+        void replay_found_returns202() throws Exception {
+                UUID id = UUID.randomUUID();
+
+                mockMvc.perform(post("/api/admin/dead-letters/{id}/replay", id))
+                                .andExpect(status().isAccepted());
+
+                verify(retryQueue).replay(id);
+        }
+
+        @Test
+        void replay_notFound_returns404() throws Exception {
+                UUID id = UUID.randomUUID();
+                doThrow(new ResourceNotFoundException("DeadLetter", id)).when(retryQueue).replay(id);
+
+                mockMvc.perform(post("/api/admin/dead-letters/{id}/replay", id))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void replayAll_returnsCount() throws Exception {
+                when(retryQueue.replayAll()).thenReturn(2);
+
+                mockMvc.perform(post("/api/admin/dead-letters/replay"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.replayed").value(2));
+        }
+}
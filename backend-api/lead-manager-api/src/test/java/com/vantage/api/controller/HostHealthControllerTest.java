@@ -0,0 +1,57 @@
+package com.vantage.api.controller;
+
+import com.vantage.api.dto.HostHealth;
+import com.vantage.api.worker.HostCircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HostHealthController.class)
+public class HostHealthControllerTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private HostCircuitBreaker circuitBreaker;
+
+        @Test
+        void getAll_returns200WithList() throws Exception {
+                when(circuitBreaker.snapshot()).thenReturn(List.of(
+                                new HostHealth("drive.google.com", "OPEN", 40, 0.75, 0.1, 4200.0)));
+
+                mockMvc.perform(get("/api/admin/hosts"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(1))
+                                .andExpect(jsonPath("$[0].host").value("drive.google.com"))
+                                .andExpect(jsonPath("$[0].circuit").value("OPEN"))
+                                .andExpect(jsonPath("$[0].failureRate").value(0.75));
+        }
+
+        @Test
+        void getByHost_lowerCasesLookup() throws Exception {
+                when(circuitBreaker.health("frame.io")).thenReturn(
+                                Optional.of(new HostHealth("frame.io", "CLOSED", 3, 0, 0, 120.0)));
+
+                mockMvc.perform(get("/api/admin/hosts/{host}", "Frame.io"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.circuit").value("CLOSED"));
+        }
+
+        @Test
+        void getByHost_unknown_returns404() throws Exception {
+                when(circuitBreaker.health("unknown.com")).thenReturn(Optional.empty());
+
+                mockMvc.perform(get("/api/admin/hosts/{host}", "unknown.com"))
+                                .andExpect(status().isNotFound());
+        }
+}
@@ -1,9 +1,13 @@
 package com.vantage.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vantage.api.dto.BulkLinkResponse;
+import com.vantage.api.dto.BulkLinkResult;
 import com.vantage.api.dto.LinkRequest;
 import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.entity.UrlCheck;
 import com.vantage.api.exception.ResourceNotFoundException;
+import com.vantage.api.service.LinkBulkService;
 import com.vantage.api.service.LinkService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,8 +36,18 @@ public class LinkControllerTest {
         @MockitoBean
         private LinkService linkService;
 
+        @MockitoBean
+        private LinkBulkService linkBulkService;
+
         private final ObjectMapper objectMapper = new ObjectMapper();
 
+        private static UrlCheck checkWithStatus(ExternalLink.LinkStatus status) {
+                UrlCheck check = new UrlCheck();
+                check.setId(UUID.randomUUID());
+                check.setStatus(status);
+                return check;
+        }
+
         // --- POST /api/links ---
 
         @Test
@@ -42,7 +56,7 @@ public class LinkControllerTest {
                 saved.setId(UUID.randomUUID());
                 saved.setUrl("https://google.com");
                 saved.setName("Google");
-                saved.setStatus(ExternalLink.LinkStatus.PENDING);
+                saved.setUrlCheck(checkWithStatus(ExternalLink.LinkStatus.PENDING));
 
                 when(linkService.createValidationTask(anyString(), any(), anyString()))
                                 .thenReturn(saved);
@@ -81,6 +95,62 @@ public class LinkControllerTest {
                                 .andExpect(jsonPath("$.status").value(400));
         }
 
+        // --- POST /api/links/bulk ---
+
+        @Test
+        void postBulk_jsonArray_allCreated_returns202() throws Exception {
+                UUID id = UUID.randomUUID();
+                when(linkBulkService.createAll(anyList())).thenReturn(BulkLinkResponse.of(
+                                List.of(BulkLinkResult.created(0, "https://a.com", id))));
+
+                String body = objectMapper.writeValueAsString(
+                                List.of(new LinkRequest("https://a.com", null, "A")));
+
+                mockMvc.perform(post("/api/links/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.created").value(1))
+                                .andExpect(jsonPath("$.results[0].id").value(id.toString()));
+        }
+
+        @Test
+        void postBulk_ndjsonWithMalformedLine_returns207() throws Exception {
+                when(linkBulkService.maxItems()).thenReturn(100);
+                when(linkBulkService.createAll(anyList())).thenReturn(BulkLinkResponse.of(List.of(
+                                BulkLinkResult.created(0, "https://a.com", UUID.randomUUID()),
+                                BulkLinkResult.failed(1, null, "Item is empty or not valid JSON"))));
+
+                String body = "{\"url\": \"https://a.com\"}\n{not json\n\n";
+
+                mockMvc.perform(post("/api/links/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body))
+                                .andExpect(status().isMultiStatus())
+                                .andExpect(jsonPath("$.created").value(1))
+                                .andExpect(jsonPath("$.failed").value(1))
+                                .andExpect(jsonPath("$.results[1].error").exists());
+
+                // Blank lines are skipped; the unreadable one is passed on as a null item
+                verify(linkBulkService).createAll(argThat(items -> items.size() == 2
+                                && items.get(0).url().equals("https://a.com")
+                                && items.get(1) == null));
+        }
+
+        @Test
+        void postBulk_ndjsonOverLimit_returns413() throws Exception {
+                when(linkBulkService.maxItems()).thenReturn(1);
+
+                String body = "{\"url\": \"https://a.com\"}\n{\"url\": \"https://b.com\"}\n";
+
+                mockMvc.perform(post("/api/links/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body))
+                                .andExpect(status().isContentTooLarge())
+                                .andExpect(jsonPath("$.status").value(413));
+                verify(linkBulkService, never()).createAll(anyList());
+        }
+
         // --- GET /api/links ---
 
         @Test
@@ -88,12 +158,12 @@ public class LinkControllerTest {
                 ExternalLink link1 = new ExternalLink();
                 link1.setId(UUID.randomUUID());
                 link1.setUrl("https://a.com");
-                link1.setStatus(ExternalLink.LinkStatus.VALIDATED);
+                link1.setUrlCheck(checkWithStatus(ExternalLink.LinkStatus.VALIDATED));
 
                 ExternalLink link2 = new ExternalLink();
                 link2.setId(UUID.randomUUID());
                 link2.setUrl("https://b.com");
-                link2.setStatus(ExternalLink.LinkStatus.BROKEN);
+                link2.setUrlCheck(checkWithStatus(ExternalLink.LinkStatus.BROKEN));
 
                 when(linkService.getAllLinks()).thenReturn(List.of(link1, link2));
 
@@ -112,7 +182,7 @@ public class LinkControllerTest {
                 ExternalLink link = new ExternalLink();
                 link.setId(id);
                 link.setUrl("https://found.com");
-                link.setStatus(ExternalLink.LinkStatus.VALIDATED);
+                link.setUrlCheck(checkWithStatus(ExternalLink.LinkStatus.VALIDATED));
 
                 when(linkService.getLinkById(id)).thenReturn(link);
 
@@ -143,7 +213,7 @@ public class LinkControllerTest {
                 updated.setId(id);
                 updated.setUrl("https://updated.com");
                 updated.setName("Updated");
-                updated.setStatus(ExternalLink.LinkStatus.PENDING);
+                updated.setUrlCheck(checkWithStatus(ExternalLink.LinkStatus.PENDING));
 
                 when(linkService.updateLink(eq(id), anyString(), any(), anyString()))
                                 .thenReturn(updated);
@@ -9,8 +9,36 @@ import org.junit.platform.suite.api.ConfigurationParameter;
         com.vantage.api.LeadManagerApiApplicationTests.class,
         com.vantage.api.service.LinkServiceTest.class,
         com.vantage.api.service.LinkWorkerServiceTest.class,
+        com.vantage.api.service.LinkStreamConsumerTest.class,
+        com.vantage.api.service.LinkValidationQueueTest.class,
+        com.vantage.api.service.LinkResultWriterTest.class,
+        com.vantage.api.service.WorkerThreadModeTest.class,
+        com.vantage.api.service.HostSchedulerTest.class,
+        com.vantage.api.service.ProbeCoalescerTest.class,
+        com.vantage.api.service.LinkRevalidationSchedulerTest.class,
+        com.vantage.api.service.RedisLinkRetryQueueTest.class,
+        com.vantage.api.service.LinkOutboxRelayTest.class,
+        com.vantage.api.service.LinkBulkServiceTest.class,
+        com.vantage.api.service.PostgresQueueConsumerTest.class,
+        com.vantage.api.service.JdbcLinkRetryQueueTest.class,
+        com.vantage.api.service.MpmcRingBufferTest.class,
+        com.vantage.api.service.InMemoryQueueTest.class,
+        com.vantage.api.service.LinkTaskCodecTest.class,
+        com.vantage.api.service.BoundedExecutorTest.class,
+        com.vantage.api.service.AdaptiveLimiterTest.class,
+        com.vantage.api.service.LinkPipelineMonitorTest.class,
+        com.vantage.api.service.ProbeLatencyMetricsTest.class,
+        com.vantage.api.service.ProbeStrategyCacheTest.class,
+        com.vantage.api.service.DnsCacheTest.class,
+        com.vantage.api.service.ProbeHttpClientsTest.class,
+        com.vantage.api.service.LinkValidatorsTest.class,
+        com.vantage.api.service.GoogleDriveLinkValidatorTest.class,
+        com.vantage.api.service.FrameIoLinkValidatorTest.class,
+        com.vantage.api.service.HostCircuitBreakerTest.class,
         com.vantage.api.service.LinkIntegrationTest.class,
         com.vantage.api.controller.LinkControllerTest.class,
+        com.vantage.api.controller.DeadLetterControllerTest.class,
+        com.vantage.api.controller.HostHealthControllerTest.class,
         com.vantage.api.service.LeadServiceTest.class,
         com.vantage.api.controller.LeadControllerTest.class,
         com.vantage.api.service.ClientServiceTest.class,
@@ -0,0 +1,144 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.AdaptiveLimiter;
+import com.vantage.api.worker.AdaptiveLimiter.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimiterTest {
+
+    private static final long LATENCY = Duration.ofMillis(50).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveLimiter limiter(int initial) {
+        return new AdaptiveLimiter(meterRegistry, true, initial, 2, 20, 0.5, 2.0, 0.5);
+    }
+
+    private static void acquire(AdaptiveLimiter limiter, int permits) throws InterruptedException {
+        for (int i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+    }
+
+    @Test
+    void shouldGrowByAboutOnePerRoundOfStableSuccessesWhileInUse() throws Exception {
+        AdaptiveLimiter limiter = limiter(4);
+        acquire(limiter, 4);
+
+        // Not one per success: four successes only move a limit of 4 most of the way to 5
+        for (int i = 0; i < 4; i++) {
+            limiter.release(LATENCY, Outcome.SUCCESS);
+            limiter.acquire();
+        }
+        assertEquals(4, limiter.limit());
+        limiter.release(LATENCY, Outcome.SUCCESS);
+
+        assertEquals(5, limiter.limit());
+        assertEquals(5, meterRegistry.get("link.validation.limit").gauge().value());
+        assertEquals(3, meterRegistry.get("link.validation.in_flight").gauge().value());
+    }
+
+    @Test
+    void shouldNotGrowAnIdleLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(10);
+        limiter.acquire();
+
+        limiter.release(LATENCY, Outcome.SUCCESS);
+
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    void shouldHoldTheLimitWhenLatencyRisesPastTolerance() throws Exception {
+        AdaptiveLimiter limiter = limiter(4);
+        acquire(limiter, 4);
+        limiter.release(LATENCY, Outcome.SUCCESS);
+        limiter.acquire();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.release(LATENCY * 3, Outcome.SUCCESS);
+            limiter.acquire();
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    void shouldBackOffMultiplicativelyOnTimeout() throws Exception {
+        AdaptiveLimiter limiter = limiter(16);
+        limiter.acquire();
+
+        limiter.release(LATENCY, Outcome.TIMEOUT);
+
+        assertEquals(8, limiter.limit());
+    }
+
+    @Test
+    void shouldBackOffOnceForAWaveOfTimeouts() throws Exception {
+        AdaptiveLimiter limiter = limiter(16);
+        acquire(limiter, 9);
+        // A baseline of a minute: the timeouts below all fall within one window
+        limiter.release(Duration.ofMinutes(1).toNanos(), Outcome.SUCCESS);
+
+        for (int i = 0; i < 8; i++) {
+            limiter.release(LATENCY, Outcome.TIMEOUT);
+        }
+
+        assertTrue(limiter.limit() >= 8, "limit collapsed to " + limiter.limit());
+    }
+
+    @Test
+    void shouldNotGoBelowMinLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(3);
+        limiter.acquire();
+        limiter.acquire();
+
+        limiter.release(0, Outcome.TIMEOUT);
+        limiter.release(0, Outcome.TIMEOUT);
+
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void shouldBlockAcquireAtTheLimitUntilReleased() throws Exception {
+        AdaptiveLimiter limiter = AdaptiveLimiter.fixed(2, meterRegistry);
+        acquire(limiter, 2);
+
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThrows(TimeoutException.class, () -> third.get(100, TimeUnit.MILLISECONDS));
+
+        limiter.release(LATENCY, Outcome.TIMEOUT);
+
+        third.get(5, TimeUnit.SECONDS);
+        assertEquals(2, limiter.limit(), "a fixed limiter does not adapt");
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void shouldHandFreedPermitsToAsyncWaitersWithoutBlocking() throws Exception {
+        AdaptiveLimiter limiter = AdaptiveLimiter.fixed(1, meterRegistry);
+        limiter.acquireAsync().join();
+
+        CompletableFuture<Void> waiting = limiter.acquireAsync();
+        assertFalse(waiting.isDone());
+
+        limiter.release();
+
+        assertTrue(waiting.isDone());
+        assertEquals(1, limiter.inFlight());
+    }
+}
@@ -0,0 +1,98 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.BoundedExecutor;
+import com.vantage.api.worker.OverflowPolicy;
+import com.vantage.api.worker.TaskShedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService delegate = Executors.newFixedThreadPool(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        delegate.shutdownNow();
+    }
+
+    // One thread busy, one task waiting: capacity 2 is used up
+    private BoundedExecutor filled(OverflowPolicy policy) {
+        BoundedExecutor executor = new BoundedExecutor(delegate, 2, policy, meterRegistry);
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+        return executor;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double overflow(String policy) {
+        return meterRegistry.get("link.executor.overflow").tag("policy", policy).counter().count();
+    }
+
+    @Test
+    void shouldRunOnCallerThreadWhenFull() {
+        BoundedExecutor executor = filled(OverflowPolicy.CALLER_RUNS);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1, overflow("caller_runs"));
+        assertEquals(2, meterRegistry.get("link.executor.occupancy").gauge().value());
+    }
+
+    @Test
+    void shouldRejectWhenFullAndAcceptAgainOnceTasksFinish() throws Exception {
+        BoundedExecutor executor = filled(OverflowPolicy.SPILL);
+
+        RejectedExecutionException rejected =
+                assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertFalse(rejected instanceof TaskShedException);
+        assertEquals(1, overflow("spill"));
+
+        release.countDown();
+        CountDownLatch ran = new CountDownLatch(1);
+        // Permits come back as the two blocked tasks finish
+        while (executor.occupancy() > 0) {
+            Thread.sleep(5);
+        }
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldSignalShedTasks() {
+        BoundedExecutor executor = filled(OverflowPolicy.SHED);
+
+        assertThrows(TaskShedException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, overflow("shed"));
+    }
+
+    @Test
+    void shouldReturnPermitWhenDelegateRejects() {
+        delegate.shutdown();
+        BoundedExecutor executor = new BoundedExecutor(delegate, 2, OverflowPolicy.SPILL, meterRegistry);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(0, executor.occupancy());
+    }
+}
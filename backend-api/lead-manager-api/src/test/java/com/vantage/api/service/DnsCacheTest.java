@@ -0,0 +1,144 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.DnsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DnsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private DnsCache cache(int maxEntries) {
+        return new DnsCache(meterRegistry, Duration.ofMinutes(5), Duration.ofSeconds(30), maxEntries, clock::get);
+    }
+
+    private DnsCache.Lookup resolvesTo(String address) {
+        return () -> {
+            lookups.incrementAndGet();
+            return List.of(InetAddress.getByName(address));
+        };
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("link.dns.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    void shouldReuseAddressesUntilTheTtlRunsOut() throws Exception {
+        DnsCache cache = cache(100);
+
+        List<InetAddress> first = cache.resolve("example.com", resolvesTo("10.0.0.1"));
+        clock.addAndGet(Duration.ofMinutes(4).toNanos());
+        List<InetAddress> second = cache.resolve("example.com", resolvesTo("10.0.0.2"));
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        List<InetAddress> third = cache.resolve("example.com", resolvesTo("10.0.0.3"));
+
+        assertEquals(first, second);
+        assertEquals("10.0.0.3", third.get(0).getHostAddress());
+        assertEquals(2, lookups.get());
+        assertEquals(1.0, lookups("hit"));
+        assertEquals(2.0, lookups("miss"));
+    }
+
+    @Test
+    void shouldCacheUnknownHostsForTheNegativeTtl() throws Exception {
+        DnsCache cache = cache(100);
+        DnsCache.Lookup unknown = () -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException("gone.example");
+        };
+
+        assertThrows(UnknownHostException.class, () -> cache.resolve("gone.example", unknown));
+        assertThrows(UnknownHostException.class, () -> cache.resolve("gone.example", unknown));
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("10.0.0.9", cache.resolve("gone.example", resolvesTo("10.0.0.9")).get(0).getHostAddress());
+
+        assertEquals(2, lookups.get());
+        assertEquals(1.0, lookups("negative_hit"));
+    }
+
+    @Test
+    void shouldShareOneResolutionBetweenConcurrentLookups() throws Exception {
+        DnsCache cache = cache(100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DnsCache.Lookup slow = () -> {
+            lookups.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(InetAddress.getByName("10.0.0.1"));
+        };
+
+        CompletableFuture<List<InetAddress>> leader = CompletableFuture.supplyAsync(() -> resolve(cache, slow));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<InetAddress>> follower = CompletableFuture.supplyAsync(() -> resolve(cache, slow));
+        while (lookups("coalesced") == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void shouldStayWithinMaxEntriesEvictingInBatches() throws Exception {
+        DnsCache cache = cache(20);
+
+        for (int i = 0; i < 21; i++) {
+            cache.resolve("host" + i + ".example.com", resolvesTo("10.0.0." + i));
+            clock.incrementAndGet();
+        }
+        // The overflowing miss swept the cache down to nine tenths, soonest to expire first
+        assertEquals(18, cache.size());
+        cache.resolve("host20.example.com", resolvesTo("10.0.0.20"));
+        assertEquals(1.0, lookups("hit"));
+
+        // Room for the next misses without another sweep
+        cache.resolve("host21.example.com", resolvesTo("10.0.0.21"));
+        cache.resolve("host22.example.com", resolvesTo("10.0.0.22"));
+        assertEquals(20, cache.size());
+        assertEquals((double) cache.size(), meterRegistry.get("link.dns.cache.size").gauge().value());
+    }
+
+    @Test
+    void shouldRememberABoundedSetOfProbeHosts() {
+        DnsCache cache = cache(2);
+
+        cache.markProbeHost("a.example.com");
+        cache.markProbeHost("b.example.com");
+        // Probed again: the least recently probed is now b
+        cache.markProbeHost("a.example.com");
+        cache.markProbeHost("c.example.com");
+
+        assertTrue(cache.isProbeHost("A.example.com"));
+        assertFalse(cache.isProbeHost("b.example.com"));
+        assertTrue(cache.isProbeHost("c.example.com"));
+    }
+
+    private static List<InetAddress> resolve(DnsCache cache, DnsCache.Lookup lookup) {
+        try {
+            return cache.resolve("example.com", lookup);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
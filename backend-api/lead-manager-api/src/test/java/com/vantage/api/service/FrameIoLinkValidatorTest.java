@@ -0,0 +1,96 @@
+package com.vantage.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vantage.api.worker.FrameIoLinkValidator;
+import com.vantage.api.worker.ProbeHttpClients;
+import com.vantage.api.worker.ProbeResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameIoLinkValidatorTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private HttpServer stub;
+    private final List<List<String>> requested = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private FrameIoLinkValidator validator;
+
+    /** Imitates the batch lookup endpoint: reviews/expired is gone, f/missing unknown, anything else live. */
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/frame-io/links", this::lookup);
+        stub.start();
+        validator = new FrameIoLinkValidator(ProbeHttpClients.of(HttpClient.newHttpClient()),
+                JsonMapper.builder().build(),
+                URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/frame-io/links"),
+                "lookup-token", 50, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void lookup(HttpExchange exchange) throws IOException {
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        List<String> links = (List<String>) JSON.readValue(exchange.getRequestBody(), Map.class).get("links");
+        requested.add(links);
+        Map<String, Object> answers = new LinkedHashMap<>();
+        for (String link : links) {
+            switch (link) {
+                case "reviews/expired" -> answers.put(link, Map.of("status", 410));
+                case "f/missing" -> {
+                    // Left out: not found
+                }
+                default -> answers.put(link, Map.of("status", 200));
+            }
+        }
+        byte[] body = JSON.writeValueAsString(Map.of("links", answers)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void shouldRecogniseFrameIoShareLinks() {
+        assertEquals("reviews/5a7c-91e2", validator.resourceId("https://app.frame.io/reviews/5a7c-91e2/abc?version=2"));
+        assertEquals("player/8d2f", validator.resourceId("https://app.frame.io/player/8d2f"));
+        assertEquals("share/0c1d-77aa", validator.resourceId("https://next.frame.io/share/0c1d-77aa/view/1"));
+        assertEquals("f/xK3p9", validator.resourceId("https://f.io/xK3p9"));
+        assertNull(validator.resourceId("https://app.frame.io/projects/42"));
+        assertNull(validator.resourceId("https://vimeo.com/12345"));
+    }
+
+    @Test
+    void shouldLookUpAllLinksInOneCall() throws Exception {
+        Map<String, ProbeResponse> responses = validator.validate(List.of("reviews/live", "reviews/expired", "f/missing"));
+
+        assertEquals(List.of(List.of("reviews/live", "reviews/expired", "f/missing")), requested);
+        assertEquals(List.of("Bearer lookup-token"), authorizations);
+        assertEquals(200, responses.get("reviews/live").statusCode());
+        assertEquals(410, responses.get("reviews/expired").statusCode());
+        assertFalse(responses.containsKey("f/missing"));
+        assertEquals(50, validator.maxBatchSize());
+    }
+}
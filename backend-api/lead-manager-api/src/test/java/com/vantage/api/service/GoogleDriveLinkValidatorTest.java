@@ -0,0 +1,136 @@
+package com.vantage.api.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vantage.api.worker.GoogleDriveLinkValidator;
+import com.vantage.api.worker.ProbeHttpClients;
+import com.vantage.api.worker.ProbeResponse;
+import com.vantage.api.worker.TransientProbeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GoogleDriveLinkValidatorTest {
+
+    private static final String KEY = "test-key";
+    private static final Pattern PART = Pattern.compile(
+            "Content-ID: <item(\\d+)>\\r\\n\\r\\nGET /drive/v3/files/([^?]+)\\?[^\\r\\n]*key=([^&\\r\\n]+)");
+
+    private HttpServer stub;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int batchStatus = 200;
+    private GoogleDriveLinkValidator validator;
+
+    /**
+     * Imitates {@code POST /batch/drive/v3}: answers each {@code files.get}
+     * part by file id, in reverse order, as the real endpoint is free to.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/batch/drive/v3", this::batch);
+        stub.start();
+        validator = new GoogleDriveLinkValidator(ProbeHttpClients.of(HttpClient.newHttpClient()),
+                JsonMapper.builder().build(), KEY,
+                URI.create("http://127.0.0.1:" + stub.getAddress().getPort()), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    private void batch(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (batchStatus != 200) {
+            exchange.sendResponseHeaders(batchStatus, -1);
+            exchange.close();
+            return;
+        }
+        List<String> parts = new ArrayList<>();
+        Matcher part = PART.matcher(body);
+        while (part.find()) {
+            String inner = KEY.equals(part.group(3)) ? fileResponse(part.group(2)) : "HTTP/1.1 400 Bad Request\r\n\r\n";
+            parts.add("Content-Type: application/http\r\nContent-ID: <response-item" + part.group(1) + ">\r\n\r\n" + inner);
+        }
+        Collections.reverse(parts);
+        StringBuilder response = new StringBuilder();
+        parts.forEach(p -> response.append("--batch_stub\r\n").append(p).append("\r\n"));
+        response.append("--batch_stub--\r\n");
+
+        byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "multipart/mixed; boundary=batch_stub");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static String fileResponse(String fileId) {
+        return switch (fileId) {
+            case "trashedFile0001" -> json(200, "{\"id\": \"trashedFile0001\", \"trashed\": true}");
+            case "throttledFile01" -> json(403,
+                    "{\"error\": {\"code\": 403, \"errors\": [{\"reason\": \"userRateLimitExceeded\"}]}}");
+            case "privateFile0001" -> json(404, "{\"error\": {\"code\": 404, \"errors\": [{\"reason\": \"notFound\"}]}}");
+            default -> json(200, "{\"id\": \"" + fileId + "\", \"trashed\": false,"
+                    + " \"modifiedTime\": \"2026-03-01T10:15:30.000Z\"}");
+        };
+    }
+
+    private static String json(int status, String body) {
+        return "HTTP/1.1 " + status + " X\r\nContent-Type: application/json; charset=UTF-8\r\n\r\n" + body + "\r\n";
+    }
+
+    @Test
+    void shouldExtractFileIdsFromDriveAndDocsLinks() {
+        assertEquals("1AbCdEfGhIjK", validator.resourceId("https://drive.google.com/file/d/1AbCdEfGhIjK/view?usp=sharing"));
+        assertEquals("1AbCdEfGhIjK", validator.resourceId("https://drive.google.com/open?id=1AbCdEfGhIjK"));
+        assertEquals("1AbCdEfGhIjK", validator.resourceId("https://docs.google.com/spreadsheets/d/1AbCdEfGhIjK/edit#gid=0"));
+        assertEquals("0BfolderIdXYZ", validator.resourceId("https://drive.google.com/drive/u/0/folders/0BfolderIdXYZ"));
+        // Published documents and other hosts are left to the generic probe
+        assertNull(validator.resourceId("https://docs.google.com/document/d/e/2PACX-1vQabcdefghij/pub"));
+        assertNull(validator.resourceId("https://dropbox.com/file/d/1AbCdEfGhIjK"));
+    }
+
+    @Test
+    void shouldLookUpEveryFileInOneBatchCall() throws Exception {
+        Map<String, ProbeResponse> responses = validator.validate(
+                List.of("liveFile000001", "trashedFile0001", "privateFile0001", "throttledFile01"));
+
+        assertEquals(1, calls.get());
+        assertEquals(new ProbeResponse(200, null, "Sun, 1 Mar 2026 10:15:30 GMT"), responses.get("liveFile000001"));
+        assertEquals(410, responses.get("trashedFile0001").statusCode());
+        assertEquals(404, responses.get("privateFile0001").statusCode());
+        // Rate limited per file: retried, not broken
+        assertEquals(429, responses.get("throttledFile01").statusCode());
+    }
+
+    @Test
+    void shouldTreatAThrottledOrRejectedBatchAsNoAnswer() {
+        batchStatus = 503;
+        assertThrows(TransientProbeException.class, () -> validator.validate(List.of("liveFile000001")));
+
+        batchStatus = 200;
+        GoogleDriveLinkValidator badKey = new GoogleDriveLinkValidator(ProbeHttpClients.of(HttpClient.newHttpClient()),
+                JsonMapper.builder().build(), "wrong-key",
+                URI.create("http://127.0.0.1:" + stub.getAddress().getPort()), Duration.ofSeconds(5));
+        assertThrows(IOException.class, () -> badKey.validate(List.of("liveFile000001")));
+    }
+}
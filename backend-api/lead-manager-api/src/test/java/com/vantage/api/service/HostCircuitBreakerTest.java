@@ -0,0 +1,127 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.HostHealth;
+import com.vantage.api.worker.HostCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostCircuitBreakerTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MILLIS);
+    private SimpleMeterRegistry registry;
+    private HostCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // 10s window in 10 buckets, open at >= 50% failures over >= 4 calls, 1s slow threshold, 30s open
+        breaker = new HostCircuitBreaker(registry, Duration.ofSeconds(10), 10, 4, 0.5, Duration.ofSeconds(1), 0.8,
+                Duration.ofSeconds(30), clock::get);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        breaker.onFailure("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+
+        assertTrue(breaker.tryAcquire("a.com"));
+        assertEquals("CLOSED", breaker.health("a.com").orElseThrow().circuit());
+    }
+
+    @Test
+    void shouldOpenOnFailureRateAndRejectWithoutAffectingOtherHosts() {
+        breaker.onSuccess("a.com", MILLIS);
+        breaker.onSuccess("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+
+        assertFalse(breaker.tryAcquire("a.com"));
+        assertTrue(breaker.tryAcquire("b.com"));
+        assertEquals(2.0, registry.get("link.host.circuit.state").tag("host_group", "a.com").gauge().value());
+        assertEquals(1.0, registry.get("link.host.circuit.rejected").tag("host_group", "a.com").counter().count());
+        assertEquals(Duration.ofSeconds(30), breaker.retryAfter("a.com"));
+    }
+
+    @Test
+    void shouldOpenOnSlowCallRate() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess("slow.com", 1500 * MILLIS);
+        }
+
+        assertFalse(breaker.tryAcquire("slow.com"));
+    }
+
+    @Test
+    void shouldForgetFailuresOutsideTheWindow() {
+        breaker.onFailure("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+        clock.addAndGet(11_000 * MILLIS);
+        breaker.onFailure("a.com", MILLIS);
+
+        assertTrue(breaker.tryAcquire("a.com"));
+        assertEquals(1, breaker.health("a.com").orElseThrow().calls());
+    }
+
+    @Test
+    void shouldAdmitOneTrialAfterOpenDurationAndCloseOnSuccess() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure("a.com", MILLIS);
+        }
+        clock.addAndGet(30_000 * MILLIS);
+
+        assertTrue(breaker.tryAcquire("a.com"));   // the trial
+        assertFalse(breaker.tryAcquire("a.com"));  // only one at a time
+        // Refused while the trial runs: come back when it may be retried, not at once
+        assertEquals(Duration.ofSeconds(30), breaker.retryAfter("a.com"));
+        clock.addAndGet(29_000 * MILLIS);
+        assertEquals(Duration.ofSeconds(3), breaker.retryAfter("a.com"));
+        breaker.onSuccess("a.com", MILLIS);
+
+        HostHealth health = breaker.health("a.com").orElseThrow();
+        assertEquals("CLOSED", health.circuit());
+        assertEquals(0, health.calls());
+        assertTrue(breaker.tryAcquire("a.com"));
+    }
+
+    @Test
+    void shouldReopenWhenTrialFails() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure("a.com", MILLIS);
+        }
+        clock.addAndGet(30_000 * MILLIS);
+        assertTrue(breaker.tryAcquire("a.com"));
+
+        breaker.onFailure("a.com", MILLIS);
+
+        assertEquals("OPEN", breaker.health("a.com").orElseThrow().circuit());
+        assertFalse(breaker.tryAcquire("a.com"));
+    }
+
+    @Test
+    void shouldEvictIdleClosedCircuitsButKeepOpenOnes() {
+        breaker.onSuccess("idle.com", MILLIS);
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure("down.com", MILLIS);
+        }
+        breaker.onSuccess("www.down.com", MILLIS);
+        clock.addAndGet(10_000 * MILLIS);
+
+        breaker.evictIdle();
+
+        assertEquals(1, breaker.size());
+        assertTrue(breaker.health("idle.com").isEmpty());
+        assertEquals("OPEN", breaker.health("down.com").orElseThrow().circuit());
+        // One set of meters for the hosts of a group, still reporting the open circuit
+        assertEquals(2.0, registry.get("link.host.circuit.state").tag("host_group", "down.com").gauge().value());
+    }
+}
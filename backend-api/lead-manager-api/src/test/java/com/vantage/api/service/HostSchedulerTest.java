@@ -0,0 +1,136 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.HostScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostSchedulerTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldCapConcurrentProbesPerHost() {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 2, Duration.ZERO, 100);
+
+        CompletableFuture<HostScheduler.Slot> first = scheduler.reserve("drive.google.com");
+        CompletableFuture<HostScheduler.Slot> second = scheduler.reserve("drive.google.com");
+        CompletableFuture<HostScheduler.Slot> third = scheduler.reserve("drive.google.com");
+
+        assertTrue(first.isDone() && second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(1.0, meterRegistry.get("link.host.queue.depth").tag("host_group", "google.com").gauge().value());
+
+        first.join().release();
+
+        assertTrue(third.isDone());
+        assertEquals(0.0, meterRegistry.get("link.host.queue.depth").tag("host_group", "google.com").gauge().value());
+    }
+
+    @Test
+    void shouldNotQueueUnrelatedHostsBehindSaturatedOne() {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 1, Duration.ZERO, 100);
+
+        scheduler.reserve("slow.example.com");
+        CompletableFuture<HostScheduler.Slot> blocked = scheduler.reserve("slow.example.com");
+        CompletableFuture<HostScheduler.Slot> other = scheduler.reserve("frame.io");
+
+        assertFalse(blocked.isDone());
+        assertTrue(other.isDone());
+    }
+
+    @Test
+    void shouldSpaceStartsByMinimumInterval() throws Exception {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 10, Duration.ofMillis(200), 100);
+
+        CompletableFuture<HostScheduler.Slot> first = scheduler.reserve("frame.io");
+        CompletableFuture<HostScheduler.Slot> second = scheduler.reserve("frame.io");
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertNotNull(second.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRejectWhenHostQueueIsFull() {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 1, Duration.ZERO, 1);
+
+        scheduler.reserve("drive.google.com");
+        scheduler.reserve("drive.google.com");
+        CompletableFuture<HostScheduler.Slot> rejected = scheduler.reserve("drive.google.com");
+
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(HostScheduler.HostBusyException.class, e.getCause());
+    }
+
+    @Test
+    void shouldRejectOnceTheQueueIsFullWhileThePacedHostHasSlotsFree() {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 8, Duration.ofSeconds(10), 2);
+
+        // One starts, the interval holds the rest back with seven slots still free
+        assertTrue(scheduler.reserve("drive.google.com").isDone());
+        scheduler.reserve("drive.google.com");
+        scheduler.reserve("drive.google.com");
+        CompletableFuture<HostScheduler.Slot> rejected = scheduler.reserve("drive.google.com");
+
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(HostScheduler.HostBusyException.class, e.getCause());
+        assertEquals(2.0, meterRegistry.get("link.host.queue.depth").tag("host_group", "google.com").gauge().value());
+    }
+
+    @Test
+    void shouldIgnoreDoubleRelease() {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 1, Duration.ZERO, 100);
+
+        HostScheduler.Slot slot = scheduler.reserve("frame.io").join();
+        CompletableFuture<HostScheduler.Slot> second = scheduler.reserve("frame.io");
+        CompletableFuture<HostScheduler.Slot> third = scheduler.reserve("frame.io");
+
+        slot.release();
+        slot.release();
+
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    void shouldDropIdleHostsOnceTheirIntervalHasPassed() throws Exception {
+        HostScheduler scheduler = new HostScheduler(meterRegistry, 1, Duration.ofMillis(100), 100);
+
+        scheduler.reserve("a.example.com").join().release();
+        scheduler.reserve("drive.google.com").join().release();
+        assertEquals(2, scheduler.size());
+
+        // The interval still applies to a host reused right away
+        CompletableFuture<HostScheduler.Slot> again = scheduler.reserve("a.example.com");
+        assertFalse(again.isDone());
+        again.get(2, TimeUnit.SECONDS).release();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (scheduler.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, scheduler.size());
+        // Meters are per host group, not per host
+        assertEquals(1, meterRegistry.find("link.host.wait").tag("host_group", "example.com").timers().size());
+    }
+
+    @Test
+    void shouldExtractLowerCasedHost() {
+        assertEquals("drive.google.com", HostScheduler.hostOf("https://Drive.Google.com/file/d/1"));
+        assertEquals("unknown", HostScheduler.hostOf("not a url"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.entity.UrlCheck;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.InMemoryQueueConsumer;
+import com.vantage.api.worker.InMemoryRetryQueue;
+import com.vantage.api.worker.InMemoryTaskQueue;
+import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.PendingTaskReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryQueueTest {
+
+    private static final Duration REDELIVERY = Duration.ofSeconds(30);
+
+    @Mock
+    private LinkWorkerService workerService;
+
+    @Mock
+    private InMemoryRetryQueue retryQueue;
+
+    @Mock
+    private UrlCheckRepository urlCheckRepository;
+
+    private InMemoryTaskQueue queue;
+    private InMemoryQueueConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        queue = new InMemoryTaskQueue(4, new SimpleMeterRegistry());
+        // Run dispatched work inline on the drainer thread
+        consumer = new InMemoryQueueConsumer(workerService, queue, retryQueue, Runnable::run, 2, REDELIVERY,
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.stop();
+    }
+
+    private static LinkValidationTask task(int i) {
+        return new LinkValidationTask(UUID.randomUUID(), "https://example.com/" + i);
+    }
+
+    // The queue stamps tasks with their enqueue time on the way in
+    private static LinkValidationTask sameTask(LinkValidationTask task) {
+        return argThat(queued -> queued != null && queued.withEnqueuedAt(0).equals(task));
+    }
+
+    @Test
+    void shouldWakeParkedConsumerOnPublish() throws Exception {
+        LinkValidationTask task = task(1);
+        when(workerService.handleMessage(any())).thenReturn(CompletableFuture.completedFuture(null));
+        consumer.start();
+        Thread.sleep(50); // long enough to spin out and park
+
+        queue.publish(task);
+
+        verify(workerService, timeout(1000)).handleMessage(sameTask(task));
+        verifyNoInteractions(retryQueue);
+    }
+
+    @Test
+    void shouldRedeliverFailedTasksButNotCancelledOnes() {
+        LinkValidationTask failing = task(1);
+        LinkValidationTask cancelled = task(2);
+        when(workerService.handleMessage(sameTask(failing)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+        when(workerService.handleMessage(sameTask(cancelled)))
+                .thenReturn(CompletableFuture.failedFuture(new CancellationException("shutting down")));
+        queue.publish(failing);
+        queue.publish(cancelled);
+
+        consumer.start();
+
+        verify(workerService, timeout(1000)).handleMessage(sameTask(cancelled));
+        verify(retryQueue).redeliver(sameTask(failing), eq(REDELIVERY));
+        verify(retryQueue, never()).redeliver(sameTask(cancelled), any());
+    }
+
+    @Test
+    void shouldDropWhenFullAndFlagOverflow() {
+        for (int i = 0; i < 5; i++) {
+            queue.publish(task(i));
+        }
+
+        assertEquals(4, queue.backlog());
+        assertTrue(queue.takeOverflow());
+        assertFalse(queue.takeOverflow());
+    }
+
+    @Test
+    void shouldRequeuePendingChecksPageByPage() {
+        List<UrlCheck> firstPage = List.of(check(), check());
+        UrlCheck last = check();
+        when(urlCheckRepository.findPendingAfter(new UUID(0, 0), 2)).thenReturn(firstPage);
+        when(urlCheckRepository.findPendingAfter(firstPage.get(1).getId(), 2)).thenReturn(List.of(last));
+        PendingTaskReconciler reconciler =
+                new PendingTaskReconciler(urlCheckRepository, queue, new SimpleMeterRegistry(), 2);
+
+        assertEquals(3, reconciler.reconcile());
+
+        List<LinkValidationTask> queued = new ArrayList<>();
+        queue.drain(task -> queued.add(task.withEnqueuedAt(0)), 10);
+        assertEquals(List.of(
+                new LinkValidationTask(firstPage.get(0).getId(), firstPage.get(0).getCanonicalUrl()),
+                new LinkValidationTask(firstPage.get(1).getId(), firstPage.get(1).getCanonicalUrl()),
+                new LinkValidationTask(last.getId(), last.getCanonicalUrl())), queued);
+    }
+
+    private static UrlCheck check() {
+        UrlCheck check = new UrlCheck();
+        check.setId(UUID.randomUUID());
+        check.setCanonicalUrl("https://example.com/" + check.getId());
+        return check;
+    }
+}
@@ -0,0 +1,70 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import com.vantage.api.worker.JdbcLinkRetryQueue;
+import com.vantage.api.worker.PostgresTaskQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcLinkRetryQueueTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PostgresTaskQueue taskQueue;
+
+    private JdbcLinkRetryQueue retryQueue;
+
+    @BeforeEach
+    void setUp() {
+        retryQueue = new JdbcLinkRetryQueue(jdbcTemplate, taskQueue, new SimpleMeterRegistry(),
+                3, Duration.ofSeconds(4), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldQueueNextAttemptAsDelayedRowWhileAttemptsRemain() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://flaky.com/");
+
+        assertTrue(retryQueue.retryOrDeadLetter(task, "timeout"));
+
+        ArgumentCaptor<Duration> delay = ArgumentCaptor.forClass(Duration.class);
+        verify(taskQueue).publishAt(eq(task.nextAttempt()), delay.capture());
+        // First retry: 4s ceiling with equal jitter
+        assertTrue(delay.getValue().toMillis() >= 2_000 && delay.getValue().toMillis() <= 4_000);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldDeadLetterOnFinalAttempt() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://down.com/", 2);
+
+        assertFalse(retryQueue.retryOrDeadLetter(task, "connection refused"));
+
+        verify(jdbcTemplate).update(anyString(), eq(task.id()), eq("https://down.com/"), eq(2), eq("connection refused"));
+        verify(taskQueue, never()).publishAt(any(), any());
+    }
+
+    @Test
+    void replayShouldThrowWhenDeadLetterIsMissing() {
+        UUID id = UUID.randomUUID();
+        when(jdbcTemplate.update(anyString(), eq(id))).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> retryQueue.replay(id));
+    }
+}
@@ -0,0 +1,95 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.BulkLinkResponse;
+import com.vantage.api.dto.LinkRequest;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.PayloadTooLargeException;
+import com.vantage.api.repository.LinkBulkRepository;
+import com.vantage.api.repository.LinkBulkRepository.CheckRef;
+import com.vantage.api.repository.LinkBulkRepository.NewLink;
+import com.vantage.api.worker.LinkTaskOutbox;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkBulkServiceTest {
+
+    @Mock
+    private LinkBulkRepository bulkRepository;
+
+    @Mock
+    private LinkTaskOutbox taskOutbox;
+
+    private LinkBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new LinkBulkService(bulkRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+                taskOutbox, Duration.ofHours(24), 5);
+    }
+
+    @Test
+    void shouldCreateValidItemsAndReportTheRest() {
+        UUID projectId = UUID.randomUUID();
+        UUID unknownProject = UUID.randomUUID();
+        CheckRef check = new CheckRef(UUID.randomUUID(), "https://a.com/deck.pdf", null, true);
+        when(bulkRepository.existingProjects(Set.of(projectId, unknownProject))).thenReturn(Set.of(projectId));
+        when(bulkRepository.upsertChecks(anyCollection())).thenReturn(Map.of(check.canonicalUrl(), check));
+
+        BulkLinkResponse response = bulkService.createAll(Arrays.asList(
+                new LinkRequest("https://a.com/deck.pdf", projectId, "Deck"),
+                new LinkRequest("not-a-url", null, null),
+                null,
+                new LinkRequest("https://b.com", unknownProject, null),
+                new LinkRequest("HTTPS://A.com:443/deck.pdf#p2", null, "Same deck")));
+
+        assertEquals(2, response.created());
+        assertEquals(3, response.failed());
+        assertNotNull(response.results().get(0).id());
+        assertTrue(response.results().get(1).error().startsWith("url:"));
+        assertNotNull(response.results().get(2).error());
+        assertTrue(response.results().get(3).error().contains(unknownProject.toString()));
+        assertNotNull(response.results().get(4).id());
+
+        verify(bulkRepository).insertLinks(argThat((List<NewLink> links) -> links.size() == 2));
+        // Both links share one canonical URL: a single task
+        verify(taskOutbox).addAll(List.of(new LinkValidationTask(check.id(), check.canonicalUrl())));
+    }
+
+    @Test
+    void shouldNotQueueFreshExistingChecks() {
+        CheckRef fresh = new CheckRef(UUID.randomUUID(), "https://a.com/", LocalDateTime.now().minusMinutes(5), false);
+        when(bulkRepository.upsertChecks(anyCollection())).thenReturn(Map.of(fresh.canonicalUrl(), fresh));
+
+        BulkLinkResponse response = bulkService.createAll(List.of(new LinkRequest("https://a.com", null, null)));
+
+        assertEquals(1, response.created());
+        verify(bulkRepository).insertLinks(anyList());
+        verifyNoInteractions(taskOutbox);
+    }
+
+    @Test
+    void shouldRejectRequestsOverTheItemLimit() {
+        List<LinkRequest> requests = Collections.nCopies(6, new LinkRequest("https://a.com", null, null));
+
+        assertThrows(PayloadTooLargeException.class, () -> bulkService.createAll(requests));
+        verifyNoInteractions(bulkRepository);
+    }
+}
@@ -1,14 +1,18 @@
 package com.vantage.api.service;
 
 import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.entity.UrlCheck;
 import com.vantage.api.repository.ExternalLinkRepository;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.LinkValidationQueue;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -19,6 +23,7 @@ import org.testcontainers.utility.DockerImageName;
 import org.testcontainers.containers.PostgreSQLContainer;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -40,6 +45,9 @@ public class LinkIntegrationTest {
     @Autowired
     private ExternalLinkRepository repository;
 
+    @Autowired
+    private UrlCheckRepository urlCheckRepository;
+
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
 
@@ -48,7 +56,13 @@ public class LinkIntegrationTest {
     static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
             .withExposedPorts(6379);
     @Autowired
-    private RedisMessageListenerContainer redisMessageListenerContainer;
+    private StreamMessageListenerContainer<?, ?> streamListenerContainer;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private LinkValidationQueue validationQueue;
 
     // Maps the dynamic Docker port to Spring properties
     @DynamicPropertySource
@@ -63,16 +77,18 @@ public class LinkIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        redisMessageListenerContainer.stop();
-        assert redisMessageListenerContainer.getConnectionFactory() != null;
-        redisMessageListenerContainer.getConnectionFactory().getConnection().serverCommands().flushDb();
+        streamListenerContainer.stop();
+        redisConnectionFactory.getConnection().serverCommands().flushDb();
+        // Flushing drops the stream and its consumer group; recreate them before polling resumes
+        validationQueue.ensureGroup();
         repository.deleteAll();
-        redisMessageListenerContainer.start();
+        urlCheckRepository.deleteAll();
+        streamListenerContainer.start();
     }
 
     @AfterEach
     void tearDown() {
-        redisMessageListenerContainer.stop();
+        streamListenerContainer.stop();
     }
 
     @Test
@@ -99,10 +115,7 @@ public class LinkIntegrationTest {
 
     @Test
     void shouldHandleConcurrentUpdatesToSameLink() throws InterruptedException {
-        ExternalLink link = new ExternalLink();
-        link.setUrl("https://start.com");
-        link.setStatus(ExternalLink.LinkStatus.VALIDATED);
-        link = repository.save(link);
+        ExternalLink link = linkService.createValidationTask("https://start.com", null, null);
 
         UUID id = link.getId();
         int threadCount = 10;
@@ -175,11 +188,28 @@ public class LinkIntegrationTest {
         Awaitility.await()
                 .atMost(Duration.ofMinutes(1))
                 .pollInterval(Duration.ofSeconds(1))
-                .until(() -> repository.countByStatus(ExternalLink.LinkStatus.PENDING) == 0);
+                .until(() -> repository.countByUrlCheckStatus(ExternalLink.LinkStatus.PENDING) == 0);
 
         // Give the context a one-second buffer to finish background cleanup
         Thread.sleep(2000);
 
         assertEquals(totalLinks, repository.count());
     }
+
+    @Test
+    void shouldNotRevalidateUrlsWhoseLastLinkWasDeleted() {
+        ExternalLink kept = linkService.createValidationTask("https://vantage-kept.com", null, null);
+        ExternalLink deleted = linkService.createValidationTask("https://vantage-deleted.com", null, null);
+        for (ExternalLink link : List.of(kept, deleted)) {
+            UrlCheck check = urlCheckRepository.findById(link.getUrlCheck().getId()).orElseThrow();
+            check.setLastChecked(LocalDateTime.now().minusDays(2));
+            urlCheckRepository.save(check);
+        }
+
+        linkService.deleteLink(deleted.getId());
+
+        List<UrlCheck> due = urlCheckRepository.findDueForRevalidation(LocalDateTime.now().plusDays(1),
+                LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0), 10);
+        assertEquals(List.of(kept.getUrlCheck().getId()), due.stream().map(UrlCheck::getId).toList());
+    }
 }
@@ -0,0 +1,105 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkOutboxRelay;
+import com.vantage.api.worker.LinkValidationQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkOutboxRelayTest {
+
+    private static final long CREATED_AT = 1_760_000_000_000L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LinkValidationQueue validationQueue;
+
+    private MeterRegistry meterRegistry;
+    private LinkOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new LinkOutboxRelay(jdbcTemplate, TransactionOperations.withoutTransaction(), validationQueue,
+                meterRegistry, 2);
+    }
+
+    /** Runs the relay's row mapper over {@code count} fake outbox rows. */
+    private static Answer<List<Object>> rows(int count) {
+        return invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn((long) i);
+                when(rs.getObject("url_check_id", UUID.class)).thenReturn(UUID.randomUUID());
+                when(rs.getString("url")).thenReturn("https://example.com/" + i);
+                when(rs.getTimestamp("created_at")).thenReturn(new Timestamp(CREATED_AT));
+                mapped.add(mapper.mapRow(rs, i));
+            }
+            return mapped;
+        };
+    }
+
+    @Test
+    void shouldPublishFullBatchesBackToBackAndDeleteThem() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2)))
+                .thenAnswer(rows(2))
+                .thenAnswer(rows(1));
+
+        relay.relay();
+
+        // Full batch of 2, then a short batch of 1 ends the drain
+        // Queue wait counts from the outbox row's creation, not from the relay
+        verify(validationQueue).publishAll(argThat((List<LinkValidationTask> tasks) -> tasks.size() == 2
+                && tasks.stream().allMatch(task -> task.enqueuedAt() == CREATED_AT)));
+        verify(validationQueue).publishAll(argThat((List<LinkValidationTask> tasks) -> tasks.size() == 1));
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> ids) -> ids.size() == 2));
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> ids) -> ids.size() == 1));
+        assertEquals(3.0, meterRegistry.get("link.outbox.relayed").counter().count());
+    }
+
+    @Test
+    void shouldDoNothingWhenOutboxIsEmpty() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(validationQueue);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void shouldKeepRowsWhenPublishFails() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenAnswer(rows(2));
+        doThrow(new RedisConnectionFailureException("down")).when(validationQueue).publishAll(anyList());
+
+        relay.relay();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0.0, meterRegistry.get("link.outbox.relayed").counter().count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.vantage.api.service;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.LinkPipelineHealthIndicator;
+import com.vantage.api.worker.LinkPipelineMonitor;
+import com.vantage.api.worker.LinkTaskQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkPipelineMonitorTest {
+
+    @Mock
+    private LinkTaskQueue taskQueue;
+
+    @Mock
+    private UrlCheckRepository urlCheckRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LinkPipelineMonitor monitor;
+    private LinkPipelineHealthIndicator health;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 20 results/s per node, lag target of 10s: each node covers a depth of 200
+        monitor = new LinkPipelineMonitor(taskQueue, urlCheckRepository, meterRegistry, Duration.ofSeconds(10), 20, 1, 8);
+        health = new LinkPipelineHealthIndicator(monitor, Duration.ofMinutes(15));
+    }
+
+    @Test
+    void shouldReportDepthAgeAndDesiredReplicas() {
+        when(taskQueue.backlog()).thenReturn(1000L);
+        when(urlCheckRepository.findOldestCreatedAt(LinkStatus.PENDING)).thenReturn(LocalDateTime.now().minusMinutes(2));
+
+        monitor.sample();
+
+        assertEquals(1000, meterRegistry.get("link.queue.depth").gauge().value());
+        assertEquals(5, meterRegistry.get("link.scaling.desired_replicas").gauge().value());
+        double ageSeconds = meterRegistry.get("link.queue.oldest_pending_age").timeGauge().value(TimeUnit.SECONDS);
+        assertTrue(ageSeconds >= 119 && ageSeconds < 130, "age was " + ageSeconds);
+    }
+
+    @Test
+    void shouldClampDesiredReplicas() {
+        when(taskQueue.backlog()).thenReturn(0L, 1_000_000L);
+
+        monitor.sample();
+        assertEquals(1, monitor.snapshot().desiredReplicas());
+
+        monitor.sample();
+        assertEquals(8, monitor.snapshot().desiredReplicas());
+    }
+
+    @Test
+    void shouldDeriveRatesFromTheCounters() throws Exception {
+        when(taskQueue.backlog()).thenReturn(10L);
+        monitor.sample();
+
+        LinkPipelineMonitor.enqueuedCounter(meterRegistry, "new").increment(50);
+        LinkPipelineMonitor.completedCounter(meterRegistry, LinkStatus.VALIDATED).increment(30);
+        Thread.sleep(50);
+        monitor.sample();
+
+        LinkPipelineMonitor.Snapshot snapshot = monitor.snapshot();
+        assertTrue(snapshot.enqueueRate() > 0);
+        assertTrue(snapshot.completionRate() > 0);
+        assertTrue(snapshot.enqueueRate() > snapshot.completionRate());
+        // The node had work waiting throughout, so its own throughput replaces the configured one
+        assertNotEquals(20.0, snapshot.workerThroughput());
+    }
+
+    @Test
+    void shouldKeepTheLastSnapshotWhenSamplingFails() {
+        when(taskQueue.backlog()).thenReturn(7L).thenThrow(new RedisConnectionFailureException("down"));
+
+        monitor.sample();
+        monitor.sample();
+
+        assertEquals(7, monitor.snapshot().depth());
+    }
+
+    @Test
+    void shouldReportUnknownUntilSampled() {
+        assertEquals(Status.UNKNOWN, health.health().getStatus());
+    }
+
+    @Test
+    void shouldReportUpWithPipelineDetails() {
+        when(taskQueue.backlog()).thenReturn(3L);
+        monitor.sample();
+
+        Health result = health.health();
+
+        assertEquals(Status.UP, result.getStatus());
+        assertEquals(3L, result.getDetails().get("queueDepth"));
+        assertEquals(1, result.getDetails().get("desiredReplicas"));
+    }
+
+    @Test
+    void shouldReportLaggingNotDownWhenTheOldestCheckIsTooOld() {
+        when(taskQueue.backlog()).thenReturn(3L);
+        when(urlCheckRepository.findOldestCreatedAt(LinkStatus.PENDING)).thenReturn(LocalDateTime.now().minusHours(1));
+        monitor.sample();
+
+        assertEquals("LAGGING", health.health().getStatus().getCode());
+    }
+}
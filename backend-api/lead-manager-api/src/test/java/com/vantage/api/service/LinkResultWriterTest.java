@@ -0,0 +1,112 @@
+package com.vantage.api.service;
+
+import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.worker.LinkResultWriter;
+import com.vantage.api.worker.ProbeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkResultWriterTest {
+
+    private static final String STATUS_ONLY_SQL =
+            "UPDATE url_checks SET status = ?, last_checked = ?, updated_at = ? WHERE id = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+    private LinkResultWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new LinkResultWriter(jdbcTemplate, meterRegistry, 3);
+    }
+
+    @Test
+    void shouldBufferUntilBatchSizeIsReached() {
+        CompletableFuture<Void> first = writer.submit(UUID.randomUUID(), ExternalLink.LinkStatus.VALIDATED, LocalDateTime.now());
+        CompletableFuture<Void> second = writer.submit(UUID.randomUUID(), ExternalLink.LinkStatus.BROKEN, LocalDateTime.now());
+
+        verifyNoInteractions(jdbcTemplate);
+        assertFalse(first.isDone());
+
+        CompletableFuture<Void> third = writer.submit(UUID.randomUUID(), ExternalLink.LinkStatus.VALIDATED, LocalDateTime.now());
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((List<Object[]> args) -> args.size() == 3));
+        assertTrue(first.isDone() && second.isDone() && third.isDone());
+        assertEquals(3.0, meterRegistry.get("link.writeback.flush.size").summary().totalAmount());
+        assertEquals(2.0, meterRegistry.get("link.validation.completed").tag("outcome", "validated").counter().count());
+        assertEquals(1.0, meterRegistry.get("link.validation.completed").tag("outcome", "broken").counter().count());
+    }
+
+    @Test
+    void shouldWritePartialBatchOnScheduledFlush() {
+        UUID id = UUID.randomUUID();
+        CompletableFuture<Void> written = writer.submit(id, ExternalLink.LinkStatus.BROKEN, LocalDateTime.now());
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[0].equals("BROKEN") && args.get(0)[3].equals(id)));
+        assertTrue(written.isDone());
+        assertEquals(1, meterRegistry.get("link.writeback.flush.latency").timer().count());
+    }
+
+    @Test
+    void shouldFailFuturesWhenBatchFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("pool exhausted"));
+
+        CompletableFuture<Void> written = writer.submit(UUID.randomUUID(), ExternalLink.LinkStatus.VALIDATED, LocalDateTime.now());
+        writer.flush();
+
+        assertTrue(written.isCompletedExceptionally());
+    }
+
+    @Test
+    void shouldStoreResponseValidatorsInTheSameFlush() {
+        UUID probed = UUID.randomUUID();
+        writer.submit(UUID.randomUUID(), ExternalLink.LinkStatus.TIMEOUT, LocalDateTime.now());
+        writer.submit(probed, ExternalLink.LinkStatus.VALIDATED, LocalDateTime.now(),
+                new ProbeResponse(304, "\"v1\"", null));
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(eq(STATUS_ONLY_SQL),
+                argThat((List<Object[]> args) -> args.size() == 1));
+        verify(jdbcTemplate).batchUpdate(contains("etag = ?"),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[3].equals(304)
+                        && args.get(0)[4].equals("\"v1\"") && args.get(0)[11].equals(probed)));
+        assertEquals(2.0, meterRegistry.get("link.writeback.flush.size").summary().totalAmount());
+    }
+
+    @Test
+    void shouldDropValidatorsTooLongForTheirColumns() {
+        UUID probed = UUID.randomUUID();
+        writer.submit(probed, ExternalLink.LinkStatus.VALIDATED, LocalDateTime.now(),
+                new ProbeResponse(200, "\"" + "x".repeat(2000) + "\"", "Sun, 1 Mar 2026 10:15:30 GMT"));
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(contains("etag = ?"),
+                argThat((List<Object[]> args) -> args.size() == 1 && args.get(0)[9] == null
+                        && args.get(0)[10].equals("Sun, 1 Mar 2026 10:15:30 GMT")));
+    }
+}
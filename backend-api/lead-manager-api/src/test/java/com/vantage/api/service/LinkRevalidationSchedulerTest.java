@@ -0,0 +1,92 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.entity.UrlCheck;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.LinkRevalidationScheduler;
+import com.vantage.api.worker.LinkTaskQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkRevalidationSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID START_ID = new UUID(0, 0);
+
+    @Mock
+    private UrlCheckRepository urlCheckRepository;
+
+    @Mock
+    private LinkTaskQueue taskQueue;
+
+    private LinkRevalidationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // 10/s over a 1s tick, backlog capped at 50% of 100; jitter off so enqueues are synchronous
+        scheduler = new LinkRevalidationScheduler(urlCheckRepository, taskQueue, new SimpleMeterRegistry(),
+                Duration.ofHours(24), Duration.ofSeconds(1), 10, 0.5, 100, 0);
+    }
+
+    private static UrlCheck check(String url, LocalDateTime lastChecked) {
+        UrlCheck check = new UrlCheck();
+        check.setId(UUID.randomUUID());
+        check.setCanonicalUrl(url);
+        check.setLastChecked(lastChecked);
+        return check;
+    }
+
+    @Test
+    void shouldEnqueueDueChecksAndAdvanceKeysetCursor() {
+        UrlCheck oldest = check("https://a.com/", LocalDateTime.now().minusDays(3));
+        UrlCheck older = check("https://b.com/", LocalDateTime.now().minusDays(2));
+        when(taskQueue.backlog()).thenReturn(0L);
+        when(urlCheckRepository.findDueForRevalidation(any(), eq(START), eq(START_ID), eq(10)))
+                .thenReturn(List.of(oldest, older), List.of());
+        when(urlCheckRepository.findDueForRevalidation(any(), eq(older.getLastChecked()), eq(older.getId()), eq(10)))
+                .thenReturn(List.of());
+
+        scheduler.tick();
+        scheduler.tick();
+
+        verify(taskQueue).publish(new LinkValidationTask(oldest.getId(), "https://a.com/"));
+        verify(taskQueue).publish(new LinkValidationTask(older.getId(), "https://b.com/"));
+        // Second tick continues after the cursor, finds nothing, and wraps back to the start
+        verify(urlCheckRepository, times(2)).findDueForRevalidation(any(), eq(START), eq(START_ID), eq(10));
+    }
+
+    @Test
+    void shouldLimitPageToCapacityHeadroom() {
+        when(taskQueue.backlog()).thenReturn(47L);
+        when(urlCheckRepository.findDueForRevalidation(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        scheduler.tick();
+
+        verify(urlCheckRepository).findDueForRevalidation(any(), eq(START), eq(START_ID), eq(3));
+    }
+
+    @Test
+    void shouldHoldBackWhenBacklogExceedsCapacityShare() {
+        when(taskQueue.backlog()).thenReturn(80L);
+
+        scheduler.tick();
+
+        verifyNoInteractions(urlCheckRepository);
+        verify(taskQueue, never()).publish(any());
+    }
+}
@@ -2,15 +2,19 @@ package com.vantage.api.service;
 
 import com.vantage.api.dto.LinkValidationTask;
 import com.vantage.api.entity.ExternalLink;
+import com.vantage.api.entity.UrlCheck;
 import com.vantage.api.exception.ResourceNotFoundException;
 import com.vantage.api.repository.ExternalLinkRepository;
+import com.vantage.api.repository.UrlCheckRepository;
+import com.vantage.api.worker.LinkTaskOutbox;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,14 +30,31 @@ public class LinkServiceTest {
     private ExternalLinkRepository repository;
 
     @Mock
-    private RedisTemplate<String, LinkValidationTask> redisTemplate;
+    private UrlCheckRepository urlCheckRepository;
+
+    @Mock
+    private LinkTaskOutbox taskOutbox;
 
-    @InjectMocks
     private LinkService linkService;
 
+    @BeforeEach
+    void setUp() {
+        linkService = new LinkService(repository, urlCheckRepository, taskOutbox, Duration.ofHours(24));
+    }
+
+    private UrlCheck stubCheck(String canonicalUrl, boolean created, LocalDateTime lastChecked) {
+        UrlCheck check = new UrlCheck();
+        check.setId(UUID.randomUUID());
+        check.setCanonicalUrl(canonicalUrl);
+        check.setLastChecked(lastChecked);
+        when(urlCheckRepository.insertIfAbsent(canonicalUrl)).thenReturn(created ? 1 : 0);
+        when(urlCheckRepository.findByCanonicalUrl(canonicalUrl)).thenReturn(Optional.of(check));
+        return check;
+    }
+
     // --- CREATE ---
     @Test
-    void shouldSaveLinkAndSendMessage() {
+    void shouldSaveLinkAndWriteOutboxEntry() {
         String url = "https://test.com";
         UUID projectId = UUID.randomUUID();
         String name = "Test Link";
@@ -44,6 +65,7 @@ public class LinkServiceTest {
         savedLink.setProjectId(projectId);
         savedLink.setName(name);
 
+        stubCheck("https://test.com/", true, null);
         when(repository.save(any(ExternalLink.class))).thenReturn(savedLink);
 
         ExternalLink result = linkService.createValidationTask(url, projectId, name);
@@ -53,7 +75,7 @@ public class LinkServiceTest {
         assertEquals(projectId, result.getProjectId());
         assertEquals(name, result.getName());
         verify(repository, times(1)).save(any(ExternalLink.class));
-        verify(redisTemplate, times(1)).convertAndSend(eq("link-validation"), any(LinkValidationTask.class));
+        verify(taskOutbox, times(1)).add(any(LinkValidationTask.class));
     }
 
     @Test
@@ -63,6 +85,7 @@ public class LinkServiceTest {
         savedLink.setId(UUID.randomUUID());
         savedLink.setUrl(url);
 
+        stubCheck("https://standalone.com/", true, null);
         when(repository.save(any(ExternalLink.class))).thenReturn(savedLink);
 
         ExternalLink result = linkService.createValidationTask(url, null, null);
@@ -73,6 +96,38 @@ public class LinkServiceTest {
         verify(repository).save(any(ExternalLink.class));
     }
 
+    // --- CREATE (SHARED URL CHECK) ---
+    @Test
+    void shouldReuseFreshCheckWithoutEnqueueing() {
+        UrlCheck check = stubCheck("https://shared.com/deck.pdf", false, LocalDateTime.now().minusMinutes(5));
+        when(repository.save(any(ExternalLink.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        ExternalLink result = linkService.createValidationTask("HTTPS://Shared.com:443/deck.pdf#p2", null, null);
+
+        assertSame(check, result.getUrlCheck());
+        verify(taskOutbox, never()).add(any(LinkValidationTask.class));
+    }
+
+    @Test
+    void shouldEnqueueWhenSharedCheckIsStale() {
+        UrlCheck check = stubCheck("https://shared.com/deck.pdf", false, LocalDateTime.now().minusDays(2));
+        when(repository.save(any(ExternalLink.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        linkService.createValidationTask("https://shared.com/deck.pdf", null, null);
+
+        verify(taskOutbox).add(new LinkValidationTask(check.getId(), "https://shared.com/deck.pdf"));
+    }
+
+    @Test
+    void shouldNotEnqueueAgainWhileSharedCheckIsStillPending() {
+        stubCheck("https://shared.com/deck.pdf", false, null);
+        when(repository.save(any(ExternalLink.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        linkService.createValidationTask("https://shared.com/deck.pdf", null, null);
+
+        verify(taskOutbox, never()).add(any(LinkValidationTask.class));
+    }
+
     // --- READ ---
     @Test
     void shouldReturnAllLinks() {
@@ -119,6 +174,7 @@ public class LinkServiceTest {
         existingLink.setId(id);
         existingLink.setUrl(oldUrl);
 
+        stubCheck("https://new.com/", true, null);
         when(repository.findById(id)).thenReturn(Optional.of(existingLink));
         when(repository.save(any(ExternalLink.class))).thenAnswer(i -> i.getArguments()[0]);
 
@@ -126,8 +182,9 @@ public class LinkServiceTest {
 
         verify(repository).save(argThat(link -> link.getUrl().equals(newUrl)
                 && link.getStatus() == ExternalLink.LinkStatus.PENDING
+                && link.getUrlCheck().getCanonicalUrl().equals("https://new.com/")
                 && link.getName().equals(name)));
-        verify(redisTemplate).convertAndSend(eq("link-validation"), any(LinkValidationTask.class));
+        verify(taskOutbox).add(any(LinkValidationTask.class));
     }
 
     // --- UPDATE (URL SAME) ---
@@ -147,9 +204,9 @@ public class LinkServiceTest {
 
         linkService.updateLink(id, url, projectId, name);
 
-        // Should save with updated name and projectId but NOT send to Redis
+        // Should save with updated name and projectId but NOT queue a probe
         verify(repository).save(argThat(link -> link.getName().equals(name) && link.getProjectId().equals(projectId)));
-        verify(redisTemplate, never()).convertAndSend(anyString(), any(LinkValidationTask.class));
+        verify(taskOutbox, never()).add(any(LinkValidationTask.class));
     }
 
     @Test
@@ -0,0 +1,137 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkRetryQueue;
+import com.vantage.api.worker.LinkStreamConsumer;
+import com.vantage.api.worker.LinkValidationQueue;
+import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.TaskShedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkStreamConsumerTest {
+
+    @Mock
+    private LinkWorkerService workerService;
+
+    @Mock
+    private LinkValidationQueue queue;
+
+    @Mock
+    private LinkRetryQueue retryQueue;
+
+    private LinkStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        // Run dispatched work inline so assertions see its effects immediately
+        consumer = new LinkStreamConsumer(workerService, queue, retryQueue, Runnable::run, Duration.ofMinutes(1), 100,
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldAcknowledgeAfterSuccessfulValidation() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://google.com");
+        MapRecord<String, String, Object> record = StreamRecords.newRecord()
+                .in("link-validation")
+                .withId(RecordId.of("1-0"))
+                .ofMap(Map.<String, Object>of(LinkValidationQueue.TASK_FIELD, task));
+        when(workerService.handleMessage(task)).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.onMessage(record);
+
+        verify(workerService).handleMessage(task);
+        verify(queue).acknowledge(RecordId.of("1-0"));
+    }
+
+    @Test
+    void shouldLeaveEntryPendingWhenValidationFails() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://google.com");
+        MapRecord<String, String, Object> record = StreamRecords.newRecord()
+                .in("link-validation")
+                .withId(RecordId.of("2-0"))
+                .ofMap(Map.<String, Object>of(LinkValidationQueue.TASK_FIELD, task));
+        when(workerService.handleMessage(task))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("DB down")));
+
+        consumer.onMessage(record);
+
+        verify(queue, never()).acknowledge(any(RecordId.class));
+    }
+
+    @Test
+    void shouldProcessAndAcknowledgeReclaimedEntries() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://github.com");
+        MapRecord<String, String, LinkValidationTask> stalled = StreamRecords.newRecord()
+                .in("link-validation")
+                .withId(RecordId.of("3-0"))
+                .ofMap(Map.of(LinkValidationQueue.TASK_FIELD, task));
+        when(queue.reclaim(Duration.ofMinutes(1), 100)).thenReturn(List.of(stalled));
+        when(workerService.handleMessage(task)).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.reclaimStalled();
+
+        verify(workerService).handleMessage(task);
+        verify(queue).acknowledge(RecordId.of("3-0"));
+    }
+
+    @Test
+    void shouldPruneIdleConsumersEvenWhenReclaimFails() {
+        when(queue.reclaim(Duration.ofMinutes(1), 100)).thenThrow(new RuntimeException("Redis down"));
+
+        consumer.reclaimStalled();
+
+        verify(queue).pruneIdleConsumers(Duration.ofMinutes(1));
+    }
+
+    private static MapRecord<String, String, Object> record(String id, LinkValidationTask task) {
+        return StreamRecords.newRecord()
+                .in("link-validation")
+                .withId(RecordId.of(id))
+                .ofMap(Map.<String, Object>of(LinkValidationQueue.TASK_FIELD, task));
+    }
+
+    @Test
+    void shouldSpillToRetryQueueAndAckWhenExecutorIsFull() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://google.com");
+        LinkStreamConsumer full = new LinkStreamConsumer(workerService, queue, retryQueue,
+                command -> { throw new RejectedExecutionException("full"); },
+                Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+
+        full.onMessage(record("4-0", task));
+
+        verify(retryQueue).defer(task, Duration.ofSeconds(5));
+        verify(queue).acknowledge(RecordId.of("4-0"));
+        verifyNoInteractions(workerService);
+    }
+
+    @Test
+    void shouldLeaveShedEntriesPending() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://google.com");
+        LinkStreamConsumer full = new LinkStreamConsumer(workerService, queue, retryQueue,
+                command -> { throw new TaskShedException("full"); },
+                Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+
+        full.onMessage(record("5-0", task));
+
+        verifyNoInteractions(retryQueue, workerService);
+        verify(queue, never()).acknowledge(any(RecordId.class));
+    }
+}
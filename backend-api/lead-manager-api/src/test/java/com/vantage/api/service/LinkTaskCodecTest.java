@@ -0,0 +1,84 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkTaskCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkTaskCodecTest {
+
+    private final LinkTaskCodec codec = new LinkTaskCodec();
+
+    @Test
+    void shouldRoundTripTaskInAFractionOfTheJsonSize() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://example.com/ünïcode/deck.pdf", 3, 15_000,
+                1_760_000_000_000L);
+
+        byte[] binary = codec.serialize(task);
+
+        assertEquals(task, codec.deserialize(binary));
+        assertEquals(LinkTaskCodec.VERSION, binary[0]);
+        // version + kind + uuid + 1-byte attempt + 2-byte budget + 1-byte length + url + 6-byte enqueuedAt
+        // + two absent validators
+        assertEquals(2 + 16 + 1 + 2 + 1 + task.url().getBytes(StandardCharsets.UTF_8).length + 6 + 2,
+                binary.length);
+        assertTrue(binary.length * 2 < RedisSerializer.json().serialize(task).length);
+    }
+
+    @Test
+    void shouldRoundTripValidators() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://example.com/", 1)
+                .withValidators("W/\"5f-abc\"", "Tue, 01 Sep 2026 10:00:00 GMT");
+        LinkValidationTask etagOnly = task.withValidators("\"v1\"", null);
+
+        assertEquals(task, codec.deserialize(codec.serialize(task)));
+        assertEquals(etagOnly, codec.deserialize(codec.serialize(etagOnly)));
+    }
+
+    @Test
+    void shouldRoundTripDeadLetters() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://example.com/", 3);
+
+        DeadLetter withReason = new DeadLetter(task, "HTTP 503 from example.com", 1_700_000_000_000L);
+        DeadLetter withoutReason = new DeadLetter(task, null, 1L);
+
+        assertEquals(withReason, codec.deserialize(codec.serialize(withReason)));
+        assertEquals(withoutReason, codec.deserialize(codec.serialize(withoutReason)));
+    }
+
+    @Test
+    void shouldStillReadJsonWrittenBeforeTheSwitch() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://example.com/");
+
+        assertEquals(task, codec.deserialize(RedisSerializer.json().serialize(task)));
+    }
+
+    @Test
+    void shouldReadVersionOneWithoutEnqueueTime() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://example.com/", 2, 5_000);
+        // Version 1 is version 3 minus the trailing enqueuedAt and validators, a byte each when unset
+        byte[] v1 = Arrays.copyOf(codec.serialize(task), codec.serialize(task).length - 3);
+        v1[0] = 1;
+
+        assertEquals(task, codec.deserialize(v1));
+    }
+
+    @Test
+    void shouldRejectUnknownVersionsAndTruncatedPayloads() {
+        byte[] binary = codec.serialize(new LinkValidationTask(UUID.randomUUID(), "https://example.com/"));
+
+        byte[] future = binary.clone();
+        future[0] = LinkTaskCodec.VERSION + 1;
+        assertThrows(SerializationException.class, () -> codec.deserialize(future));
+        assertThrows(SerializationException.class, () -> codec.deserialize(Arrays.copyOf(binary, binary.length - 3)));
+        assertThrows(SerializationException.class, () -> codec.serialize("not a task"));
+    }
+}
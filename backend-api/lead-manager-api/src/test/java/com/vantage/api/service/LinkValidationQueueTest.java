@@ -0,0 +1,58 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkValidationQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoConsumers;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkValidationQueueTest {
+
+    @Mock
+    private RedisTemplate<String, LinkValidationTask> redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOps;
+
+    private LinkValidationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForStream()).thenReturn(streamOps);
+        queue = new LinkValidationQueue(redisTemplate, "link-validation", "link-workers", "worker-self");
+    }
+
+    private static List<Object> consumer(String name, long pending, Duration idle) {
+        return List.of("name", name, "pending", pending, "idle", idle.toMillis());
+    }
+
+    @Test
+    void shouldDeleteOnlyIdleConsumersWithNothingPending() {
+        when(streamOps.consumers("link-validation", "link-workers")).thenReturn(XInfoConsumers.fromList("link-workers",
+                List.of(consumer("worker-dead", 0, Duration.ofHours(2)),
+                        consumer("worker-crashed", 3, Duration.ofHours(2)),
+                        consumer("worker-busy", 0, Duration.ofSeconds(2)),
+                        consumer("worker-self", 0, Duration.ofHours(2)))));
+        when(streamOps.deleteConsumer(eq("link-validation"), any(Consumer.class))).thenReturn(true);
+
+        assertEquals(1, queue.pruneIdleConsumers(Duration.ofMinutes(1)));
+
+        verify(streamOps).deleteConsumer("link-validation", Consumer.from("link-workers", "worker-dead"));
+        verify(streamOps, times(1)).deleteConsumer(eq("link-validation"), any(Consumer.class));
+    }
+}
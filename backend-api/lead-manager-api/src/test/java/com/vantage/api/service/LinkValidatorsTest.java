@@ -0,0 +1,184 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.HostHealth;
+import com.vantage.api.worker.HostCircuitBreaker;
+import com.vantage.api.worker.LinkValidator;
+import com.vantage.api.worker.LinkValidators;
+import com.vantage.api.worker.ProbeResponse;
+import com.vantage.api.worker.TransientProbeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkValidatorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(meterRegistry, Duration.ofSeconds(10), 10,
+            20, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofSeconds(30));
+
+    /** Claims {@code stub://{id}} links; every id is live unless listed in {@code answers}. */
+    private static final class StubValidator implements LinkValidator {
+        final List<List<String>> calls = new CopyOnWriteArrayList<>();
+        final Map<String, ProbeResponse> answers;
+        volatile boolean down;
+
+        StubValidator(Map<String, ProbeResponse> answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        public String name() {
+            return "stub";
+        }
+
+        @Override
+        public String resourceId(String url) {
+            return url.startsWith("stub://") ? url.substring(7) : null;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return 3;
+        }
+
+        @Override
+        public Map<String, ProbeResponse> validate(List<String> resourceIds) throws IOException {
+            calls.add(resourceIds);
+            if (down) {
+                throw new IOException("connection refused");
+            }
+            Map<String, ProbeResponse> responses = new HashMap<>();
+            for (String id : resourceIds) {
+                if (!id.startsWith("missing")) {
+                    responses.put(id, answers.getOrDefault(id, new ProbeResponse(200, null, null)));
+                }
+            }
+            return responses;
+        }
+    }
+
+    private LinkValidators validators(StubValidator stub) {
+        return new LinkValidators(List.of(stub), meterRegistry, circuitBreaker, 4, 4, Runnable::run);
+    }
+
+    @Test
+    void shouldLeaveUnclaimedLinksToTheGenericProbe() {
+        LinkValidators validators = validators(new StubValidator(Map.of()));
+
+        assertNull(validators.match("https://example.com/a"));
+        assertEquals("a", validators.match("stub://a").resourceId());
+        assertNull(LinkValidators.none().match("stub://a"));
+    }
+
+    @Test
+    void shouldSendAFullBatchAtOnceAndShareLookupsOfTheSameId() {
+        StubValidator stub = new StubValidator(Map.of());
+        LinkValidators validators = validators(stub);
+
+        CompletableFuture<ProbeResponse> first = validators.validate(validators.match("stub://a"));
+        CompletableFuture<ProbeResponse> again = validators.validate(validators.match("stub://a"));
+        validators.validate(validators.match("stub://b"));
+        assertTrue(stub.calls.isEmpty());
+        validators.validate(validators.match("stub://c"));
+
+        // Three distinct ids fill the batch; the duplicate rides along
+        assertEquals(List.of(List.of("a", "b", "c")), stub.calls);
+        assertEquals(200, first.join().statusCode());
+        assertEquals(200, again.join().statusCode());
+        assertEquals(3.0, meterRegistry.get("link.validator.batch.size").tag("provider", "stub").summary().totalAmount());
+    }
+
+    @Test
+    void shouldFlushPartialBatchesOnTheTimer() {
+        StubValidator stub = new StubValidator(Map.of("gone", new ProbeResponse(410, null, null)));
+        LinkValidators validators = validators(stub);
+
+        CompletableFuture<ProbeResponse> gone = validators.validate(validators.match("stub://gone"));
+        CompletableFuture<ProbeResponse> missing = validators.validate(validators.match("stub://missing"));
+        validators.flush();
+        validators.flush();
+
+        assertEquals(1, stub.calls.size());
+        assertEquals(410, gone.join().statusCode());
+        // Not in the answer: not found
+        assertEquals(404, missing.join().statusCode());
+    }
+
+    @Test
+    void shouldRetryRateLimitedIdsAndWholeFailedBatches() {
+        StubValidator stub = new StubValidator(Map.of("busy", new ProbeResponse(429, null, null)));
+        LinkValidators validators = validators(stub);
+
+        CompletableFuture<ProbeResponse> busy = validators.validate(validators.match("stub://busy"));
+        CompletableFuture<ProbeResponse> fine = validators.validate(validators.match("stub://fine"));
+        validators.flush();
+        assertInstanceOf(TransientProbeException.class, assertThrows(ExecutionException.class, busy::get).getCause());
+        assertEquals(200, fine.join().statusCode());
+
+        stub.down = true;
+        CompletableFuture<ProbeResponse> unanswered = validators.validate(validators.match("stub://fine"));
+        validators.flush();
+        assertInstanceOf(TransientProbeException.class, assertThrows(ExecutionException.class, unanswered::get).getCause());
+        assertEquals(1.0, meterRegistry.get("link.validator.batch.failed").tag("provider", "stub").counter().count());
+        // A sample per call, not per link, on the provider's circuit
+        HostHealth health = circuitBreaker.health("stub").orElseThrow();
+        assertEquals(2, health.calls());
+        assertEquals(0.5, health.failureRate());
+    }
+
+    @Test
+    void shouldHoldBatchesBackWhileTheProviderHasNoCallSlotFree() {
+        StubValidator stub = new StubValidator(Map.of());
+        Queue<Runnable> started = new ArrayDeque<>();
+        LinkValidators validators = new LinkValidators(List.of(stub), meterRegistry, circuitBreaker, 1, 4, started::add);
+
+        CompletableFuture<ProbeResponse> first = validators.validate(validators.match("stub://a"));
+        validators.flush();
+        CompletableFuture<ProbeResponse> second = validators.validate(validators.match("stub://b"));
+        validators.flush();
+        assertEquals(1, started.size());
+
+        started.poll().run();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        // The finished call handed its slot to the waiting batch
+        started.poll().run();
+        assertEquals(List.of(List.of("a"), List.of("b")), stub.calls);
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    void shouldRefuseLookupsBeyondTheProvidersBacklog() {
+        StubValidator stub = new StubValidator(Map.of());
+        Queue<Runnable> started = new ArrayDeque<>();
+        // Batches of 3, one call at a time, a backlog of one round: 3 lookups outstanding
+        LinkValidators validators = new LinkValidators(List.of(stub), meterRegistry, circuitBreaker, 1, 1, started::add);
+
+        List<CompletableFuture<ProbeResponse>> accepted = List.of(
+                validators.validate(validators.match("stub://a")),
+                validators.validate(validators.match("stub://b")),
+                validators.validate(validators.match("stub://c")));
+        CompletableFuture<ProbeResponse> refused = validators.validate(validators.match("stub://d"));
+
+        assertInstanceOf(LinkValidators.ProviderBusyException.class,
+                assertThrows(ExecutionException.class, refused::get).getCause());
+        assertTrue(stub.calls.isEmpty());
+
+        // Answered lookups free their place
+        started.poll().run();
+        accepted.forEach(response -> assertTrue(response.isDone()));
+        assertFalse(validators.validate(validators.match("stub://d")).isDone());
+    }
+}
@@ -2,31 +2,58 @@ package com.vantage.api.service;
 
 import com.vantage.api.dto.LinkValidationTask;
 import com.vantage.api.entity.ExternalLink;
-import com.vantage.api.repository.ExternalLinkRepository;
+import com.vantage.api.worker.AdaptiveLimiter;
+import com.vantage.api.worker.HostCircuitBreaker;
+import com.vantage.api.worker.HostScheduler;
+import com.vantage.api.worker.LinkResultWriter;
+import com.vantage.api.worker.LinkRetryQueue;
+import com.vantage.api.worker.LinkValidator;
+import com.vantage.api.worker.LinkValidators;
 import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.ProbeCoalescer;
+import com.vantage.api.worker.ProbeHttpClients;
+import com.vantage.api.worker.ProbeLatencyMetrics;
+import com.vantage.api.worker.ProbeResponse;
+import com.vantage.api.worker.ProbeStrategyCache;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Optional;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class LinkWorkerServiceTest {
 
     @Mock
-    private ExternalLinkRepository repository;
+    private LinkResultWriter resultWriter;
+
+    @Mock
+    private LinkRetryQueue retryQueue;
 
     @Mock
     private HttpClient httpClient;
@@ -34,13 +61,28 @@ public class LinkWorkerServiceTest {
     @Mock
     private HttpResponse<Object> httpResponse;
 
+    private static final Duration BUDGET = Duration.ofSeconds(30);
+
     private MeterRegistry meterRegistry;
+    private HostScheduler hostScheduler;
+    private HostCircuitBreaker circuitBreaker;
+    private ProbeCoalescer probeCoalescer;
     private LinkWorkerService workerService;
 
     @BeforeEach
     void setUp() {
         meterRegistry = new SimpleMeterRegistry();
-        workerService = new LinkWorkerService(repository, httpClient, meterRegistry);
+        hostScheduler = new HostScheduler(meterRegistry, 8, Duration.ZERO, 500);
+        probeCoalescer = new ProbeCoalescer(meterRegistry);
+        circuitBreaker = newCircuitBreaker(meterRegistry);
+        workerService = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, false, 10, BUDGET);
+        lenient().when(resultWriter.submit(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+    }
+
+    private static HostCircuitBreaker newCircuitBreaker(MeterRegistry registry) {
+        return new HostCircuitBreaker(registry, Duration.ofSeconds(10), 10, 2, 0.5, Duration.ofSeconds(2), 0.8,
+                Duration.ofSeconds(30));
     }
 
     // --- SCENARIO 1: LINK IS VALID ---
@@ -48,16 +90,13 @@ public class LinkWorkerServiceTest {
     void shouldMarkAsValidatedWhenHttpStatusIs200() throws Exception {
         UUID linkId = UUID.randomUUID();
         LinkValidationTask task = new LinkValidationTask(linkId, "https://google.com");
-        ExternalLink link = new ExternalLink();
-        link.setId(linkId);
 
-        when(repository.findById(linkId)).thenReturn(Optional.of(link));
         lenient().when(httpClient.send(any(), any())).thenReturn(httpResponse);
         lenient().when(httpResponse.statusCode()).thenReturn(200);
 
         workerService.handleMessage(task);
 
-        verify(repository).save(argThat(l -> l.getStatus() == ExternalLink.LinkStatus.VALIDATED));
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
     }
 
     // --- SCENARIO 2: LINK IS BROKEN (404) ---
@@ -65,45 +104,437 @@ public class LinkWorkerServiceTest {
     void shouldMarkAsBrokenWhenHttpStatusIs404() throws Exception {
         UUID linkId = UUID.randomUUID();
         LinkValidationTask task = new LinkValidationTask(linkId, "https://bad-url.com");
-        ExternalLink link = new ExternalLink();
-        link.setId(linkId);
 
-        when(repository.findById(linkId)).thenReturn(Optional.of(link));
         lenient().when(httpClient.send(any(), any())).thenReturn(httpResponse);
         lenient().when(httpResponse.statusCode()).thenReturn(404);
 
         workerService.handleMessage(task);
 
-        verify(repository).save(argThat(l -> l.getStatus() == ExternalLink.LinkStatus.BROKEN));
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.BROKEN), any(), any());
     }
 
     // --- SCENARIO 3: NETWORK ERROR (TIMEOUT/DNS) ---
     @Test
-    void shouldMarkAsBrokenWhenConnectionFails() throws Exception {
+    void shouldScheduleRetryWhenConnectionFails() throws Exception {
         UUID linkId = UUID.randomUUID();
         LinkValidationTask task = new LinkValidationTask(linkId, "https://non-existent-site.test");
 
-        ExternalLink link = new ExternalLink();
-        link.setId(linkId);
+        lenient().when(httpClient.send(any(), any())).thenThrow(new IOException("Connection Refused"));
+        when(retryQueue.retryOrDeadLetter(eq(task), any())).thenReturn(true);
+
+        CompletableFuture<Void> handled = workerService.handleMessage(task);
+
+        assertTrue(handled.isDone() && !handled.isCompletedExceptionally());
+        verify(resultWriter, never()).submit(any(), any(), any(), any());
+    }
+
+    // --- SCENARIO 3b: NETWORK ERROR ON THE FINAL ATTEMPT ---
+    @Test
+    void shouldMarkAsBrokenOnceRetriesAreExhausted() throws Exception {
+        UUID linkId = UUID.randomUUID();
+        LinkValidationTask task = new LinkValidationTask(linkId, "https://non-existent-site.test", 3);
 
-        when(repository.findById(linkId)).thenReturn(Optional.of(link));
         lenient().when(httpClient.send(any(), any())).thenThrow(new IOException("Connection Refused"));
+        when(retryQueue.retryOrDeadLetter(eq(task), any())).thenReturn(false);
 
         workerService.handleMessage(task);
 
-        verify(repository).save(argThat(updatedLink -> updatedLink.getStatus() == ExternalLink.LinkStatus.BROKEN));
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.BROKEN), any(), any());
     }
 
-    // --- SCENARIO 4: LINK DELETED BEFORE PROCESSING ---
+    // --- SCENARIO 3c: GATEWAY ERROR IS TRANSIENT, 500 IS NOT ---
     @Test
-    void shouldDoNothingIfLinkNotFoundInDb() {
+    void shouldRetryOn503ButMarkBrokenOn500() throws Exception {
+        UUID retriedId = UUID.randomUUID();
+        UUID brokenId = UUID.randomUUID();
+
+        when(httpClient.send(any(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(503, 500);
+        when(retryQueue.retryOrDeadLetter(any(), any())).thenReturn(true);
+
+        workerService.handleMessage(new LinkValidationTask(retriedId, "https://flaky.com/a"));
+        workerService.handleMessage(new LinkValidationTask(brokenId, "https://flaky.com/b"));
+
+        verify(resultWriter, never()).submit(eq(retriedId), any(), any(), any());
+        verify(resultWriter).submit(eq(brokenId), eq(ExternalLink.LinkStatus.BROKEN), any(), any());
+    }
+
+    // --- SCENARIO 4: RESULT COMPLETES ONLY ONCE WRITTEN ---
+    @Test
+    void shouldCompleteOnlyAfterResultIsWritten() throws Exception {
         UUID linkId = UUID.randomUUID();
         LinkValidationTask task = new LinkValidationTask(linkId, "https://github.com");
+        CompletableFuture<Void> written = new CompletableFuture<>();
+
+        lenient().when(httpClient.send(any(), any())).thenReturn(httpResponse);
+        lenient().when(httpResponse.statusCode()).thenReturn(200);
+        when(resultWriter.submit(eq(linkId), any(), any(), any())).thenReturn(written);
+
+        CompletableFuture<Void> handled = workerService.handleMessage(task);
+
+        assertFalse(handled.isDone());
+        written.complete(null);
+        assertTrue(handled.isDone());
+    }
+
+    // --- SCENARIO 5: ASYNC PROBE, LINK IS VALID ---
+    @Test
+    void asyncProbeShouldMarkAsValidatedWhenHttpStatusIs200() throws Exception {
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, true, 10, BUDGET);
+        UUID linkId = UUID.randomUUID();
+
+        when(httpClient.sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+        when(httpResponse.statusCode()).thenReturn(204);
+
+        asyncWorker.handleMessage(new LinkValidationTask(linkId, "https://google.com"));
+
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        verify(httpClient, never()).send(any(), any());
+    }
+
+    // --- SCENARIO 6: ASYNC PROBE, NETWORK ERROR ---
+    @Test
+    void asyncProbeShouldScheduleRetryWhenRequestFails() {
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, true, 10, BUDGET);
+        UUID linkId = UUID.randomUUID();
+
+        when(httpClient.sendAsync(any(), any())).thenReturn(CompletableFuture.failedFuture(new IOException("reset")));
+        when(retryQueue.retryOrDeadLetter(any(), any())).thenReturn(true);
+
+        asyncWorker.handleMessage(new LinkValidationTask(linkId, "https://non-existent-site.test"));
+
+        verify(retryQueue).retryOrDeadLetter(eq(new LinkValidationTask(linkId, "https://non-existent-site.test")), any());
+        verify(resultWriter, never()).submit(any(), any(), any(), any());
+    }
+
+    // --- SCENARIO 7: IN-FLIGHT PERMIT HELD UNTIL THE RESPONSE ARRIVES ---
+    @Test
+    void asyncProbeShouldHoldPermitUntilResponseArrives() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, newCircuitBreaker(registry), new ProbeCoalescer(registry), retryQueue, httpClient,
+                registry, true, 10, BUDGET);
+        CompletableFuture<HttpResponse<Object>> pending = new CompletableFuture<>();
+
+        when(httpClient.sendAsync(any(), any())).thenReturn(pending);
+        when(httpResponse.statusCode()).thenReturn(200);
+
+        asyncWorker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://slow.example.com"));
+        assertEquals(1.0, registry.get("link.validation.in_flight").gauge().value());
+
+        pending.complete(httpResponse);
+        assertEquals(0.0, registry.get("link.validation.in_flight").gauge().value());
+    }
+
+    // --- SCENARIO 8: HOST QUEUE FULL ---
+    @Test
+    void shouldFailWithoutResultWhenHostQueueIsFull() {
+        HostScheduler busyScheduler = new HostScheduler(new SimpleMeterRegistry(), 1, Duration.ZERO, 0);
+        busyScheduler.reserve("busy.example.com"); // takes the only slot
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, busyScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient,
+                new SimpleMeterRegistry(), true, 10, BUDGET);
+
+        CompletableFuture<Void> handled = asyncWorker.handleMessage(
+                new LinkValidationTask(UUID.randomUUID(), "https://busy.example.com/file"));
+
+        assertTrue(handled.isCompletedExceptionally());
+        verify(resultWriter, never()).submit(any(), any(), any(), any());
+        verify(httpClient, never()).sendAsync(any(), any());
+    }
+
+    // --- SCENARIO 9: CONCURRENT TASKS FOR THE SAME URL SHARE ONE PROBE ---
+    @Test
+    void concurrentTasksForSameUrlShouldShareOneProbe() {
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, true, 10, BUDGET);
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        CompletableFuture<HttpResponse<Object>> pending = new CompletableFuture<>();
+
+        when(httpClient.sendAsync(any(), any())).thenReturn(pending);
+        when(httpResponse.statusCode()).thenReturn(200);
+
+        asyncWorker.handleMessage(new LinkValidationTask(firstId, "https://Example.com:443/deck.pdf"));
+        asyncWorker.handleMessage(new LinkValidationTask(secondId, "https://example.com/deck.pdf#page=2"));
+        pending.complete(httpResponse);
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+        verify(resultWriter).submit(eq(firstId), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        verify(resultWriter).submit(eq(secondId), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        assertEquals(1.0, meterRegistry.get("link.validation.coalesced").counter().count());
+    }
+
+    // --- SCENARIO 10: OPEN CIRCUIT DEFERS WITHOUT I/O ---
+    @Test
+    void openCircuitShouldDeferTaskWithoutProbing() throws Exception {
+        circuitBreaker.onFailure("down.example.com", 1_000);
+        circuitBreaker.onFailure("down.example.com", 1_000); // min-calls 2, 100% failures: opens
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://down.example.com/file");
+
+        CompletableFuture<Void> handled = workerService.handleMessage(task);
+
+        assertTrue(handled.isDone() && !handled.isCompletedExceptionally());
+        verify(retryQueue).defer(eq(task), any());
+        verify(httpClient, never()).send(any(), any());
+        verify(resultWriter, never()).submit(any(), any(), any(), any());
+    }
+
+    // --- SCENARIO 11: REQUEST TIMEOUT DERIVED FROM THE TASK BUDGET ---
+    @Test
+    void requestTimeoutShouldComeFromRemainingTaskBudget() throws Exception {
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(request.capture(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
 
-        when(repository.findById(linkId)).thenReturn(Optional.empty());
+        workerService.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://google.com", 0, 2_000));
+
+        Duration timeout = request.getValue().timeout().orElseThrow();
+        assertTrue(timeout.compareTo(Duration.ZERO) > 0 && timeout.compareTo(Duration.ofSeconds(2)) <= 0);
+    }
+
+    // --- SCENARIO 12: TIMEOUTS ARE RETRIED, THEN RECORDED AS TIMEOUT ---
+    @Test
+    void shouldMarkAsTimeoutWhenLastAttemptTimesOut() throws Exception {
+        UUID linkId = UUID.randomUUID();
+        when(httpClient.send(any(), any())).thenThrow(new HttpTimeoutException("request timed out"));
+        when(retryQueue.retryOrDeadLetter(any(), any())).thenReturn(false);
+
+        workerService.handleMessage(new LinkValidationTask(linkId, "https://stalled.example.com"));
+
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.TIMEOUT), any(), any());
+        assertEquals(1.0, meterRegistry.get("link.validation.timeout").counter().count());
+    }
+
+    // --- SCENARIO 13: SHUTDOWN CANCELS IN-FLIGHT PROBES ---
+    @Test
+    void shutdownShouldCancelInFlightProbeWithoutResult() {
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, true, 10, BUDGET);
+        CompletableFuture<HttpResponse<Object>> pending = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(), any())).thenReturn(pending);
+
+        CompletableFuture<Void> handled = asyncWorker.handleMessage(
+                new LinkValidationTask(UUID.randomUUID(), "https://slow.example.com"));
+        asyncWorker.cancelInFlight();
+
+        assertTrue(pending.isCancelled());
+        assertTrue(handled.isCompletedExceptionally());
+        assertEquals(0.0, meterRegistry.get("link.validation.in_flight").gauge().value());
+        verify(retryQueue, never()).retryOrDeadLetter(any(), any());
+        verify(resultWriter, never()).submit(any(), any(), any(), any());
+        // Nothing new is picked up once stopping
+        assertTrue(asyncWorker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://google.com"))
+                .isCompletedExceptionally());
+    }
+
+    // --- SCENARIO 14: LATENCY BROKEN DOWN BY STAGE ---
+    @Test
+    void shouldRecordEachStageTaggedByHostGroupAndOutcome() throws Exception {
+        long enqueuedAt = System.currentTimeMillis() - 2_000;
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://cdn.example.com/a", 0, 0, enqueuedAt);
+        when(httpClient.send(any(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(404);
 
         workerService.handleMessage(task);
 
-        verify(repository, never()).save(any());
+        for (String stage : List.of("queue_wait", "admission", "upstream", "writeback", "latency")) {
+            assertEquals(1, meterRegistry.get("link.validation." + stage)
+                    .tag("host_group", "example.com").tag("outcome", "broken").timer().count(), stage);
+        }
+        assertTrue(meterRegistry.get("link.validation.queue_wait").timer().totalTime(TimeUnit.SECONDS) >= 2);
+    }
+
+    // --- SCENARIO 15: CONDITIONAL REVALIDATION ---
+    @Test
+    void shouldSendValidatorsAndTreatNotModifiedAsValidated() throws Exception {
+        UUID linkId = UUID.randomUUID();
+        LinkValidationTask task = new LinkValidationTask(linkId, "https://google.com")
+                .withValidators("\"v1\"", "Tue, 01 Sep 2026 10:00:00 GMT");
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(request.capture(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(304);
+
+        workerService.handleMessage(task);
+
+        assertEquals("\"v1\"", request.getValue().headers().firstValue("If-None-Match").orElseThrow());
+        assertEquals("Tue, 01 Sep 2026 10:00:00 GMT",
+                request.getValue().headers().firstValue("If-Modified-Since").orElseThrow());
+        // A 304 without headers keeps the validators it was asked about
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.VALIDATED), any(),
+                eq(new ProbeResponse(304, "\"v1\"", "Tue, 01 Sep 2026 10:00:00 GMT")));
+        assertEquals(1.0, meterRegistry.get("link.validation.not_modified").counter().count());
+    }
+
+    @Test
+    void shouldProbeUnconditionallyWithoutValidators() throws Exception {
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(request.capture(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of("ETag", List.of("\"v2\"")), (name, value) -> true));
+
+        UUID linkId = UUID.randomUUID();
+        workerService.handleMessage(new LinkValidationTask(linkId, "https://google.com"));
+
+        assertTrue(request.getValue().headers().firstValue("If-None-Match").isEmpty());
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.VALIDATED), any(),
+                eq(new ProbeResponse(200, "\"v2\"", null)));
+    }
+
+    // --- SCENARIO 16: HOSTS THAT REFUSE HEAD ---
+    @Test
+    void shouldFallBackFromRefusedHeadAndRememberTheHost() throws Exception {
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(requests.capture(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(405, 206, 206);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        workerService.handleMessage(new LinkValidationTask(first, "https://files.example.com/a.pdf"));
+        workerService.handleMessage(new LinkValidationTask(second, "https://files.example.com/b.pdf"));
+
+        assertEquals(List.of("HEAD", "GET", "GET"), requests.getAllValues().stream().map(HttpRequest::method).toList());
+        assertEquals("bytes=0-0", requests.getAllValues().get(2).headers().firstValue("Range").orElseThrow());
+        verify(resultWriter).submit(eq(first), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        verify(resultWriter).submit(eq(second), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        assertEquals(1.0, meterRegistry.get("link.probe.fallback").tag("strategy", "range_get").counter().count());
+    }
+
+    @Test
+    void shouldFallBackAsynchronouslyAndKeepAGenuineRefusal() throws Exception {
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer, retryQueue, httpClient, meterRegistry, true, 10, BUDGET);
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.sendAsync(requests.capture(), any())).thenReturn(CompletableFuture.completedFuture(httpResponse));
+        when(httpResponse.statusCode()).thenReturn(403, 403);
+        UUID linkId = UUID.randomUUID();
+
+        asyncWorker.handleMessage(new LinkValidationTask(linkId, "https://private.example.com/doc")).join();
+
+        // Range GET is refused too: the 403 is the link's real answer and nothing is learned
+        assertEquals(List.of("HEAD", "GET"), requests.getAllValues().stream().map(HttpRequest::method).toList());
+        verify(resultWriter).submit(eq(linkId), eq(ExternalLink.LinkStatus.BROKEN), any(), any());
+        assertEquals(0.0, meterRegistry.get("link.probe.strategy.hosts").gauge().value());
+    }
+
+    // --- SCENARIO 17: PROVIDER LINKS GO THROUGH A BATCHED VALIDATOR ---
+    @Test
+    void shouldValidateProviderLinksInOneBatchAndProbeTheRest() throws Exception {
+        List<List<String>> calls = new ArrayList<>();
+        LinkValidator drive = new LinkValidator() {
+            @Override
+            public String name() {
+                return "drive";
+            }
+
+            @Override
+            public String resourceId(String url) {
+                return url.startsWith("https://drive.google.com/file/d/") ? url.substring(32) : null;
+            }
+
+            @Override
+            public int maxBatchSize() {
+                return 100;
+            }
+
+            @Override
+            public Map<String, ProbeResponse> validate(List<String> ids) {
+                calls.add(ids);
+                return Map.of("live", new ProbeResponse(200, null, null), "busy", new ProbeResponse(429, null, null));
+            }
+        };
+        LinkValidators validators = new LinkValidators(List.of(drive), meterRegistry, circuitBreaker, 4, 4, Runnable::run);
+        LinkWorkerService worker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer,
+                retryQueue, ProbeHttpClients.of(httpClient), meterRegistry, false, AdaptiveLimiter.fixed(10, meterRegistry),
+                new ProbeLatencyMetrics(meterRegistry), new ProbeStrategyCache(meterRegistry), validators, BUDGET);
+        when(httpClient.send(any(), any())).thenReturn(httpResponse);
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(retryQueue.retryOrDeadLetter(any(), any())).thenReturn(true);
+        UUID live = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        UUID busy = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        CompletableFuture<Void> handled = CompletableFuture.allOf(
+                worker.handleMessage(new LinkValidationTask(live, "https://drive.google.com/file/d/live")),
+                worker.handleMessage(new LinkValidationTask(gone, "https://drive.google.com/file/d/gone")),
+                worker.handleMessage(new LinkValidationTask(busy, "https://drive.google.com/file/d/busy")),
+                worker.handleMessage(new LinkValidationTask(other, "https://example.com/cut.mov")));
+        validators.flush();
+        handled.get(5, TimeUnit.SECONDS);
+
+        // Three links, one provider call; only the unclaimed link was probed over HTTP
+        assertEquals(List.of(List.of("live", "gone", "busy")), calls);
+        verify(httpClient, times(1)).send(any(), any());
+        verify(resultWriter).submit(eq(live), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        verify(resultWriter).submit(eq(gone), eq(ExternalLink.LinkStatus.BROKEN), any(), any());
+        verify(retryQueue).retryOrDeadLetter(argThat(task -> task.id().equals(busy)), any());
+        verify(resultWriter).submit(eq(other), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        // One breaker sample for the call, on the provider's circuit rather than the links' host
+        assertEquals(1, circuitBreaker.health("drive").orElseThrow().calls());
+        assertTrue(circuitBreaker.health("drive.google.com").isEmpty());
+    }
+
+    // --- SCENARIO 18: A HOST'S BACKLOG HOLDS NO GLOBAL PERMITS ---
+    @Test
+    void shouldNotLetQueuedTasksOfOneHostHoldPermitsNeededByOthers() throws Exception {
+        HostScheduler oneAtATime = new HostScheduler(meterRegistry, 1, Duration.ZERO, 500);
+        AdaptiveLimiter limiter = AdaptiveLimiter.fixed(2, meterRegistry);
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, oneAtATime, circuitBreaker, probeCoalescer,
+                retryQueue, ProbeHttpClients.of(httpClient), meterRegistry, true, limiter,
+                new ProbeLatencyMetrics(meterRegistry), new ProbeStrategyCache(meterRegistry), LinkValidators.none(), BUDGET);
+        CompletableFuture<HttpResponse<Object>> hung = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(), any())).thenReturn(hung, CompletableFuture.completedFuture(httpResponse));
+        when(httpResponse.statusCode()).thenReturn(200);
+
+        asyncWorker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://hot.example.com/1"));
+        CompletableFuture<Void> queued = asyncWorker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://hot.example.com/2"));
+        UUID other = UUID.randomUUID();
+        // Would block on the limit if the queued task had taken the second permit
+        CompletableFuture<Void> unrelated = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> asyncWorker.handleMessage(new LinkValidationTask(other, "https://cold.example.org/1")));
+
+        unrelated.get(5, TimeUnit.SECONDS);
+        assertFalse(queued.isDone());
+        verify(resultWriter).submit(eq(other), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    // --- SCENARIO 19: WAITING FOR THE HOST SLOT SPENDS NO BUDGET ---
+    @Test
+    void shouldStartTheBudgetOnceTheHostSlotIsGranted() throws Exception {
+        HostScheduler oneAtATime = new HostScheduler(meterRegistry, 1, Duration.ZERO, 500);
+        LinkWorkerService asyncWorker = new LinkWorkerService(resultWriter, oneAtATime, circuitBreaker, probeCoalescer,
+                retryQueue, ProbeHttpClients.of(httpClient), meterRegistry, true, AdaptiveLimiter.fixed(2, meterRegistry),
+                new ProbeLatencyMetrics(meterRegistry), new ProbeStrategyCache(meterRegistry), LinkValidators.none(), BUDGET);
+        CompletableFuture<HttpResponse<Object>> slow = new CompletableFuture<>();
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.sendAsync(requests.capture(), any())).thenReturn(slow, CompletableFuture.completedFuture(httpResponse));
+        when(httpResponse.statusCode()).thenReturn(200);
+
+        asyncWorker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://hot.example.com/1"));
+        UUID queued = UUID.randomUUID();
+        CompletableFuture<Void> second = asyncWorker.handleMessage(new LinkValidationTask(queued, "https://hot.example.com/2", 0, 200));
+        Thread.sleep(300);
+        slow.complete(httpResponse);
+
+        second.get(5, TimeUnit.SECONDS);
+        Duration timeout = requests.getAllValues().get(1).timeout().orElseThrow();
+        assertTrue(timeout.compareTo(Duration.ofMillis(100)) > 0, "budget spent while queued: " + timeout);
+        verify(resultWriter).submit(eq(queued), eq(ExternalLink.LinkStatus.VALIDATED), any(), any());
+        assertEquals(0.0, meterRegistry.get("link.validation.timeout").counter().count());
+    }
+
+    // --- SCENARIO 20: A PROBE THAT NEVER LEFT TEACHES THE LIMITER AND BREAKER NOTHING ---
+    @Test
+    void shouldReleaseWithoutASampleWhenNothingWasSent() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(meterRegistry, true, 2, 1, 20, 0.5, 2.0, 0.5);
+        LinkWorkerService worker = new LinkWorkerService(resultWriter, hostScheduler, circuitBreaker, probeCoalescer,
+                retryQueue, ProbeHttpClients.of(httpClient), meterRegistry, false, limiter,
+                new ProbeLatencyMetrics(meterRegistry), new ProbeStrategyCache(meterRegistry), LinkValidators.none(), BUDGET);
+
+        for (int i = 0; i < 3; i++) {
+            worker.handleMessage(new LinkValidationTask(UUID.randomUUID(), "https://bad host.example.com/" + i)).get(5, TimeUnit.SECONDS);
+        }
+
+        verify(httpClient, never()).send(any(), any());
+        assertEquals(0, circuitBreaker.health("unknown").orElseThrow().calls());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(2, limiter.limit());
     }
 }
@@ -0,0 +1,113 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.MpmcRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MpmcRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(4, new MpmcRingBuffer<Integer>(3).capacity());
+        assertEquals(1024, new MpmcRingBuffer<Integer>(1000).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingBuffer<Integer>(1));
+    }
+
+    @Test
+    void shouldRejectWhenFullAndKeepFifoOrderAcrossLaps() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(lap * 10 + i));
+            }
+            assertFalse(buffer.offer(99));
+            assertEquals(4, buffer.size());
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(lap * 10 + i, buffer.poll());
+            }
+            assertNull(buffer.poll());
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    void shouldDrainAtMostLimit() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertEquals(3, buffer.drain(drained::add, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, buffer.drain(drained::add, 10));
+    }
+
+    @Test
+    void shouldHandEveryElementToExactlyOneConsumer() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+        ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    while (consumed.get() < producers * perProducer) {
+                        Integer element = buffer.poll();
+                        if (element == null) {
+                            Thread.yield();
+                        } else {
+                            consumed.incrementAndGet();
+                            if (seen.put(element, Boolean.TRUE) != null) {
+                                duplicates.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(producers * perProducer, seen.size());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.worker.LinkWorkerService;
+import com.vantage.api.worker.PostgresQueueConsumer;
+import com.vantage.api.worker.PostgresTaskQueue;
+import com.vantage.api.worker.PostgresTaskQueue.Claim;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostgresQueueConsumerTest {
+
+    @Mock
+    private LinkWorkerService workerService;
+
+    @Mock
+    private PostgresTaskQueue queue;
+
+    private PostgresQueueConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        // Run dispatched work inline; batches of 2, at most 3 claimed rows outstanding
+        consumer = new PostgresQueueConsumer(workerService, queue, Runnable::run, 2, 3, Duration.ofSeconds(5));
+    }
+
+    private static Claim claim(long id) {
+        return new Claim(id, new LinkValidationTask(UUID.randomUUID(), "https://example.com/" + id));
+    }
+
+    @Test
+    void shouldDeleteFinishedRowsOnNextPoll() {
+        Claim first = claim(1);
+        when(queue.claim(2)).thenReturn(List.of(first), List.of());
+        when(workerService.handleMessage(first.task())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.poll();
+        verify(queue).complete(List.of());
+
+        consumer.poll();
+        verify(queue).complete(List.of(1L));
+    }
+
+    @Test
+    void shouldLeaveFailedRowsLeased() {
+        Claim failing = claim(7);
+        when(queue.claim(2)).thenReturn(List.of(failing), List.of());
+        when(workerService.handleMessage(failing.task()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        consumer.poll();
+        consumer.poll();
+
+        verify(queue, times(2)).complete(List.of());
+    }
+
+    @Test
+    void shouldStopClaimingAtMaxClaimed() {
+        // Never completes: every claim stays outstanding
+        when(workerService.handleMessage(any())).thenReturn(new CompletableFuture<>());
+        when(queue.claim(anyInt())).thenReturn(List.of(claim(1), claim(2)), List.of(claim(3)));
+
+        consumer.poll();
+
+        // 2 claimed, then only room for 1 more, then none
+        verify(queue).claim(2);
+        verify(queue).claim(1);
+        verify(queue, times(2)).claim(anyInt());
+    }
+}
@@ -0,0 +1,64 @@
+package com.vantage.api.service;
+
+import com.vantage.api.entity.ExternalLink.LinkStatus;
+import com.vantage.api.worker.ProbeCoalescer;
+import com.vantage.api.worker.UrlNormalizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProbeCoalescerTest {
+
+    @Test
+    void shouldNormalizeEquivalentUrlsToTheSameKey() {
+        assertEquals("https://example.com/", UrlNormalizer.normalize("HTTPS://Example.COM"));
+        assertEquals("http://example.com/a?b=1", UrlNormalizer.normalize(" http://example.com:80/a?b=1#top "));
+        assertEquals("https://example.com:8443/A", UrlNormalizer.normalize("https://EXAMPLE.com:8443/A"));
+        assertEquals("not a url", UrlNormalizer.normalize("not a url"));
+    }
+
+    @Test
+    void shouldShareOutstandingProbeAndStartAFreshOneAfterCompletion() {
+        ProbeCoalescer coalescer = new ProbeCoalescer(new SimpleMeterRegistry());
+        AtomicInteger probes = new AtomicInteger();
+        CompletableFuture<LinkStatus> response = new CompletableFuture<>();
+
+        CompletableFuture<LinkStatus> leader = coalescer.probe("https://example.com/x", () -> {
+            probes.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<LinkStatus> follower = coalescer.probe("https://EXAMPLE.com/x", () -> {
+            probes.incrementAndGet();
+            return CompletableFuture.completedFuture(LinkStatus.BROKEN);
+        });
+        assertSame(leader, follower);
+
+        response.complete(LinkStatus.VALIDATED);
+        assertEquals(LinkStatus.VALIDATED, follower.join());
+
+        coalescer.probe("https://example.com/x", () -> {
+            probes.incrementAndGet();
+            return CompletableFuture.completedFuture(LinkStatus.BROKEN);
+        });
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    void shouldFailAllWaitersWhenTheProbeFails() {
+        ProbeCoalescer coalescer = new ProbeCoalescer(new SimpleMeterRegistry());
+        CompletableFuture<LinkStatus> response = new CompletableFuture<>();
+
+        CompletableFuture<LinkStatus> leader = coalescer.probe("https://example.com/x", () -> response);
+        CompletableFuture<LinkStatus> follower = coalescer.probe("https://example.com/x", () -> response);
+        response.completeExceptionally(new IllegalStateException("host busy"));
+
+        assertTrue(leader.isCompletedExceptionally());
+        assertTrue(follower.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,86 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.DnsCache;
+import com.vantage.api.worker.ProbeHttpClients;
+import com.vantage.api.worker.ProbeHttpClients.Pooling;
+import com.vantage.api.worker.WorkerThreadMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProbeHttpClientsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DnsCache dnsCache = new DnsCache(meterRegistry, Duration.ofMinutes(5), Duration.ofSeconds(30), 100,
+            System::nanoTime);
+
+    private ProbeHttpClients clients(Pooling pooling) throws Exception {
+        // Host group = everything after the first label
+        return new ProbeHttpClients(meterRegistry, pooling, HttpClient.Version.HTTP_2, Duration.ofSeconds(1),
+                WorkerThreadMode.PLATFORM, SSLContext.getDefault(), host -> host.substring(host.indexOf('.') + 1), dnsCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<Void> response(HttpClient.Version version) {
+        HttpResponse<Void> response = mock(HttpResponse.class);
+        when(response.version()).thenReturn(version);
+        return response;
+    }
+
+    @Test
+    void shouldPreferHttp2AndShareOneClientByDefault() throws Exception {
+        ProbeHttpClients clients = clients(Pooling.SHARED);
+
+        HttpClient client = clients.clientFor("a.example.com");
+
+        assertSame(client, clients.clientFor("b.other.org"));
+        assertEquals(HttpClient.Version.HTTP_2, client.version());
+    }
+
+    @Test
+    void shouldGiveEachHostGroupItsOwnClient() throws Exception {
+        ProbeHttpClients clients = clients(Pooling.PER_HOST_GROUP);
+
+        assertSame(clients.clientFor("a.example.com"), clients.clientFor("b.example.com"));
+        assertNotSame(clients.clientFor("a.example.com"), clients.clientFor("a.other.org"));
+    }
+
+    @Test
+    void shouldLeaveOnlyProbedHostsToTheDnsCache() throws Exception {
+        ProbeHttpClients clients = clients(Pooling.SHARED);
+
+        clients.clientFor("Files.Example.com");
+
+        assertTrue(dnsCache.isProbeHost("files.example.com"));
+        assertFalse(dnsCache.isProbeHost("db.internal"));
+    }
+
+    @Test
+    void shouldCountHandshakesAgainstHttpsRequests() throws Exception {
+        ProbeHttpClients clients = clients(Pooling.PER_HOST_GROUP);
+        SSLContext context = clients.clientFor("a.example.com").sslContext();
+
+        // One TLS connection carrying three requests, two of them multiplexed over HTTP/2
+        context.createSSLEngine("a.example.com", 443);
+        clients.onResponse("a.example.com", true, response(HttpClient.Version.HTTP_1_1));
+        clients.onResponse("a.example.com", true, response(HttpClient.Version.HTTP_2));
+        clients.onResponse("b.example.com", true, response(HttpClient.Version.HTTP_2));
+        clients.onResponse("a.example.com", false, response(HttpClient.Version.HTTP_1_1));
+
+        assertEquals(1.0, meterRegistry.get("link.http.tls.handshakes").tag("pool", "example.com").counter().count());
+        assertEquals(2.0, meterRegistry.get("link.http.requests").tag("pool", "example.com").tag("version", "2")
+                .counter().count());
+        assertEquals(3.0, meterRegistry.get("link.http.streams_per_connection").tag("pool", "example.com")
+                .gauge().value());
+        assertEquals(2.0 / 3, meterRegistry.get("link.http.connection.reuse").tag("pool", "example.com")
+                .gauge().value(), 1e-9);
+    }
+}
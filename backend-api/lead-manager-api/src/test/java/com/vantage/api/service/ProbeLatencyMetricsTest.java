@@ -0,0 +1,75 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.ProbeLatencyMetrics;
+import com.vantage.api.worker.ProbeLatencyMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbeLatencyMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProbeLatencyMetrics metrics =
+            new ProbeLatencyMetrics(meterRegistry, 2, List.of(Duration.ofMillis(100), Duration.ofSeconds(1)));
+
+    @Test
+    void shouldGroupHostsByRegistrableDomain() {
+        assertEquals("example.com", metrics.hostGroup("www.example.com"));
+        assertEquals("example.com", metrics.hostGroup("CDN.Example.com"));
+        assertEquals("example.co.uk", new ProbeLatencyMetrics(meterRegistry).hostGroup("static.example.co.uk"));
+    }
+
+    @Test
+    void shouldFoldHostGroupsBeyondTheCapIntoOther() {
+        assertEquals("a.com", metrics.hostGroup("a.com"));
+        assertEquals("b.com", metrics.hostGroup("www.b.com"));
+
+        assertEquals(ProbeLatencyMetrics.OTHER_HOSTS, metrics.hostGroup("c.com"));
+        // Groups admitted before the cap keep their own tag value
+        assertEquals("a.com", metrics.hostGroup("x.a.com"));
+        assertEquals(ProbeLatencyMetrics.OTHER_HOSTS, metrics.hostGroup("10.0.0.1"));
+    }
+
+    @Test
+    void shouldNotRememberDomainsBeyondTheCap() {
+        for (int i = 0; i < 1_000; i++) {
+            assertNotNull(metrics.hostGroup("www.domain" + i + ".com"));
+        }
+
+        assertEquals(2, metrics.knownHostGroups());
+        assertEquals(ProbeLatencyMetrics.OTHER_HOSTS, metrics.hostGroup("www.domain999.com"));
+        assertEquals("domain0.com", metrics.hostGroup("cdn.domain0.com"));
+    }
+
+    @Test
+    void shouldPublishSloBucketsPerHostGroupAndOutcome() {
+        metrics.record(Stage.UPSTREAM, "a.com", "validated", TimeUnit.MILLISECONDS.toNanos(50));
+        metrics.record(Stage.UPSTREAM, "a.com", "validated", TimeUnit.MILLISECONDS.toNanos(500));
+        metrics.record(Stage.UPSTREAM, "a.com", "timeout", TimeUnit.SECONDS.toNanos(5));
+
+        Timer validated = meterRegistry.get("link.validation.upstream")
+                .tag("host_group", "a.com").tag("outcome", "validated").timer();
+        assertEquals(2, validated.count());
+        CountAtBucket[] buckets = validated.takeSnapshot().histogramCounts();
+        double within100ms = Arrays.stream(buckets)
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 100)
+                .findFirst().orElseThrow().count();
+        assertEquals(1, within100ms);
+        assertEquals(1, meterRegistry.get("link.validation.upstream").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void shouldSkipStagesThatWereNotMeasured() {
+        metrics.record(Stage.QUEUE_WAIT, "a.com", "validated", -1);
+
+        assertNull(meterRegistry.find("link.validation.queue_wait").timer());
+    }
+}
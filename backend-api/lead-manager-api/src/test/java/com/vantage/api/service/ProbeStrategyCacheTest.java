@@ -0,0 +1,74 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.ProbeResponse;
+import com.vantage.api.worker.ProbeStrategy;
+import com.vantage.api.worker.ProbeStrategyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbeStrategyCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ProbeResponse status(int code) {
+        return new ProbeResponse(code, null, null);
+    }
+
+    @Test
+    void shouldWalkTheFallbackChainOnlyOnRefusals() {
+        assertEquals(ProbeStrategy.RANGE_GET, ProbeStrategy.HEAD.fallback(405));
+        assertEquals(ProbeStrategy.GET, ProbeStrategy.RANGE_GET.fallback(416));
+        assertNull(ProbeStrategy.HEAD.fallback(404));
+        assertNull(ProbeStrategy.RANGE_GET.fallback(403));
+        assertNull(ProbeStrategy.GET.fallback(405));
+    }
+
+    @Test
+    void shouldRememberOnlyAFallbackThatValidated() {
+        ProbeStrategyCache cache = new ProbeStrategyCache(meterRegistry, 10);
+
+        assertEquals(ProbeStrategy.GET, cache.next("a.example.com", ProbeStrategy.RANGE_GET, status(405)));
+        assertNull(cache.next("a.example.com", ProbeStrategy.GET, status(200)));
+        assertNull(cache.next("b.example.com", ProbeStrategy.RANGE_GET, status(404)));
+        assertNull(cache.next("c.example.com", ProbeStrategy.HEAD, status(200)));
+
+        assertEquals(ProbeStrategy.GET, cache.strategyFor("a.example.com"));
+        assertEquals(ProbeStrategy.HEAD, cache.strategyFor("b.example.com"));
+        assertEquals(ProbeStrategy.HEAD, cache.strategyFor("c.example.com"));
+        assertEquals(1.0, meterRegistry.get("link.probe.fallback").tag("strategy", "get").counter().count());
+    }
+
+    @Test
+    void shouldLearnOnlyFromMethodRefusals() {
+        ProbeStrategyCache cache = new ProbeStrategyCache(meterRegistry, 10);
+
+        // Ranged GET accepted, the resource is just empty: the host keeps the ranged GET
+        assertEquals(ProbeStrategy.RANGE_GET, cache.next("a.example.com", ProbeStrategy.HEAD, status(405)));
+        assertEquals(ProbeStrategy.GET, cache.next("a.example.com", ProbeStrategy.RANGE_GET, status(416)));
+        assertNull(cache.next("a.example.com", ProbeStrategy.GET, status(200)));
+        assertEquals(ProbeStrategy.RANGE_GET, cache.strategyFor("a.example.com"));
+
+        // The host starts refusing it: forgotten, and plain GET learned instead
+        assertEquals(ProbeStrategy.GET, cache.next("a.example.com", ProbeStrategy.RANGE_GET, status(501)));
+        assertNull(cache.next("a.example.com", ProbeStrategy.GET, status(200)));
+        assertEquals(ProbeStrategy.GET, cache.strategyFor("a.example.com"));
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyProbedHost() {
+        ProbeStrategyCache cache = new ProbeStrategyCache(meterRegistry, 2);
+        cache.next("a.example.com", ProbeStrategy.RANGE_GET, status(206));
+        cache.next("b.example.com", ProbeStrategy.RANGE_GET, status(206));
+
+        cache.strategyFor("a.example.com");
+        cache.next("c.example.com", ProbeStrategy.GET, status(200));
+
+        assertEquals(2, cache.size());
+        assertEquals(ProbeStrategy.RANGE_GET, cache.strategyFor("a.example.com"));
+        assertEquals(ProbeStrategy.HEAD, cache.strategyFor("b.example.com"));
+        assertEquals(ProbeStrategy.GET, cache.strategyFor("c.example.com"));
+        assertEquals(2.0, meterRegistry.get("link.probe.strategy.hosts").gauge().value());
+    }
+}
@@ -0,0 +1,113 @@
+package com.vantage.api.service;
+
+import com.vantage.api.dto.DeadLetter;
+import com.vantage.api.dto.LinkValidationTask;
+import com.vantage.api.exception.ResourceNotFoundException;
+import com.vantage.api.worker.RedisLinkRetryQueue;
+import com.vantage.api.worker.LinkValidationQueue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisLinkRetryQueueTest {
+
+    @Mock
+    private RedisTemplate<String, LinkValidationTask> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, LinkValidationTask> zSetOps;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOps;
+
+    @Mock
+    private LinkValidationQueue validationQueue;
+
+    private RedisLinkRetryQueue retryQueue;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+        retryQueue = new RedisLinkRetryQueue(redisTemplate, validationQueue, new SimpleMeterRegistry(),
+                "links", 3, Duration.ofSeconds(4), Duration.ofSeconds(10), 100);
+    }
+
+    @Test
+    void shouldParkNextAttemptWithBackoffWhileAttemptsRemain() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://flaky.com/");
+        long before = System.currentTimeMillis();
+
+        assertTrue(retryQueue.retryOrDeadLetter(task, "timeout"));
+
+        ArgumentCaptor<LinkValidationTask> parked = ArgumentCaptor.forClass(LinkValidationTask.class);
+        ArgumentCaptor<Double> dueAt = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOps).add(eq("links:retry"), parked.capture(), dueAt.capture());
+        // First retry: 4s ceiling with equal jitter, so between 2s and 4s from now
+        assertTrue(dueAt.getValue() >= before + 2_000 && dueAt.getValue() <= System.currentTimeMillis() + 4_000);
+        // Its queue wait is measured from the due time, not from the first enqueue
+        assertEquals(task.nextAttempt().withEnqueuedAt(dueAt.getValue().longValue()), parked.getValue());
+        verifyNoInteractions(hashOps);
+    }
+
+    @Test
+    void shouldCapBackoffAtMaxDelay() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://flaky.com/", 1);
+
+        retryQueue.retryOrDeadLetter(task, "timeout");
+
+        ArgumentCaptor<Double> dueAt = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOps).add(eq("links:retry"), argThat((LinkValidationTask parked) -> parked.attempt() == 2), dueAt.capture());
+        // 8s ceiling is still under the cap; never beyond 10s
+        assertTrue(dueAt.getValue() <= System.currentTimeMillis() + 10_000);
+    }
+
+    @Test
+    void shouldDeadLetterOnFinalAttempt() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://down.com/", 2);
+
+        assertFalse(retryQueue.retryOrDeadLetter(task, "connection refused"));
+
+        verify(hashOps).put(eq("links:dead"), eq(task.id().toString()),
+                argThat(letter -> ((DeadLetter) letter).task().equals(task)
+                        && ((DeadLetter) letter).reason().equals("connection refused")));
+        verify(zSetOps, never()).add(any(), any(), anyDouble());
+    }
+
+    @Test
+    void replayShouldRemoveDeadLetterAndPublishFreshAttempt() {
+        LinkValidationTask task = new LinkValidationTask(UUID.randomUUID(), "https://down.com/", 2);
+        when(hashOps.get("links:dead", task.id().toString())).thenReturn(new DeadLetter(task, "x", 1L));
+        when(hashOps.delete("links:dead", task.id().toString())).thenReturn(1L);
+
+        retryQueue.replay(task.id());
+
+        verify(validationQueue).publish(new LinkValidationTask(task.id(), "https://down.com/"));
+    }
+
+    @Test
+    void replayShouldThrowWhenDeadLetterIsMissing() {
+        UUID id = UUID.randomUUID();
+        when(hashOps.get("links:dead", id.toString())).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> retryQueue.replay(id));
+        verify(validationQueue, never()).publish(any());
+    }
+}
@@ -0,0 +1,26 @@
+package com.vantage.api.service;
+
+import com.vantage.api.worker.WorkerThreadMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkerThreadModeTest {
+
+    @Test
+    void virtualModeShouldRunTasksOnVirtualThreads() throws Exception {
+        try (ExecutorService executor = WorkerThreadMode.VIRTUAL.newExecutor("test", 1)) {
+            assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+        }
+    }
+
+    @Test
+    void platformModeShouldRunTasksOnPlatformThreads() throws Exception {
+        try (ExecutorService executor = WorkerThreadMode.PLATFORM.newExecutor("test", 2)) {
+            assertFalse(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+        }
+    }
+}